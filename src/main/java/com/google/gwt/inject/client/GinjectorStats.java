@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provisioning statistics of a ginjector.  Ginjectors implement this interface
+ * only if they were generated with the {@code gin.stats.enabled}
+ * configuration property set to {@code true}; otherwise no statistics code is
+ * generated at all.  To read the statistics, cast the ginjector:
+ *
+ * <pre style=code>
+ *   MyGinjector injector = GWT.create(MyGinjector.class);
+ *   ...
+ *   if (injector instanceof GinjectorStats) {
+ *     Map&lt;String, Integer&gt; counts = ((GinjectorStats) injector).getProvisionCounts();
+ *   }
+ * </pre>
+ *
+ * <p>All statistics are keyed by the string representation of the binding
+ * key and are shared by all ginjectors generated with statistics enabled.
+ */
+public interface GinjectorStats {
+
+  /**
+   * Returns how often each key has been provisioned, i.e. how often its
+   * binding created a new instance.  Singletons are counted once.
+   */
+  Map<String, Integer> getProvisionCounts();
+
+  /**
+   * Returns the cumulative time in milliseconds spent provisioning each key,
+   * including the time spent provisioning its dependencies.
+   */
+  Map<String, Double> getProvisionMillis();
+
+  /**
+   * Returns the scope each provisioned key is bound in.
+   */
+  Map<String, String> getProvisionScopes();
+
+  /**
+   * Returns the keys of all singletons (including eager singletons) in the
+   * order in which they were created.
+   */
+  List<String> getSingletonCreationOrder();
+
+  /**
+   * Discards all statistics recorded so far.
+   */
+  void resetStats();
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client;
+
+import com.google.gwt.core.client.Duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the statistics exposed through {@link GinjectorStats}.  Every
+ * generated ginjector instance owns one recorder, shared by all its injectors
+ * and fragments.  Only referenced from generated ginjectors; not meant to be
+ * used directly.
+ */
+public final class GinjectorStatsRecorder implements GinjectorStats {
+
+  private final Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+  private final Map<String, Double> millis = new LinkedHashMap<String, Double>();
+  private final Map<String, String> scopes = new LinkedHashMap<String, String>();
+  private final List<String> singletonCreationOrder = new ArrayList<String>();
+
+  /**
+   * Returns the start time to pass to {@link #record} once the provision is
+   * complete.
+   */
+  public static double start() {
+    return Duration.currentTimeMillis();
+  }
+
+  /**
+   * Records a completed provision of the given key.
+   *
+   * @param key string representation of the provisioned key
+   * @param scope the scope the key is bound in
+   * @param singleton whether the provisioned instance is a singleton
+   * @param start value returned by {@link #start} before the provision began
+   */
+  public void record(String key, String scope, boolean singleton, double start) {
+    double elapsed = Duration.currentTimeMillis() - start;
+
+    Integer count = counts.get(key);
+    counts.put(key, count == null ? 1 : count + 1);
+
+    Double total = millis.get(key);
+    millis.put(key, total == null ? elapsed : total + elapsed);
+
+    scopes.put(key, scope);
+    if (singleton) {
+      singletonCreationOrder.add(key);
+    }
+  }
+
+  public Map<String, Integer> getProvisionCounts() {
+    return Collections.unmodifiableMap(counts);
+  }
+
+  public Map<String, Double> getProvisionMillis() {
+    return Collections.unmodifiableMap(millis);
+  }
+
+  public Map<String, String> getProvisionScopes() {
+    return Collections.unmodifiableMap(scopes);
+  }
+
+  public List<String> getSingletonCreationOrder() {
+    return Collections.unmodifiableList(singletonCreationOrder);
+  }
+
+  public void resetStats() {
+    counts.clear();
+    millis.clear();
+    scopes.clear();
+    singletonCreationOrder.clear();
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When the {@code gin.eagerSingletons.deferred} configuration property is set,
+ * eager singletons are created incrementally through the GWT scheduler after
+ * the Ginjector has been created.  Annotating the type of an eager singleton
+ * binding with this annotation keeps it startup-critical: it is still created
+ * synchronously before {@code GWT.create()} returns the Ginjector.
+ *
+ * <p>Without the configuration property, this annotation has no effect.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface InitializeSynchronously {}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client;
+
+/**
+ * A handle to a lazily created instance of type T.  The instance is created
+ * through the injector on the first call to {@link #get()}; every later call
+ * on the same {@code Lazy} returns that same instance.
+ *
+ * <p>Unlike {@code Provider<T>}, which asks the injector for a value on every
+ * call, and {@link AsyncProvider}, which introduces a split point, a
+ * {@code Lazy<T>} simply defers construction until first use:
+ *
+ *  <pre style=code>
+ *      public T get() {
+ *        if (instance == null) {
+ *          instance = Provider<T>.get();
+ *        }
+ *        return instance;
+ *      }
+ *  </pre>
+ *
+ * <p>Note that each injected {@code Lazy<T>} memoises its own instance; two
+ * different {@code Lazy<T>} handles for an unscoped {@code T} will return
+ * different instances.
+ */
+public interface Lazy<T> {
+
+  /**
+   * Returns the instance of T, creating it on the first invocation.
+   */
+  T get();
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client.rpc;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.user.client.rpc.RpcRequestBuilder;
+import com.google.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link RpcRequestBuilder} that sends the RPC calls issued in the same
+ * event loop turn as a single HTTP request.
+ *
+ * <p>When the {@code gin.rpc.batching} configuration property is set, every
+ * implicitly bound GWT-RPC proxy is configured with this request builder and
+ * wrapped by a generated class that hands its calls to {@link #defer}.  At the
+ * end of the event loop turn, the deferred calls are made while a batch is
+ * open: their serialized requests are collected instead of sent, and then
+ * posted together to {@link #getBatchUrl()}.  On the server, the batch is
+ * split up by {@code com.google.gwt.inject.server.rpc.RpcBatchServlet}, which
+ * must be mapped to that URL.
+ *
+ * <p>A deferred call is only made, and so its arguments only serialized, when
+ * the batch is flushed.  Changes made to the arguments between the call and
+ * the end of the event loop turn are therefore sent as well.
+ *
+ * <p>The {@link Request} of a batched call can be cancelled on its own: its
+ * callback is then not called, and the batch's HTTP request is cancelled once
+ * all of its calls are.  If the batch response cannot be parsed, the callback
+ * of every call in the batch receives an error.
+ *
+ * <p>To plug in a different batching strategy (e.g. another URL or additional
+ * headers), bind this class to a subclass in a Gin module.
+ */
+@Singleton
+public class BatchingRpcRequestBuilder extends RpcRequestBuilder {
+
+  /**
+   * The path, relative to the module base URL, to which batches are posted by
+   * default.
+   */
+  public static final String DEFAULT_BATCH_PATH = "gin.rpcBatch";
+
+  private static final String CONTENT_TYPE = "text/x-gwt-rpc; charset=utf-8";
+
+  private final List<ScheduledCommand> deferredCalls = new ArrayList<ScheduledCommand>();
+  private List<BatchedRequestBuilder> openBatch;
+
+  /**
+   * Makes the given RPC call at the end of the current event loop turn,
+   * together with all other calls deferred in that turn.
+   */
+  public void defer(ScheduledCommand call) {
+    deferredCalls.add(call);
+    if (deferredCalls.size() == 1) {
+      Scheduler.get().scheduleFinally(new ScheduledCommand() {
+        public void execute() {
+          flush();
+        }
+      });
+    }
+  }
+
+  /**
+   * Returns the URL to which batches are posted.
+   */
+  protected String getBatchUrl() {
+    return GWT.getModuleBaseURL() + DEFAULT_BATCH_PATH;
+  }
+
+  @Override
+  protected RequestBuilder doCreate(String serviceEntryPoint) {
+    if (openBatch != null) {
+      return new BatchedRequestBuilder(serviceEntryPoint);
+    }
+    return super.doCreate(serviceEntryPoint);
+  }
+
+  private void flush() {
+    List<ScheduledCommand> calls = new ArrayList<ScheduledCommand>(deferredCalls);
+    deferredCalls.clear();
+
+    List<BatchedRequestBuilder> batch = new ArrayList<BatchedRequestBuilder>();
+    openBatch = batch;
+    try {
+      for (ScheduledCommand call : calls) {
+        call.execute();
+      }
+    } finally {
+      openBatch = null;
+    }
+
+    if (batch.size() == 1) {
+      // Not worth the batch servlet's round trip.
+      batch.get(0).sendNow();
+    } else if (!batch.isEmpty()) {
+      send(batch);
+    }
+  }
+
+  private void send(final List<BatchedRequestBuilder> batch) {
+    StringBuilder requestData = new StringBuilder();
+    for (BatchedRequestBuilder entry : batch) {
+      appendEntry(requestData, entry.getUrl(), entry.getRequestData());
+    }
+
+    RequestBuilder builder = new RequestBuilder(RequestBuilder.POST, getBatchUrl());
+    doSetContentType(builder, CONTENT_TYPE);
+    doFinish(builder);
+    builder.setRequestData(requestData.toString());
+    builder.setCallback(new RequestCallback() {
+      public void onResponseReceived(Request request, Response response) {
+        if (response.getStatusCode() != 200) {
+          // The batch as a whole failed.
+          for (BatchedRequestBuilder entry : batch) {
+            entry.request.onResponseReceived(response);
+          }
+          return;
+        }
+
+        List<Response> responses = parseResponses(response.getText(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+          if (responses == null) {
+            batch.get(i).request.onError(new RequestException("Malformed batch response"));
+          } else {
+            batch.get(i).request.onResponseReceived(responses.get(i));
+          }
+        }
+      }
+
+      public void onError(Request request, Throwable exception) {
+        for (BatchedRequestBuilder entry : batch) {
+          entry.request.onError(exception);
+        }
+      }
+    });
+
+    Request httpRequest;
+    try {
+      httpRequest = builder.send();
+    } catch (RequestException e) {
+      for (BatchedRequestBuilder entry : batch) {
+        entry.request.onError(e);
+      }
+      return;
+    }
+
+    for (BatchedRequestBuilder entry : batch) {
+      entry.request.setHttpRequest(httpRequest, batch);
+    }
+  }
+
+  /**
+   * Returns the responses of a batch of the given size, or {@code null} if the
+   * text is not a batch response of that size.
+   */
+  private static List<Response> parseResponses(String text, int size) {
+    List<Response> responses = new ArrayList<Response>(size);
+    int offset = 0;
+    for (int i = 0; i < size; i++) {
+      int statusEnd = text.indexOf('\n', offset);
+      int lengthEnd = statusEnd == -1 ? -1 : text.indexOf('\n', statusEnd + 1);
+      if (lengthEnd == -1) {
+        return null;
+      }
+
+      int status = parseNumber(text.substring(offset, statusEnd));
+      int length = parseNumber(text.substring(statusEnd + 1, lengthEnd));
+      if (status == -1 || length == -1 || length > text.length() - lengthEnd - 1) {
+        return null;
+      }
+
+      offset = lengthEnd + 1 + length;
+      responses.add(new BatchedResponse(status, text.substring(lengthEnd + 1, offset)));
+    }
+    return offset == text.length() ? responses : null;
+  }
+
+  /**
+   * Returns the value of a non-empty string of at most nine decimal digits,
+   * or -1.
+   */
+  private static int parseNumber(String digits) {
+    if (digits.length() == 0 || digits.length() > 9) {
+      return -1;
+    }
+
+    int value = 0;
+    for (int i = 0; i < digits.length(); i++) {
+      char c = digits.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Appends an entry of a batch: the URL and the length of the data on a line
+   * each, followed by the data.
+   */
+  private static void appendEntry(StringBuilder output, String url, String data) {
+    output.append(url).append('\n').append(data.length()).append('\n').append(data);
+  }
+
+  /**
+   * A request builder whose request is added to the open batch instead of
+   * being sent.
+   */
+  private final class BatchedRequestBuilder extends RequestBuilder {
+
+    private final BatchedRequest request = new BatchedRequest(this);
+
+    BatchedRequestBuilder(String url) {
+      super(RequestBuilder.POST, url);
+    }
+
+    @Override
+    public Request send() {
+      openBatch.add(this);
+      return request;
+    }
+
+    void sendNow() {
+      try {
+        Request httpRequest = sendRequest(getRequestData(), new RequestCallback() {
+          public void onResponseReceived(Request httpRequest, Response response) {
+            request.onResponseReceived(response);
+          }
+
+          public void onError(Request httpRequest, Throwable exception) {
+            request.onError(exception);
+          }
+        });
+        request.setHttpRequest(httpRequest, Collections.singletonList(this));
+      } catch (RequestException e) {
+        request.onError(e);
+      }
+    }
+  }
+
+  /**
+   * The request of a single call of a batch.  Pending until the response to
+   * the call arrives or the call is cancelled.
+   */
+  private static final class BatchedRequest extends Request {
+
+    private final BatchedRequestBuilder builder;
+    private Request httpRequest;
+    private List<BatchedRequestBuilder> batch;
+    private boolean cancelled;
+    private boolean completed;
+
+    BatchedRequest(BatchedRequestBuilder builder) {
+      this.builder = builder;
+    }
+
+    /**
+     * Remembers the HTTP request the call was sent with, together with the
+     * other calls sent with it.
+     */
+    void setHttpRequest(Request httpRequest, List<BatchedRequestBuilder> batch) {
+      this.httpRequest = httpRequest;
+      this.batch = batch;
+      if (cancelled) {
+        cancelHttpRequestIfUnused();
+      }
+    }
+
+    void onResponseReceived(Response response) {
+      if (!cancelled && !completed) {
+        completed = true;
+        builder.getCallback().onResponseReceived(this, response);
+      }
+    }
+
+    void onError(Throwable exception) {
+      if (!cancelled && !completed) {
+        completed = true;
+        builder.getCallback().onError(this, exception);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled && !completed) {
+        cancelled = true;
+        cancelHttpRequestIfUnused();
+      }
+    }
+
+    @Override
+    public boolean isPending() {
+      return !cancelled && !completed;
+    }
+
+    private void cancelHttpRequestIfUnused() {
+      if (httpRequest == null) {
+        return;
+      }
+
+      for (BatchedRequestBuilder entry : batch) {
+        if (!entry.request.cancelled) {
+          return;
+        }
+      }
+      httpRequest.cancel();
+    }
+  }
+
+  /**
+   * The response to a single request of a batch.
+   */
+  private static final class BatchedResponse extends Response {
+
+    private final int statusCode;
+    private final String text;
+
+    BatchedResponse(int statusCode, String text) {
+      this.statusCode = statusCode;
+      this.text = text;
+    }
+
+    @Override
+    public String getHeader(String header) {
+      return null;
+    }
+
+    @Override
+    public Header[] getHeaders() {
+      return new Header[0];
+    }
+
+    @Override
+    public String getHeadersAsString() {
+      return "";
+    }
+
+    @Override
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+      return "";
+    }
+
+    @Override
+    public String getText() {
+      return text;
+    }
+  }
+}
@@ -32,8 +32,8 @@ import com.google.inject.ConfigurationException;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.Module;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Element;
 import com.google.inject.spi.Elements;
 
 import javax.inject.Provider;
@@ -50,7 +50,7 @@ import java.util.Set;
  * Guice SPI to inspect the modules and build up details about the necessary
  * bindings in the {@link GinjectorBindings}. 
  */
-@Singleton
+@GeneratorRunScoped
 class BindingsProcessor {
   /**
    * Collector that gathers all methods from an injector.
@@ -99,7 +99,7 @@ class BindingsProcessor {
     rootGinjectorBindings.addUnresolvedEntriesForInjectorInterface();
     registerGinjectorBinding();
 
-    createBindingsForModules(instantiateModules());
+    createBindingsForModules();
     errorManager.checkForError();
     
     resolveAllUnresolvedBindings(rootGinjectorBindings);
@@ -196,9 +196,39 @@ class BindingsProcessor {
     errorManager.checkForError();
   }
 
-  private void createBindingsForModules(List<Module> modules) {
+  private void createBindingsForModules() {
     GuiceElementVisitor visitor = guiceElementVisitorFactory.create(rootGinjectorBindings);
-    visitor.visitElementsAndReportErrors(Elements.getElements(modules));
+    visitor.visitElementsAndReportErrors(getModuleElements());
+  }
+
+  /**
+   * Returns the elements of the ginjector's modules, replaying those recorded
+   * by an earlier run of this compilation if possible (see
+   * {@link ModuleElementsCache}).
+   */
+  private List<Element> getModuleElements() {
+    Class<?> ginjectorClass = ginjectorInterface.getRawType();
+    ModuleElementsCache cache = ModuleElementsCache.forGinjector(ginjectorClass);
+    ModuleElementsCache.RecordedModules recorded =
+        cache == null ? null : cache.get(moduleClasses);
+    if (recorded != null) {
+      for (FactoryModule<?> factoryModule : recorded.getFactoryModules()) {
+        rootGinjectorBindings.addFactoryModule(factoryModule);
+      }
+      return recorded.getElements();
+    }
+
+    List<Module> modules = instantiateModules();
+    List<Element> elements = Elements.getElements(modules);
+
+    // Private modules create child bindings while they are recorded, which
+    // replaying their elements would not repeat.
+    if (cache != null && modules.size() == moduleClasses.size()
+        && !rootGinjectorBindings.getChildren().iterator().hasNext()) {
+      cache.put(moduleClasses, new ModuleElementsCache.RecordedModules(elements,
+          rootGinjectorBindings.getFactoryModules()));
+    }
+    return elements;
   }
 
   private List<Module> instantiateModules() {
@@ -21,7 +21,6 @@ import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
 import com.google.inject.Inject;
 import com.google.inject.Key;
-import com.google.inject.Singleton;
 
 /**
  * Manages errors that occur during the binding process.  Keeps track of whether
@@ -29,7 +28,7 @@ import com.google.inject.Singleton;
  * {@link UnableToCompleteException}. We do this instead of throwing
  * immediately so that we can find more than one error per compilation cycle.
  */
-@Singleton
+@GeneratorRunScoped
 public class ErrorManager {
   private boolean foundError = false;
   private final TreeLogger logger;
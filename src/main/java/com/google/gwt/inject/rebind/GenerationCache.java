@@ -0,0 +1,460 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.inject.Inject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of generated ginjectors that persists across builds, so that a
+ * ginjector whose inputs did not change is not generated again.  Enabled by
+ * {@link GinProperties#GENERATION_CACHE_DIR}.
+ *
+ * <p>Each ginjector has one file in the cache directory, named after a digest
+ * of the Gin version, the ginjector and its modules (including their class
+ * files).  The file holds the sources written by the most recent runs for
+ * that ginjector, each together with the inputs the run consulted: the class
+ * files of all classes it loaded, the configuration properties it read and
+ * the rebind rules it checked (see {@link GenerationRecorder}).  The sources
+ * of a run are only reused if all of these are unchanged.
+ *
+ * <p>Runs that depend on sources created by other ginjectors or that write
+ * generator artifacts are not cached.  In particular, with
+ * {@link GinProperties#SHARE_INVOKERS} enabled, a shared invoker is only
+ * written by the first ginjector of a compilation that uses it, so the
+ * ginjectors after it that use the same invoker are regenerated in every
+ * build.  Warnings logged by a cached run are not repeated when its sources
+ * are reused.
+ */
+@GeneratorRunScoped
+class GenerationCache {
+
+  // Package accessible for testing.
+  static final int FORMAT_VERSION = 1;
+
+  /**
+   * The number of runs kept per ginjector, for instance one per permutation.
+   */
+  // Package accessible for testing.
+  static final int MAX_RUNS = 8;
+
+  private static final String MISSING_CLASS = "-";
+
+  private static final String GIN_VERSION = computeGinVersion();
+
+  private final TreeLogger logger;
+  private final GeneratorContext ctx;
+  private final GenerationRecorder recorder;
+  private final ClassLoader classLoader;
+  private final File cacheFile;
+
+  @Inject
+  public GenerationCache(TreeLogger logger, GeneratorContext ctx, GinProperties properties,
+      GenerationRecorder recorder,
+      @GinjectorInterfaceType Class<? extends Ginjector> ginjectorInterface,
+      @ModuleClasses Set<Class<? extends GinModule>> moduleClasses) {
+    this.logger = logger;
+    this.ctx = ctx;
+    this.recorder = recorder;
+    this.classLoader = ginjectorInterface.getClassLoader();
+
+    String cacheDir = properties.getString(GinProperties.GENERATION_CACHE_DIR, "");
+    if (cacheDir.length() == 0 || classLoader == null) {
+      cacheFile = null;
+    } else {
+      cacheFile = new File(cacheDir, getCacheKey(ginjectorInterface, moduleClasses) + ".gin");
+    }
+  }
+
+  private String getCacheKey(Class<? extends Ginjector> ginjectorInterface,
+      Set<Class<? extends GinModule>> moduleClasses) {
+    StringBuilder key = new StringBuilder()
+        .append(FORMAT_VERSION).append('\n')
+        .append(GIN_VERSION).append('\n')
+        .append(ginjectorInterface.getName()).append('=')
+        .append(digestClass(ginjectorInterface.getName())).append('\n');
+    for (Class<? extends GinModule> moduleClass : moduleClasses) {
+      key.append(moduleClass.getName()).append('=')
+          .append(digestClass(moduleClass.getName())).append('\n');
+    }
+    return digest(key.toString());
+  }
+
+  /**
+   * Writes the sources of an earlier run whose inputs are unchanged, if there
+   * is one.
+   *
+   * @param implName the qualified name of the ginjector implementation
+   * @param implWriter the print writer created for the ginjector
+   *     implementation
+   * @return whether the sources were written from the cache
+   */
+  boolean replay(String implName, PrintWriter implWriter) {
+    if (cacheFile == null || !cacheFile.isFile()) {
+      return false;
+    }
+
+    for (CachedRun run : read()) {
+      if (!run.sources.containsKey(implName) || !isUpToDate(run)) {
+        continue;
+      }
+
+      for (Map.Entry<String, String> source : run.sources.entrySet()) {
+        String typeName = source.getKey();
+        PrintWriter printWriter = implWriter;
+        if (!typeName.equals(implName)) {
+          int lastDot = typeName.lastIndexOf('.');
+          printWriter = ctx.tryCreate(logger, typeName.substring(0, lastDot),
+              typeName.substring(lastDot + 1));
+          if (printWriter == null) {
+            // Already created by another ginjector.
+            continue;
+          }
+        }
+
+        printWriter.write(source.getValue());
+        ctx.commit(logger, printWriter);
+      }
+
+      logger.log(TreeLogger.DEBUG, String.format("Reused %s from the generation cache %s.",
+          implName, cacheFile));
+      return true;
+    }
+
+    return false;
+  }
+
+  private boolean isUpToDate(CachedRun run) {
+    for (Map.Entry<String, String> classDigest : run.classDigests.entrySet()) {
+      if (!classDigest.getValue().equals(digestClass(classDigest.getKey()))) {
+        return false;
+      }
+    }
+
+    for (Map.Entry<String, List<String>> property : run.properties.entrySet()) {
+      List<String> values;
+      try {
+        values = ctx.getPropertyOracle().getConfigurationProperty(property.getKey()).getValues();
+      } catch (BadPropertyValueException e) {
+        values = null;
+      }
+
+      if (values == null ? property.getValue() != null : !values.equals(property.getValue())) {
+        return false;
+      }
+    }
+
+    for (Map.Entry<String, Boolean> rebindRule : run.rebindRules.entrySet()) {
+      if (ctx.checkRebindRuleAvailable(rebindRule.getKey()) != rebindRule.getValue()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Adds the sources written by this run to the cache, unless the run used
+   * anything that was not recorded.
+   */
+  void store() {
+    if (cacheFile == null || !recorder.isComplete()
+        || !(classLoader instanceof GinBridgeClassLoader)) {
+      return;
+    }
+
+    CachedRun run = new CachedRun();
+    for (String className : ((GinBridgeClassLoader) classLoader).getRequestedClassNames()) {
+      run.classDigests.put(className, digestClass(className));
+    }
+    run.properties.putAll(recorder.getConfigurationProperties());
+    run.rebindRules.putAll(recorder.getRebindRules());
+    run.sources.putAll(recorder.getSources());
+
+    List<CachedRun> runs = cacheFile.isFile() ? read() : new ArrayList<CachedRun>();
+    runs.add(0, run);
+    while (runs.size() > MAX_RUNS) {
+      runs.remove(runs.size() - 1);
+    }
+
+    try {
+      write(runs);
+    } catch (IOException e) {
+      logger.log(TreeLogger.WARN, "Unable to write the generation cache " + cacheFile, e);
+    }
+  }
+
+  private List<CachedRun> read() {
+    List<CachedRun> runs = new ArrayList<CachedRun>();
+    try {
+      DataInputStream in = new DataInputStream(new GZIPInputStream(
+          new BufferedInputStream(new FileInputStream(cacheFile))));
+      try {
+        if (in.readInt() != FORMAT_VERSION) {
+          return runs;
+        }
+
+        for (int count = in.readInt(); count > 0; count--) {
+          runs.add(CachedRun.read(in));
+        }
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      // The file is treated as empty, and replaced by the next store.
+      logger.log(TreeLogger.DEBUG, "Ignoring unreadable generation cache " + cacheFile, e);
+      runs.clear();
+    }
+    return runs;
+  }
+
+  /**
+   * Writes the file through a temporary file, so that concurrent builds never
+   * read a partial file.
+   */
+  private void write(List<CachedRun> runs) throws IOException {
+    File dir = cacheFile.getParentFile();
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Unable to create directory " + dir);
+    }
+
+    File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", dir);
+    try {
+      DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tempFile))));
+      try {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(runs.size());
+        for (CachedRun run : runs) {
+          run.write(out);
+        }
+      } finally {
+        out.close();
+      }
+
+      if (!tempFile.renameTo(cacheFile)) {
+        // Some platforms don't replace existing files on rename.
+        cacheFile.delete();
+        if (!tempFile.renameTo(cacheFile)) {
+          throw new IOException("Unable to rename " + tempFile + " to " + cacheFile);
+        }
+      }
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  /**
+   * Returns a digest of the class file of the given class, as seen by the
+   * ginjector's class loader.
+   */
+  private String digestClass(String className) {
+    InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+    if (in == null) {
+      return MISSING_CLASS;
+    }
+
+    try {
+      MessageDigest digest = newDigest();
+      try {
+        byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+          digest.update(buffer, 0, read);
+        }
+      } finally {
+        in.close();
+      }
+      return toHex(digest.digest());
+    } catch (IOException e) {
+      // Never matches a recorded digest.
+      return MISSING_CLASS + e;
+    }
+  }
+
+  private static String digest(String value) {
+    try {
+      return toHex(newDigest().digest(value.getBytes("UTF-8")));
+    } catch (UnsupportedEncodingException e) {
+      throw new AssertionError("UTF-8 is always supported");
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-1 is always supported");
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Returns the version of Gin, as written to the manifest of its jar, and
+   * the time the jar or class directory was last modified (so that changes
+   * to development builds are noticed as well).
+   */
+  private static String computeGinVersion() {
+    Package ginPackage = GenerationCache.class.getPackage();
+    String version = ginPackage == null ? null : ginPackage.getImplementationVersion();
+
+    long lastModified = 0;
+    CodeSource codeSource = GenerationCache.class.getProtectionDomain().getCodeSource();
+    URL location = codeSource == null ? null : codeSource.getLocation();
+    if (location != null && location.getProtocol().equals("file")) {
+      try {
+        lastModified = new File(location.toURI()).lastModified();
+      } catch (URISyntaxException e) {
+        // Use the version alone.
+      } catch (IllegalArgumentException e) {
+        // Not a plain file location, use the version alone.
+      }
+    }
+
+    return version + "@" + lastModified;
+  }
+
+  /**
+   * The sources written by one run and the inputs they depend on.
+   */
+  private static final class CachedRun {
+    final Map<String, String> classDigests = new LinkedHashMap<String, String>();
+    final Map<String, List<String>> properties = new LinkedHashMap<String, List<String>>();
+    final Map<String, Boolean> rebindRules = new LinkedHashMap<String, Boolean>();
+    final Map<String, String> sources = new LinkedHashMap<String, String>();
+
+    static CachedRun read(DataInputStream in) throws IOException {
+      CachedRun run = new CachedRun();
+      for (int count = in.readInt(); count > 0; count--) {
+        run.classDigests.put(readString(in), readString(in));
+      }
+
+      for (int count = in.readInt(); count > 0; count--) {
+        String name = readString(in);
+        List<String> values = null;
+        int valueCount = in.readInt();
+        if (valueCount >= 0) {
+          values = new ArrayList<String>(valueCount);
+          for (int i = 0; i < valueCount; i++) {
+            values.add(readString(in));
+          }
+        }
+        run.properties.put(name, values);
+      }
+
+      for (int count = in.readInt(); count > 0; count--) {
+        run.rebindRules.put(readString(in), in.readBoolean());
+      }
+
+      for (int count = in.readInt(); count > 0; count--) {
+        run.sources.put(readString(in), readString(in));
+      }
+      return run;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeInt(classDigests.size());
+      for (Map.Entry<String, String> entry : classDigests.entrySet()) {
+        writeString(out, entry.getKey());
+        writeString(out, entry.getValue());
+      }
+
+      out.writeInt(properties.size());
+      for (Map.Entry<String, List<String>> entry : properties.entrySet()) {
+        writeString(out, entry.getKey());
+        if (entry.getValue() == null) {
+          out.writeInt(-1);
+        } else {
+          out.writeInt(entry.getValue().size());
+          for (String value : entry.getValue()) {
+            writeString(out, value);
+          }
+        }
+      }
+
+      out.writeInt(rebindRules.size());
+      for (Map.Entry<String, Boolean> entry : rebindRules.entrySet()) {
+        writeString(out, entry.getKey());
+        out.writeBoolean(entry.getValue());
+      }
+
+      out.writeInt(sources.size());
+      for (Map.Entry<String, String> entry : sources.entrySet()) {
+        writeString(out, entry.getKey());
+        writeString(out, entry.getValue());
+      }
+    }
+
+    // DataOutput.writeUTF is limited to 64KB, which large sources exceed.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+      if (value == null) {
+        out.writeInt(-1);
+        return;
+      }
+
+      byte[] bytes = value.getBytes("UTF-8");
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+      int length = in.readInt();
+      if (length == -1) {
+        return null;
+      } else if (length < 0) {
+        throw new IOException("Corrupt string length " + length);
+      }
+
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, "UTF-8");
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records what a generator run reads from and writes to its generator
+ * context: the configuration properties it reads, the rebind rules it checks
+ * and the sources it creates.  {@link GenerationCache} keeps these so that a
+ * later build can tell whether the run would still produce the same sources.
+ *
+ * <p>A run whose result depends on anything else the context offers (such as
+ * selection properties, or a source that an earlier run already created) is
+ * marked as {@link #isComplete incomplete}.
+ */
+class GenerationRecorder {
+
+  private final Map<String, List<String>> configurationProperties =
+      new LinkedHashMap<String, List<String>>();
+  private final Map<String, Boolean> rebindRules = new LinkedHashMap<String, Boolean>();
+  private final Map<String, String> sources = new LinkedHashMap<String, String>();
+  private boolean complete = true;
+
+  /**
+   * Returns a generator context that forwards to the given one and records
+   * the run's use of it.
+   */
+  GeneratorContext wrap(final GeneratorContext ctx) {
+    return (GeneratorContext) Proxy.newProxyInstance(GenerationRecorder.class.getClassLoader(),
+        new Class<?>[] {GeneratorContext.class},
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getPropertyOracle")) {
+              return wrap((PropertyOracle) forward(ctx, method, args));
+            } else if (name.equals("checkRebindRuleAvailable")) {
+              Boolean available = (Boolean) forward(ctx, method, args);
+              rebindRules.put((String) args[0], available);
+              return available;
+            } else if (name.equals("tryCreate")) {
+              PrintWriter printWriter = (PrintWriter) forward(ctx, method, args);
+              if (printWriter == null) {
+                // The source was created by someone else, so the run's output
+                // is not self-contained.
+                complete = false;
+                return null;
+              }
+              return new RecordingPrintWriter(printWriter, args[1] + "." + args[2]);
+            } else if (name.equals("commit") && args[1] instanceof RecordingPrintWriter) {
+              RecordingPrintWriter printWriter = (RecordingPrintWriter) args[1];
+              printWriter.flush();
+              sources.put(printWriter.typeName, printWriter.source.toString());
+              return forward(ctx, method, new Object[] {args[0], printWriter.delegate});
+            } else if (name.equals("tryCreateResource")) {
+              // Generator artifacts are not recorded.
+              complete = false;
+            }
+            return forward(ctx, method, args);
+          }
+        });
+  }
+
+  private PropertyOracle wrap(final PropertyOracle propertyOracle) {
+    return (PropertyOracle) Proxy.newProxyInstance(GenerationRecorder.class.getClassLoader(),
+        new Class<?>[] {PropertyOracle.class},
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("getConfigurationProperty")) {
+              complete = false;
+              return forward(propertyOracle, method, args);
+            }
+
+            String propertyName = (String) args[0];
+            try {
+              ConfigurationProperty property =
+                  (ConfigurationProperty) forward(propertyOracle, method, args);
+              configurationProperties.put(propertyName,
+                  new ArrayList<String>(property.getValues()));
+              return property;
+            } catch (BadPropertyValueException e) {
+              // Undefined properties are recorded as well, they may be defined later.
+              configurationProperties.put(propertyName, null);
+              throw e;
+            }
+          }
+        });
+  }
+
+  private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Returns the values of the configuration properties read in this run, by
+   * name.  Properties that are not defined map to {@code null}.
+   */
+  Map<String, List<String>> getConfigurationProperties() {
+    return Collections.unmodifiableMap(configurationProperties);
+  }
+
+  /**
+   * Returns whether rebind rules are available for the types checked in this
+   * run, by type name.
+   */
+  Map<String, Boolean> getRebindRules() {
+    return Collections.unmodifiableMap(rebindRules);
+  }
+
+  /**
+   * Returns the sources committed in this run, in the order they were
+   * committed, by the qualified name of their type.
+   */
+  Map<String, String> getSources() {
+    return Collections.unmodifiableMap(sources);
+  }
+
+  /**
+   * Returns whether everything this run used from the generator context was
+   * recorded.
+   */
+  boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Print writer that keeps a copy of everything written to the source.
+   */
+  private static class RecordingPrintWriter extends PrintWriter {
+    private final PrintWriter delegate;
+    private final String typeName;
+    private final StringWriter source;
+
+    RecordingPrintWriter(PrintWriter delegate, String typeName) {
+      this(delegate, typeName, new StringWriter());
+    }
+
+    private RecordingPrintWriter(PrintWriter delegate, String typeName, StringWriter source) {
+      super(new TeeWriter(delegate, source));
+      this.delegate = delegate;
+      this.typeName = typeName;
+      this.source = source;
+    }
+  }
+
+  private static class TeeWriter extends Writer {
+    private final Writer first;
+    private final Writer second;
+
+    TeeWriter(Writer first, Writer second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+      first.write(buffer, offset, length);
+      second.write(buffer, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      first.flush();
+      second.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      first.close();
+      second.close();
+    }
+  }
+}
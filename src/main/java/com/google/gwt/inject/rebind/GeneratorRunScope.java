@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.rebind.util.Preconditions;
+import com.google.inject.Key;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of {@link GeneratorRunScoped}.  A run is entered on the
+ * current thread, seeded with the values that describe it (such as the logger
+ * and the generator context), and exited once the ginjector is generated,
+ * which releases every object created in it.
+ *
+ * <p>Runs on different threads are independent, so the generator can run
+ * concurrently.  Runs may also be nested on one thread (for instance if
+ * generating a ginjector triggers another rebind): the inner run sees none of
+ * the outer run's objects, and the outer run resumes when it exits.
+ *
+ * <pre style=code>
+ *   scope.enter();
+ *   try {
+ *     scope.seed(TreeLogger.class, logger);
+ *     ...
+ *     injector.getInstance(GinjectorGeneratorImpl.class).generate();
+ *   } finally {
+ *     scope.exit();
+ *   }
+ * </pre>
+ */
+class GeneratorRunScope implements Scope {
+
+  private final ThreadLocal<Run> currentRun = new ThreadLocal<Run>();
+
+  /**
+   * Enters a new run on the current thread, suspending the current run if
+   * there is one.
+   */
+  void enter() {
+    currentRun.set(new Run(currentRun.get()));
+  }
+
+  /**
+   * Exits the current run, releasing all objects created in it and resuming
+   * the run it was nested in.
+   */
+  void exit() {
+    Run run = currentRun.get();
+    Preconditions.checkState(run != null, "No generator run is in progress.");
+    if (run.outer == null) {
+      currentRun.remove();
+    } else {
+      currentRun.set(run.outer);
+    }
+  }
+
+  /**
+   * Provides the value of the given key for the current run.  Keys that are
+   * seeded must be bound to {@link #seededKeyProvider}.
+   */
+  <T> void seed(Key<T> key, T value) {
+    Map<Key<?>, Object> scopedObjects = getScopedObjectMap(key);
+    Preconditions.checkState(!scopedObjects.containsKey(key),
+        "A value for %s is already seeded in this run.", key);
+    scopedObjects.put(key, value);
+  }
+
+  <T> void seed(Class<T> type, T value) {
+    seed(Key.get(type), value);
+  }
+
+  public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+    return new Provider<T>() {
+      public T get() {
+        Map<Key<?>, Object> scopedObjects = getScopedObjectMap(key);
+
+        @SuppressWarnings("unchecked") // Only ever stored under its own key.
+        T current = (T) scopedObjects.get(key);
+        if (current == null && !scopedObjects.containsKey(key)) {
+          current = unscoped.get();
+          scopedObjects.put(key, current);
+        }
+        return current;
+      }
+
+      @Override
+      public String toString() {
+        return String.format("%s[%s]", unscoped, GeneratorRunScope.this);
+      }
+    };
+  }
+
+  private Map<Key<?>, Object> getScopedObjectMap(Key<?> key) {
+    Run run = currentRun.get();
+    if (run == null) {
+      throw new OutOfScopeException("Cannot access " + key + " outside of a generator run.");
+    }
+    return run.values;
+  }
+
+  @Override
+  public String toString() {
+    return "GeneratorRunScope";
+  }
+
+  private static class Run {
+    final Map<Key<?>, Object> values = new HashMap<Key<?>, Object>();
+    final Run outer;
+
+    Run(Run outer) {
+      this.outer = outer;
+    }
+  }
+
+  /**
+   * Returns a provider for keys whose values are seeded into each run, which
+   * fails if a run was not seeded with the key.
+   */
+  static <T> Provider<T> seededKeyProvider() {
+    return new Provider<T>() {
+      public T get() {
+        throw new IllegalStateException("The value was not seeded into the generator run.");
+      }
+    };
+  }
+}
@@ -16,7 +16,10 @@
 
 package com.google.gwt.inject.rebind;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -60,6 +63,12 @@ class GinBridgeClassLoader extends ClassLoader {
   private boolean loadedClassFiles = false;
   private Map<String, CompiledClass> classFileMap;
 
+  /**
+   * Names of the non-JRE classes requested from this loader.
+   */
+  private final Set<String> requestedClassNames =
+      Collections.synchronizedSet(new LinkedHashSet<String>());
+
   GinBridgeClassLoader(GeneratorContext context, TreeLogger logger,
       Collection<String> exceptedPackages) {
     super(GinBridgeClassLoader.class.getClassLoader()); // Use own class loader.
@@ -98,6 +107,10 @@ class GinBridgeClassLoader extends ClassLoader {
   protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
     Class<?> clazz = findLoadedClass(name);
     if (clazz == null) {
+      if (!name.startsWith("java.")) {
+        requestedClassNames.add(name);
+      }
+
       if (inExceptedPackage(name)) {
         clazz = super.loadClass(name, false);
       } else {
@@ -120,6 +133,17 @@ class GinBridgeClassLoader extends ClassLoader {
     return clazz;
   }
 
+  /**
+   * Returns the names of all classes that were requested from this loader so
+   * far, except for JRE classes, whether or not they could be loaded.  These
+   * are the classes a generator run consulted.
+   */
+  Set<String> getRequestedClassNames() {
+    synchronized (requestedClassNames) {
+      return new LinkedHashSet<String>(requestedClassNames);
+    }
+  }
+
   private boolean inExceptedPackage(String name) {
     for (String pkg : exceptedPackages) {
       if (name.startsWith(pkg)) {
@@ -134,17 +158,7 @@ class GinBridgeClassLoader extends ClassLoader {
    */
   @Override
   protected Class<?> findClass(String name) throws ClassNotFoundException {
-    if (!loadedClassFiles) {
-      classFileMap = extractClassFileMap();
-      loadedClassFiles = true;
-    }
-
-    if (classFileMap == null) {
-      throw new ClassNotFoundException(name);
-    }
-
-    String internalName = name.replace('.', '/');
-    CompiledClass compiledClass = classFileMap.get(internalName);
+    CompiledClass compiledClass = getCompiledClass(name.replace('.', '/'));
     if (compiledClass == null) {
       throw new ClassNotFoundException(name);
     }
@@ -159,6 +173,41 @@ class GinBridgeClassLoader extends ClassLoader {
     return defineClass(name, bytes, 0, bytes.length);
   }
 
+  /**
+   * Returns the class file of classes loaded from GWT's compilation state, so
+   * that reading a class file through this loader yields the version of the
+   * class that it defines (see {@code ClassFileScanner}).  Reading the class
+   * file does not define the class.
+   */
+  @Override
+  public InputStream getResourceAsStream(String name) {
+    if (name.endsWith(".class")) {
+      String internalName = name.substring(0, name.length() - ".class".length());
+      if (!inExceptedPackage(internalName.replace('/', '.'))) {
+        CompiledClass compiledClass = getCompiledClass(internalName);
+        if (compiledClass != null) {
+          return new ByteArrayInputStream(compiledClass.getBytes());
+        }
+      }
+    }
+
+    return super.getResourceAsStream(name);
+  }
+
+  /**
+   * Returns the compiled class with the given internal name (such as
+   * {@code com/foo/Bar$Baz}) from GWT's compilation state, or {@code null}.
+   * Synchronized since class files may be read from any thread.
+   */
+  private synchronized CompiledClass getCompiledClass(String internalName) {
+    if (!loadedClassFiles) {
+      classFileMap = extractClassFileMap();
+      loadedClassFiles = true;
+    }
+
+    return classFileMap == null ? null : classFileMap.get(internalName);
+  }
+
   /**
    * Retrieves class definitions from a {@link GeneratorContext} by downcasting.
    */
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.inject.Inject;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read access to the GWT configuration properties that tune Gin's code
+ * generation.  All properties are defined (with their defaults) in
+ * {@code Inject.gwt.xml}; a property that is missing or malformed falls back to
+ * the default passed by the caller.
+ */
+@GeneratorRunScoped
+public class GinProperties {
+
+  /**
+   * If {@code true}, eager singletons are created incrementally through the
+   * GWT scheduler after the ginjector has been returned to the caller, rather
+   * than synchronously in the ginjector's constructor.
+   */
+  public static final String DEFER_EAGER_SINGLETONS = "gin.eagerSingletons.deferred";
+
+  /**
+   * Packages with fewer getters than this have the getters that need no
+   * package-private access moved into a shared fragment.  Disabled (0) by
+   * default.
+   */
+  public static final String FRAGMENT_MERGE_THRESHOLD = "gin.fragments.mergeBelow";
+
+  /**
+   * The maximum number of methods (getters and their helper methods) in a
+   * fragment, above which a package's fragment is split into several
+   * fragments.  Disabled (0) by default.
+   */
+  public static final String FRAGMENT_MAX_BINDINGS = "gin.fragments.maxBindings";
+
+  /**
+   * Fully qualified names of supertypes whose implicitly bound subtypes are
+   * created with {@code GWT.create()} only once per injector, because they are
+   * known to be stateless (such as {@code Messages} or {@code ClientBundle}).
+   */
+  public static final String SHARED_GWT_CREATE_TYPES = "gin.gwtCreate.sharedTypes";
+
+  /**
+   * If {@code true}, implicitly created GWT-RPC proxies are wrapped so that
+   * the calls made in one event loop turn are sent as a single request, see
+   * {@code BatchingRpcRequestBuilder}.
+   */
+  public static final String RPC_BATCHING = "gin.rpc.batching";
+
+  /**
+   * If {@code true}, generated ginjectors record provisioning statistics and
+   * implement {@code GinjectorStats}.
+   */
+  public static final String STATS_ENABLED = "gin.stats.enabled";
+
+  /**
+   * If {@code true}, the runs of a compilation share their class loader, and
+   * the Guice elements recorded for the modules of a ginjector are reused by
+   * later runs with the same modules, see {@code ModuleElementsCache}.
+   */
+  public static final String CACHE_MODULE_ELEMENTS = "gin.modules.cacheElements";
+
+  /**
+   * If {@code true}, the invokers that call constructors and methods are
+   * written once per compilation as static methods of shared classes, rather
+   * than into the fragments of every ginjector that uses them.
+   */
+  public static final String SHARE_INVOKERS = "gin.invokers.shared";
+
+  /**
+   * If {@code true}, an {@code AsyncProvider} whose target is also reachable
+   * without going through a split point is reported as an error instead of a
+   * warning.
+   */
+  public static final String STRICT_SPLIT_POINTS = "gin.asyncProvider.strictSplitPoints";
+
+  /**
+   * If {@code true}, the bindings created in the constructor of each ginjector
+   * are written to a private generator artifact, with the dependency path that
+   * pulls each of them in.
+   */
+  public static final String STARTUP_REPORT = "gin.startup.report";
+
+  /**
+   * The maximum number of bindings a ginjector may create in its constructor,
+   * or a negative number for no limit.
+   */
+  public static final String STARTUP_MAX_BINDINGS = "gin.startup.maxBindings";
+
+  /**
+   * If {@code true}, the resolved binding graph of each ginjector is written to
+   * private generator artifacts as JSON and DOT, along with the size of the
+   * code generated for each binding.
+   */
+  public static final String EXPORT_BINDING_GRAPH = "gin.bindingGraph.export";
+
+  /**
+   * If {@code true}, the comments describing where each binding was declared
+   * are left out of the generated fragments.
+   */
+  public static final String COMPACT_OUTPUT = "gin.output.compact";
+
+  /**
+   * The directory in which generated ginjectors are cached across builds, or
+   * empty to disable the cache.
+   */
+  public static final String GENERATION_CACHE_DIR = "gin.cache.dir";
+
+  /**
+   * The number of recent log events kept while a ginjector is generated and
+   * reported if generation fails, or 0 to not keep any.
+   */
+  public static final String TRACE_EVENTS = "gin.trace.recentEvents";
+
+  private final GeneratorContext ctx;
+  private final TreeLogger logger;
+
+  @Inject
+  public GinProperties(GeneratorContext ctx, TreeLogger logger) {
+    this.ctx = ctx;
+    this.logger = logger;
+  }
+
+  /**
+   * Returns all values of the given (possibly multi-valued) property, or an
+   * empty set if it is not defined.
+   */
+  public Set<String> getValues(String propertyName) {
+    try {
+      // Result of getConfigurationProperty can never be null.
+      return new LinkedHashSet<String>(
+          ctx.getPropertyOracle().getConfigurationProperty(propertyName).getValues());
+    } catch (BadPropertyValueException e) {
+      // Thrown when the configuration property is not defined.
+      return Collections.emptySet();
+    }
+  }
+
+  /**
+   * Returns the value of a single-valued boolean property.
+   */
+  public boolean getBoolean(String propertyName, boolean defaultValue) {
+    String value = getValue(propertyName);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    return Boolean.parseBoolean(value.trim());
+  }
+
+  /**
+   * Returns the value of a single-valued integer property.
+   */
+  public int getInteger(String propertyName, int defaultValue) {
+    String value = getValue(propertyName);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      logger.log(TreeLogger.WARN, String.format("Ignoring non-numeric value \"%s\" of property %s,"
+          + " using %d instead.", value, propertyName, defaultValue));
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Returns the value of a single-valued string property.
+   */
+  public String getString(String propertyName, String defaultValue) {
+    String value = getValue(propertyName);
+    return value == null ? defaultValue : value.trim();
+  }
+
+  private String getValue(String propertyName) {
+    List<String> values;
+    try {
+      values = ctx.getPropertyOracle().getConfigurationProperty(propertyName).getValues();
+    } catch (BadPropertyValueException e) {
+      return null;
+    }
+
+    if (values.isEmpty() || values.get(0) == null || values.get(0).trim().isEmpty()) {
+      return null;
+    }
+
+    return values.get(0);
+  }
+}
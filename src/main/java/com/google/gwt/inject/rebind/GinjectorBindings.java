@@ -19,10 +19,14 @@ import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.BindingIndex;
+import com.google.gwt.inject.rebind.binding.CallGwtDotCreateBinding;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
+import com.google.gwt.inject.rebind.binding.FactoryBinding;
+import com.google.gwt.inject.rebind.binding.ImplicitProviderBinding;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.binding.RemoteServiceProxyBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
@@ -33,6 +37,7 @@ import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.Preconditions;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.Singleton;
@@ -386,12 +391,24 @@ public class GinjectorBindings implements BindingIndex {
       } else if (RemoteServiceProxyBinding.isRemoteServiceProxy(key.getTypeLiteral())) {
         // Special case for remote services
         scope = GinScope.SINGLETON;
+      } else if (binding instanceof ImplicitProviderBinding
+          || binding instanceof AsyncProviderBinding
+          || binding instanceof FactoryBinding) {
+        // Implicit providers and assisted-inject factories hold no state
+        // besides the fragment that created them, so every injection point can
+        // share one instance (Guice's factories are shared, too).
+        scope = GinScope.SINGLETON;
+      } else if (binding instanceof CallGwtDotCreateBinding
+          && ((CallGwtDotCreateBinding) binding).isShared()) {
+        // Stateless GWT.create() types (see GinProperties#SHARED_GWT_CREATE_TYPES)
+        // are only created once per injector.
+        scope = GinScope.SINGLETON;
       } else {
         scope = GinScope.NO_SCOPE;
       }
     }
 
-    logger.log(TreeLogger.TRACE, "scope for " + key + ": " + scope);
+    PrettyPrinter.log(logger, TreeLogger.TRACE, "scope for %s: %s", key, scope);
     return scope;
   }
 
@@ -418,7 +435,8 @@ public class GinjectorBindings implements BindingIndex {
     for (MethodLiteral<?, Method> method : completeCollector.getMethods(ginjectorInterface)) {
       nameGenerator.markAsUsed(method.getName());
       Key<?> key = guiceUtil.getKey(method);
-      logger.log(TreeLogger.TRACE, "Add unresolved key from injector interface: " + key);
+      PrettyPrinter.log(logger, TreeLogger.TRACE,
+          "Add unresolved key from injector interface: %s", key);
 
       // Member inject types do not need to be gin-creatable themselves but we
       // need to provide all dependencies.
@@ -449,7 +467,7 @@ public class GinjectorBindings implements BindingIndex {
       parent.registerLocalChildBinding(key, this);
     }
 
-    logger.log(TreeLogger.TRACE, "bound " + key + " to " + binding);
+    PrettyPrinter.log(logger, TreeLogger.TRACE, "bound %s to %s", key, binding);
     dependencies.addAll(binding.getDependencies());
     memberInjectRequests.addAll(binding.getMemberInjectRequests());
   }
@@ -22,7 +22,6 @@ import com.google.gwt.inject.rebind.output.GinjectorImplOutputter;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
 import com.google.inject.Inject;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 
 import java.io.PrintWriter;
@@ -31,15 +30,15 @@ import java.io.PrintWriter;
  * Does the heavy lifting involved in generating implementations of
  * {@link Ginjector}. This class is instantiated
  * once per class to generate, so it can keep useful state around in its fields.
- * (It is a singleton from Guice's perspective since we create a new
- * injector for each generation run.)
+ * (It is scoped to the {@link GeneratorRunScoped generator run}.)
  */
-@Singleton
+@GeneratorRunScoped
 class GinjectorGeneratorImpl {
   private final TreeLogger logger;
   private final GeneratorContext ctx;
   private final BindingsProcessor bindingsProcessor;
   private final GinjectorImplOutputter outputter;
+  private final GenerationCache generationCache;
 
   /**
    * Convenience cache of rootBindings.getGinjectorInterface().
@@ -55,12 +54,13 @@ class GinjectorGeneratorImpl {
   public GinjectorGeneratorImpl(TreeLogger logger, GeneratorContext ctx,
       BindingsProcessor bindingsProcessor,
       @RootBindings GinjectorBindings rootBindings,
-      GinjectorImplOutputter outputter) {
+      GinjectorImplOutputter outputter, GenerationCache generationCache) {
     this.logger = logger;
     this.ctx = ctx;
     this.bindingsProcessor = bindingsProcessor;
     this.ginjectorInterface = rootBindings.getGinjectorInterface();
     this.outputter = outputter;
+    this.generationCache = generationCache;
     this.rootBindings = rootBindings;
   }
 
@@ -75,9 +75,12 @@ class GinjectorGeneratorImpl {
     PrintWriter printWriter = ctx.tryCreate(logger, packageName, implClassName);
     if (printWriter == null) {
       // We've already created it, so nothing to do
+    } else if (generationCache.replay(generatedClassName, printWriter)) {
+      // Written from the sources of an earlier build.
     } else {
       bindingsProcessor.process();
       outputter.write(packageName, implClassName, printWriter, rootBindings);
+      generationCache.store();
     }
 
     return generatedClassName;
@@ -31,9 +31,11 @@ import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
 import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Provides;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 
@@ -43,54 +45,105 @@ import java.util.Set;
 /**
  * Guice module used in the implementation of {@link GinjectorGenerator}.
  * <p>
- * IMPLEMENTATION NOTE: thread safety concerns depend on how we create the Injector in
- * the {@link GinjectorGenerator} class, so make sure you consult that class before
- * adding bindings.
+ * The generator's injector is created from this module once per JVM (see
+ * {@link #getInjector}) and shared by all generator runs, so that Guice only
+ * bootstraps the generator's object graph once.  Everything that describes
+ * the ginjector being generated is seeded into a {@link GeneratorRunScope}
+ * per run instead of being bound here.
+ * <p>
+ * IMPLEMENTATION NOTE: since the injector outlives each run, components that
+ * hold state about the ginjector being generated must be
+ * {@link GeneratorRunScoped}, never {@code @Singleton}.  Only stateless
+ * components may be singletons.
  */
 class GinjectorGeneratorModule extends AbstractModule {
-  private final TreeLogger logger;
-  private final GeneratorContext ctx;
-  private final Class<? extends Ginjector> ginjectorInterface;
-  private final Set<Class<? extends GinModule>> moduleClasses;
 
-  public GinjectorGeneratorModule(TreeLogger logger, GeneratorContext ctx,
-      Class<? extends Ginjector> ginjectorInterface, 
-      Set<Class<? extends GinModule>> moduleClasses) {
-    this.logger = logger;
-    this.ctx = ctx;
-    this.ginjectorInterface = ginjectorInterface;
-    this.moduleClasses = moduleClasses;
-  }
+  static final Key<Class<? extends Ginjector>> GINJECTOR_INTERFACE_KEY =
+      Key.get(new TypeLiteral<Class<? extends Ginjector>>() {}, GinjectorInterfaceType.class);
+
+  static final Key<Set<Class<? extends GinModule>>> MODULE_CLASSES_KEY =
+      Key.get(new TypeLiteral<Set<Class<? extends GinModule>>>() {}, ModuleClasses.class);
+
+  private final GeneratorRunScope runScope = new GeneratorRunScope();
 
   @Override
   protected void configure() {
+    bindScope(GeneratorRunScoped.class, runScope);
+    bind(GeneratorRunScope.class).toInstance(runScope);
+
     install(new ResolutionModule());
     install(new OutputModule());
 
-    bind(TreeLogger.class).toInstance(logger);
-    bind(GeneratorContext.class).toInstance(ctx);
-    bind(new TypeLiteral<Class<? extends Ginjector>>(){})
-        .annotatedWith(GinjectorInterfaceType.class)
-        .toInstance(ginjectorInterface);
+    bind(TreeLogger.class)
+        .toProvider(GeneratorRunScope.<TreeLogger>seededKeyProvider())
+        .in(GeneratorRunScoped.class);
+    bind(GeneratorContext.class)
+        .toProvider(GeneratorRunScope.<GeneratorContext>seededKeyProvider())
+        .in(GeneratorRunScoped.class);
+    bind(GenerationRecorder.class)
+        .toProvider(GeneratorRunScope.<GenerationRecorder>seededKeyProvider())
+        .in(GeneratorRunScoped.class);
+    bind(GINJECTOR_INTERFACE_KEY)
+        .toProvider(GeneratorRunScope.<Class<? extends Ginjector>>seededKeyProvider())
+        .in(GeneratorRunScoped.class);
+    bind(MODULE_CLASSES_KEY)
+        .toProvider(GeneratorRunScope.<Set<Class<? extends GinModule>>>seededKeyProvider())
+        .in(GeneratorRunScoped.class);
+
     bind(GinjectorBindings.class).annotatedWith(RootBindings.class)
-        .to(GinjectorBindings.class).in(Singleton.class);
+        .to(GinjectorBindings.class).in(GeneratorRunScoped.class);
     bind(BindingIndex.class)
         .to(Key.get(GinjectorBindings.class, RootBindings.class))
-        .in(Singleton.class);
+        .in(GeneratorRunScoped.class);
     install(new FactoryModuleBuilder()
         .build(GuiceElementVisitor.GuiceElementVisitorFactory.class));
-    bind(new TypeLiteral<Set<Class<? extends GinModule>>>(){})
-        .annotatedWith(ModuleClasses.class)
-        .toInstance(moduleClasses);
     bind(BindingFactory.class).to(BindingFactoryImpl.class);
     install(new FactoryModuleBuilder()
         .build(SourceWriteUtil.Factory.class));
   }
 
+  /**
+   * Returns the generator's injector, which is created on first use.
+   */
+  static Injector getInjector() {
+    return InjectorHolder.INJECTOR;
+  }
+
+  /**
+   * Enters a generator run on the current thread, seeded with the values that
+   * describe the ginjector to generate.  The caller must
+   * {@link GeneratorRunScope#exit exit} the returned scope when the run is
+   * over, whether or not it succeeded.
+   *
+   * @param recordedCtx the generator context, {@link GenerationRecorder#wrap
+   *     wrapped} by {@code recorder}
+   */
+  static GeneratorRunScope enterRun(TreeLogger logger, GenerationRecorder recorder,
+      GeneratorContext recordedCtx, Class<? extends Ginjector> ginjectorInterface,
+      Set<Class<? extends GinModule>> moduleClasses) {
+    GeneratorRunScope scope = getInjector().getInstance(GeneratorRunScope.class);
+    scope.enter();
+    scope.seed(TreeLogger.class, logger);
+    scope.seed(GenerationRecorder.class, recorder);
+    scope.seed(GeneratorContext.class, recordedCtx);
+    scope.seed(GINJECTOR_INTERFACE_KEY, ginjectorInterface);
+    scope.seed(MODULE_CLASSES_KEY, moduleClasses);
+    return scope;
+  }
+
+  private static class InjectorHolder {
+    static final Injector INJECTOR = Guice.createInjector(new GinjectorGeneratorModule());
+  }
+
   @Provides
   @Injectable
-  @Singleton
+  @GeneratorRunScoped
+  @SuppressWarnings("unchecked") // Generic array creation for the annotation types.
   MemberCollector provideInjectablesCollector(MemberCollector collector) {
+    // Most types in a hierarchy, such as widgets, have no injectable members;
+    // don't reflect on them.
+    collector.setRequiredAnnotations(Inject.class, javax.inject.Inject.class);
+
     collector.setMethodFilter(
         new MemberCollector.MethodFilter() {
           public boolean accept(MethodLiteral<?, Method> method) {
@@ -17,7 +17,6 @@ package com.google.gwt.inject.rebind;
 
 import com.google.gwt.inject.client.Ginjector;
 import com.google.inject.Inject;
-import com.google.inject.Singleton;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -25,7 +24,7 @@ import java.util.Map;
 /**
  * Manages class and field names for GinjectorBindings.
  */
-@Singleton
+@GeneratorRunScoped
 public class GinjectorNameGenerator {
   // TODO(dburrows): field name calculations could be moved into
   // GinjectorBindings, now that fields are private to individual Ginjectors.
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.processor.GinjectorProcessor;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Command line tool that checks the bindings of ginjectors without running a
+ * GWT compile.
+ *
+ * <p>For every ginjector, the validator runs the same analysis as the
+ * generator (module processing, binding resolution and validation) and stops
+ * before any code is written.  Ginjectors are validated in parallel.  Usage:
+ *
+ * <pre>
+ *   java -cp &lt;client classes and dependencies&gt; \
+ *       com.google.gwt.inject.rebind.GinjectorValidator [ginjector...]
+ * </pre>
+ *
+ * <p>If no ginjectors are passed, all ginjectors listed in the
+ * {@value GinjectorProcessor#INDEX_RESOURCE} index files on the class path
+ * are validated.  The process exits with status 1 if any ginjector has
+ * errors.  To run it from Maven, bind {@code exec-maven-plugin}'s
+ * {@code java} goal to this main class.
+ *
+ * <p>Since no GWT module is compiled, the validator approximates the GWT
+ * environment: rebind rules are read from all {@code .gwt.xml} files on the
+ * class path (ignoring any conditions other than the requested type, and
+ * rules that only apply when a condition does not hold), and configuration
+ * properties take the values set by {@code Inject.gwt.xml}.
+ */
+public class GinjectorValidator {
+
+  /**
+   * The module whose configuration properties apply during validation.
+   */
+  static final String INJECT_MODULE = "com/google/gwt/inject/Inject.gwt.xml";
+
+  private final ClassLoader classLoader;
+  private final RebindRules rebindRules;
+  private final ConfigurationProperties properties;
+
+  GinjectorValidator(ClassLoader classLoader, RebindRules rebindRules,
+      ConfigurationProperties properties) {
+    this.classLoader = classLoader;
+    this.rebindRules = rebindRules;
+    this.properties = properties;
+  }
+
+  public static void main(String[] args) throws Exception {
+    ClassLoader classLoader = GinjectorValidator.class.getClassLoader();
+
+    Set<String> ginjectorNames = new LinkedHashSet<String>(Arrays.asList(args));
+    if (ginjectorNames.isEmpty()) {
+      ginjectorNames.addAll(readIndex(classLoader));
+    }
+
+    if (ginjectorNames.isEmpty()) {
+      System.err.println("No ginjectors to validate. Pass their names as arguments or compile"
+          + " them with " + GinjectorProcessor.class.getName() + ".");
+      System.exit(1);
+    }
+
+    GinjectorValidator validator = new GinjectorValidator(classLoader,
+        RebindRules.fromClassPath(classLoader), ConfigurationProperties.fromModule(classLoader));
+    System.exit(validator.validateAll(ginjectorNames, new PrintWriter(System.out, true)) ? 0 : 1);
+  }
+
+  /**
+   * Validates the given ginjectors in parallel, printing the result of each
+   * to the given writer.
+   *
+   * @return {@code true} if all ginjectors are valid
+   */
+  boolean validateAll(Set<String> ginjectorNames, PrintWriter out)
+      throws InterruptedException {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      List<Future<String>> results = new ArrayList<Future<String>>();
+      for (final String ginjectorName : ginjectorNames) {
+        results.add(executor.submit(new Callable<String>() {
+          public String call() {
+            return validate(ginjectorName);
+          }
+        }));
+      }
+
+      boolean valid = true;
+      int i = 0;
+      for (String ginjectorName : ginjectorNames) {
+        String errors;
+        try {
+          errors = results.get(i++).get();
+        } catch (ExecutionException e) {
+          StringWriter trace = new StringWriter();
+          e.getCause().printStackTrace(new PrintWriter(trace));
+          errors = trace.toString();
+        }
+
+        if (errors == null) {
+          out.println("[OK]     " + ginjectorName);
+        } else {
+          valid = false;
+          out.println("[FAILED] " + ginjectorName);
+          out.println(errors);
+        }
+      }
+      return valid;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Validates a single ginjector.
+   *
+   * @return the errors logged for the ginjector, or {@code null} if it is valid
+   */
+  String validate(String ginjectorName) {
+    StringWriter log = new StringWriter();
+    PrintWriterTreeLogger logger = new PrintWriterTreeLogger(new PrintWriter(log, true));
+    logger.setMaxDetail(TreeLogger.WARN);
+
+    try {
+      Class<?> type = GinjectorGenerator.loadClass(classLoader, ginjectorName, false);
+      if (!Ginjector.class.isAssignableFrom(type) || !type.isInterface()) {
+        return ginjectorName + " is not a ginjector interface.";
+      }
+
+      @SuppressWarnings("unchecked") // Checked above.
+      Class<? extends Ginjector> ginjectorInterface = (Class<? extends Ginjector>) type;
+
+      GenerationRecorder recorder = new GenerationRecorder();
+      GeneratorContext context = recorder.wrap(createGeneratorContext());
+      Set<Class<? extends GinModule>> moduleClasses = new GinjectorGenerator().getModuleClasses(
+          logger, context.getPropertyOracle(), classLoader, ginjectorInterface);
+
+      GeneratorRunScope runScope = GinjectorGeneratorModule.enterRun(
+          logger, recorder, context, ginjectorInterface, moduleClasses);
+      try {
+        GinjectorGeneratorModule.getInjector().getInstance(BindingsProcessor.class).process();
+      } finally {
+        runScope.exit();
+      }
+      return null;
+    } catch (ClassNotFoundException e) {
+      return "Unable to load ginjector type " + ginjectorName + ".";
+    } catch (UnableToCompleteException e) {
+      return log.toString();
+    }
+  }
+
+  /**
+   * Creates a generator context that answers the questions the binding
+   * analysis asks: whether rebind rules exist, and the values of
+   * configuration properties.  Everything else gets a neutral answer
+   * ({@code null}, {@code false} or zero), and nothing is written.
+   */
+  private GeneratorContext createGeneratorContext() {
+    final PropertyOracle propertyOracle = (PropertyOracle) Proxy.newProxyInstance(
+        GinjectorValidator.class.getClassLoader(), new Class<?>[] {PropertyOracle.class},
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args)
+              throws BadPropertyValueException {
+            if (method.getName().equals("getConfigurationProperty")) {
+              return properties.get((String) args[0]);
+            } else if (args != null && args.length > 0
+                && args[args.length - 1] instanceof String) {
+              // No selection properties are defined.
+              throw new BadPropertyValueException((String) args[args.length - 1]);
+            }
+            return getDefaultValue(method.getReturnType());
+          }
+        });
+
+    return (GeneratorContext) Proxy.newProxyInstance(GinjectorValidator.class.getClassLoader(),
+        new Class<?>[] {GeneratorContext.class},
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("checkRebindRuleAvailable")) {
+              return rebindRules.isAvailable((String) args[0], classLoader);
+            } else if (name.equals("getPropertyOracle")) {
+              return propertyOracle;
+            }
+            // tryCreate* returns null, so nothing is written during validation.
+            return getDefaultValue(method.getReturnType());
+          }
+        });
+  }
+
+  private static Object getDefaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    } else if (type == long.class) {
+      return 0L;
+    } else if (type == int.class) {
+      return 0;
+    }
+    return null;
+  }
+
+  private static Set<String> readIndex(ClassLoader classLoader) throws IOException {
+    Set<String> names = new LinkedHashSet<String>();
+    Enumeration<URL> indexes = classLoader.getResources(GinjectorProcessor.INDEX_RESOURCE);
+    while (indexes.hasMoreElements()) {
+      BufferedReader reader = new BufferedReader(
+          new InputStreamReader(indexes.nextElement().openStream(), "UTF-8"));
+      try {
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+          if (line.trim().length() > 0) {
+            names.add(line.trim());
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    }
+    return names;
+  }
+
+  /**
+   * The types for which {@code <generate-with>} or {@code <replace-with>}
+   * rules are defined in the GWT modules on the class path.
+   */
+  static class RebindRules {
+
+    private final Set<String> exactTypes = new LinkedHashSet<String>();
+    private final Set<String> assignableTypes = new LinkedHashSet<String>();
+
+    static RebindRules fromClassPath(ClassLoader classLoader) throws Exception {
+      RebindRules rules = new RebindRules();
+      for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+        File file = new File(entry);
+        if (file.isDirectory()) {
+          rules.addModulesInDirectory(file);
+        } else if (file.isFile() && entry.endsWith(".jar")) {
+          rules.addModulesInJar(file);
+        }
+      }
+      return rules;
+    }
+
+    boolean isAvailable(String typeName, ClassLoader classLoader) {
+      if (exactTypes.contains(typeName) || assignableTypes.contains(typeName)) {
+        return true;
+      }
+
+      Class<?> type;
+      try {
+        type = GinjectorGenerator.loadClass(classLoader, typeName, false);
+      } catch (ClassNotFoundException e) {
+        return false;
+      }
+
+      for (String assignableType : assignableTypes) {
+        try {
+          Class<?> assignable = GinjectorGenerator.loadClass(classLoader, assignableType, false);
+          if (assignable.isAssignableFrom(type)) {
+            return true;
+          }
+        } catch (ClassNotFoundException e) {
+          // The rule applies to a type that isn't on the class path.
+        }
+      }
+      return false;
+    }
+
+    private void addModulesInDirectory(File directory) throws Exception {
+      File[] files = directory.listFiles();
+      if (files == null) {
+        return;
+      }
+
+      for (File file : files) {
+        if (file.isDirectory()) {
+          addModulesInDirectory(file);
+        } else if (file.getName().endsWith(".gwt.xml")) {
+          addModule(file.toURI().toURL().openStream());
+        }
+      }
+    }
+
+    private void addModulesInJar(File jar) throws Exception {
+      JarFile jarFile = new JarFile(jar);
+      try {
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          JarEntry entry = entries.nextElement();
+          if (entry.getName().endsWith(".gwt.xml")) {
+            addModule(jarFile.getInputStream(entry));
+          }
+        }
+      } finally {
+        jarFile.close();
+      }
+    }
+
+    // Visible for testing.
+    void addModule(InputStream stream) throws Exception {
+      Document document = parseModule(stream);
+      addRules(document.getElementsByTagName("generate-with"));
+      addRules(document.getElementsByTagName("replace-with"));
+    }
+
+    private void addRules(NodeList rules) {
+      for (int i = 0; i < rules.getLength(); i++) {
+        addConditions((Element) rules.item(i));
+      }
+    }
+
+    private void addConditions(Element element) {
+      NodeList children = element.getChildNodes();
+      for (int i = 0; i < children.getLength(); i++) {
+        Node child = children.item(i);
+        if (!(child instanceof Element)) {
+          continue;
+        }
+
+        Element condition = (Element) child;
+        if (condition.getTagName().equals("when-type-is")) {
+          exactTypes.add(condition.getAttribute("class"));
+        } else if (condition.getTagName().equals("when-type-assignable")) {
+          assignableTypes.add(condition.getAttribute("class"));
+        } else if (!condition.getTagName().equals("none")) {
+          // <any>, <all> and conditions on properties: look for type
+          // conditions inside, ignoring everything else.  The types in a
+          // <none> are those the rule does not apply to.
+          addConditions(condition);
+        }
+      }
+    }
+  }
+
+  /**
+   * The configuration properties defined by a GWT module, with the values it
+   * sets.
+   */
+  static class ConfigurationProperties {
+
+    private final Map<String, List<String>> values = new LinkedHashMap<String, List<String>>();
+
+    static ConfigurationProperties fromModule(ClassLoader classLoader) throws Exception {
+      ConfigurationProperties properties = new ConfigurationProperties();
+      InputStream stream = classLoader.getResourceAsStream(INJECT_MODULE);
+      if (stream == null) {
+        throw new IOException("Unable to find " + INJECT_MODULE + " on the class path.");
+      }
+      properties.addModule(stream);
+      return properties;
+    }
+
+    // Visible for testing.
+    void addModule(InputStream stream) throws Exception {
+      NodeList elements = parseModule(stream).getDocumentElement().getChildNodes();
+      for (int i = 0; i < elements.getLength(); i++) {
+        Node node = elements.item(i);
+        if (!(node instanceof Element)) {
+          continue;
+        }
+
+        // Modules define, set and extend properties in document order.
+        Element element = (Element) node;
+        String name = element.getAttribute("name");
+        if (element.getTagName().equals("define-configuration-property")) {
+          values.put(name, new ArrayList<String>());
+        } else if (element.getTagName().equals("set-configuration-property")
+            && values.containsKey(name)) {
+          values.get(name).clear();
+          values.get(name).add(element.getAttribute("value"));
+        } else if (element.getTagName().equals("extend-configuration-property")
+            && values.containsKey(name)) {
+          values.get(name).add(element.getAttribute("value"));
+        } else if (element.getTagName().equals("clear-configuration-property")
+            && values.containsKey(name)) {
+          values.get(name).clear();
+        }
+      }
+    }
+
+    ConfigurationProperty get(final String name) throws BadPropertyValueException {
+      if (!values.containsKey(name)) {
+        throw new BadPropertyValueException(name);
+      }
+
+      final List<String> propertyValues = Collections.unmodifiableList(values.get(name));
+      return new ConfigurationProperty() {
+        public String getName() {
+          return name;
+        }
+
+        public List<String> getValues() {
+          return propertyValues;
+        }
+      };
+    }
+  }
+
+  private static Document parseModule(InputStream stream) throws Exception {
+    try {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      // GWT modules reference a DTD that must not be fetched.
+      factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+      return factory.newDocumentBuilder().parse(stream);
+    } finally {
+      stream.close();
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.google.gwt.inject.rebind.binding.BindConstantBinding;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
 import com.google.gwt.inject.rebind.binding.Context;
 import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.binding.ModuleInstanceBinding;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
 import com.google.inject.Key;
 import com.google.inject.Scope;
@@ -76,8 +77,10 @@ public class GuiceBindingVisitor<T> extends DefaultBindingTargetVisitor<T, Void>
     Provider<? extends T> provider = providerInstanceBinding.getProviderInstance();
     if (provider instanceof ProviderMethod) {
       Context context = Context.forElement(providerInstanceBinding);
+      ProviderMethod<?> providerMethod = (ProviderMethod<?>) provider;
+      addModuleInstanceBinding(providerMethod.getInstance().getClass(), context);
       bindingsCollection.addBinding(targetKey,
-          bindingFactory.getProviderMethodBinding((ProviderMethod<?>) provider, context));
+          bindingFactory.getProviderMethodBinding(providerMethod, context));
       return null;
     }
 
@@ -117,6 +120,19 @@ public class GuiceBindingVisitor<T> extends DefaultBindingTargetVisitor<T, Void>
     return null;
   }
 
+  /**
+   * Binds the instance shared by the provider methods of the given module, if
+   * this is the first provider method of that module seen in this injector.
+   */
+  private void addModuleInstanceBinding(Class<?> moduleType, Context context) {
+    Key<?> moduleKey = ModuleInstanceBinding.getModuleInstanceKey(moduleType);
+    if (!bindingsCollection.isBound(moduleKey)) {
+      bindingsCollection.addBinding(moduleKey,
+          bindingFactory.getModuleInstanceBinding(moduleType, context));
+      bindingsCollection.putScope(moduleKey, GinScope.SINGLETON);
+    }
+  }
+
   private void addImplicitBinding(Element sourceElement) {
     bindingsCollection.addDependency(new Dependency(Dependency.GINJECTOR, targetKey,
         Context.forElement(sourceElement).toString()));
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.inject.spi.Element;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The Guice elements recorded for the modules of a ginjector, shared by the
+ * generator runs of a compilation so that the same modules are only
+ * configured once, even if they are used by several ginjectors or
+ * permutations.
+ *
+ * <p>Recorded elements refer to the classes of the {@link GinBridgeClassLoader}
+ * they were recorded with, so they can only be replayed by runs that load their
+ * ginjector through the same loader.  The cache of a compilation therefore
+ * also provides the loader shared by its runs.  Since the loader remembers
+ * every class requested from it, the classes a run is recorded to depend on
+ * for the generation cache include those loaded by earlier runs.
+ *
+ * <p>Entries are keyed by the ordered module classes of a ginjector, and are
+ * recorded with a single call to {@code Elements.getElements()}, so that
+ * modules installed more than once are still de-duplicated by Guice.  The
+ * assisted-inject factory modules installed while recording are stored with
+ * the elements, since installing them registers them with the ginjector
+ * bindings.  Modules that install private modules are not cached, since their
+ * child bindings are created while recording.
+ *
+ * <p>Only the cache of the most recent compilation is kept, through a soft
+ * reference since it holds on to that compilation's class loader and types.
+ *
+ * <p>Enabled by {@link GinProperties#CACHE_MODULE_ELEMENTS}.
+ */
+class ModuleElementsCache {
+
+  private static SoftReference<ModuleElementsCache> current;
+
+  private final TypeOracle typeOracle;
+  private final Set<String> exceptedPackages;
+  private final GinBridgeClassLoader classLoader;
+  private final Map<List<Class<? extends GinModule>>, RecordedModules> entries =
+      new HashMap<List<Class<? extends GinModule>>, RecordedModules>();
+
+  private ModuleElementsCache(GeneratorContext context, TreeLogger logger,
+      Set<String> exceptedPackages) {
+    this.typeOracle = context.getTypeOracle();
+    this.exceptedPackages = exceptedPackages;
+    this.classLoader = new GinBridgeClassLoader(context, logger, exceptedPackages);
+  }
+
+  /**
+   * Returns the class loader shared by the runs of the given context's
+   * compilation that except the same packages.  Classes that are only found
+   * on the system class path are reported once per compilation, to the logger
+   * of the run that loaded them first.
+   */
+  static synchronized ClassLoader getClassLoader(GeneratorContext context, TreeLogger logger,
+      Set<String> exceptedPackages) {
+    ModuleElementsCache cache = current == null ? null : current.get();
+    if (cache == null || cache.typeOracle != context.getTypeOracle()
+        || !cache.exceptedPackages.equals(exceptedPackages)) {
+      cache = new ModuleElementsCache(context, logger,
+          new LinkedHashSet<String>(exceptedPackages));
+      current = new SoftReference<ModuleElementsCache>(cache);
+    }
+    return cache.classLoader;
+  }
+
+  /**
+   * Returns the cache whose loader loaded the given ginjector, or {@code null}
+   * if it wasn't loaded by a shared loader or that cache has been dropped.
+   */
+  static synchronized ModuleElementsCache forGinjector(Class<?> ginjectorInterface) {
+    ModuleElementsCache cache = current == null ? null : current.get();
+    return cache != null && cache.classLoader == ginjectorInterface.getClassLoader()
+        ? cache : null;
+  }
+
+  /**
+   * Returns what was recorded for the given module classes, or {@code null}.
+   */
+  synchronized RecordedModules get(Collection<Class<? extends GinModule>> moduleClasses) {
+    return entries.get(new ArrayList<Class<? extends GinModule>>(moduleClasses));
+  }
+
+  synchronized void put(Collection<Class<? extends GinModule>> moduleClasses,
+      RecordedModules recorded) {
+    entries.put(new ArrayList<Class<? extends GinModule>>(moduleClasses), recorded);
+  }
+
+  /**
+   * The elements recorded for the modules of a ginjector, and the factory
+   * modules they installed.
+   */
+  static final class RecordedModules {
+    private final List<Element> elements;
+    private final List<FactoryModule<?>> factoryModules;
+
+    RecordedModules(List<Element> elements, Iterable<FactoryModule<?>> factoryModules) {
+      this.elements = Collections.unmodifiableList(new ArrayList<Element>(elements));
+      List<FactoryModule<?>> factoryModuleList = new ArrayList<FactoryModule<?>>();
+      for (FactoryModule<?> factoryModule : factoryModules) {
+        factoryModuleList.add(factoryModule);
+      }
+      this.factoryModules = Collections.unmodifiableList(factoryModuleList);
+    }
+
+    List<Element> getElements() {
+      return elements;
+    }
+
+    List<FactoryModule<?>> getFactoryModules() {
+      return factoryModules;
+    }
+  }
+}
@@ -101,7 +101,7 @@ public class BindConstantBinding<T> extends AbstractBinding implements Binding {
 
   public Collection<Dependency> getDependencies() {
     return Collections.singletonList(
-        new Dependency(Dependency.GINJECTOR, key, getContext().toString()));
+        new Dependency(Dependency.GINJECTOR, key, getContext()));
   }
 
   private static String toEnumReference(Enum<?> instance) {
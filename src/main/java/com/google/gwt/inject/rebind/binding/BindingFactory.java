@@ -50,6 +50,8 @@ public interface BindingFactory {
 
   CallGwtDotCreateBinding getCallGwtDotCreateBinding(TypeLiteral<?> type);
 
+  CallGwtDotCreateBinding getSharedCallGwtDotCreateBinding(TypeLiteral<?> type);
+
   ExposedChildBinding getExposedChildBinding(Key<?> key, GinjectorBindings childBindings,
       Context context);
 
@@ -58,11 +60,16 @@ public interface BindingFactory {
 
   ImplicitProviderBinding getImplicitProviderBinding(Key<?> providerKey);
 
+  LazyBinding getLazyBinding(Key<?> lazyKey);
+
+  ModuleInstanceBinding getModuleInstanceBinding(Class<?> moduleType, Context context);
+
   ParentBinding getParentBinding(Key<?> key, GinjectorBindings parentBindings, Context context);
 
   ProviderMethodBinding getProviderMethodBinding(ProviderMethod<?> providerMethod, Context context);
 
-  RemoteServiceProxyBinding getRemoteServiceProxyBinding(TypeLiteral<?> type);
+  RemoteServiceProxyBinding getRemoteServiceProxyBinding(TypeLiteral<?> type,
+      boolean batching);
 
   GinjectorBinding getGinjectorBinding();
 }
@@ -83,6 +83,11 @@ public class BindingFactoryImpl implements BindingFactory {
     return new CallGwtDotCreateBinding(guiceUtil, type,
         Context.forText("Implicit GWT.create binding for " + type));
   }
+
+  public CallGwtDotCreateBinding getSharedCallGwtDotCreateBinding(TypeLiteral<?> type) {
+    return new CallGwtDotCreateBinding(guiceUtil, type,
+        Context.forText("Implicit shared GWT.create binding for " + type), true);
+  }
   
   public ExposedChildBinding getExposedChildBinding(Key<?> key, GinjectorBindings childBindings,
       Context context) {
@@ -101,6 +106,14 @@ public class BindingFactoryImpl implements BindingFactory {
   public ImplicitProviderBinding getImplicitProviderBinding(Key<?> providerKey) {
     return new ImplicitProviderBinding(providerKey);
   }
+
+  public LazyBinding getLazyBinding(Key<?> lazyKey) {
+    return new LazyBinding(lazyKey);
+  }
+
+  public ModuleInstanceBinding getModuleInstanceBinding(Class<?> moduleType, Context context) {
+    return new ModuleInstanceBinding(moduleType, context);
+  }
   
   public ParentBinding getParentBinding(Key<?> key, GinjectorBindings parentBindings,
       Context context) {
@@ -113,7 +126,8 @@ public class BindingFactoryImpl implements BindingFactory {
         errorManager, guiceUtil, methodCallUtil, providerMethod, context);
   }
 
-  public RemoteServiceProxyBinding getRemoteServiceProxyBinding(TypeLiteral<?> type) {
-    return new RemoteServiceProxyBinding(guiceUtil, type);
+  public RemoteServiceProxyBinding getRemoteServiceProxyBinding(TypeLiteral<?> type,
+      boolean batching) {
+    return new RemoteServiceProxyBinding(guiceUtil, type, batching);
   }
 }
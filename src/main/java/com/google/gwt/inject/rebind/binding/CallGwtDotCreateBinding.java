@@ -33,8 +33,24 @@ import java.util.List;
  */
 public class CallGwtDotCreateBinding extends CreatorBinding {
 
+  private final boolean shared;
+
   CallGwtDotCreateBinding(GuiceUtil guiceUtil, TypeLiteral<?> type, Context context) {
+    this(guiceUtil, type, context, false);
+  }
+
+  CallGwtDotCreateBinding(GuiceUtil guiceUtil, TypeLiteral<?> type, Context context,
+      boolean shared) {
     super(guiceUtil, type, context);
+    this.shared = shared;
+  }
+
+  /**
+   * Returns {@code true} if the created type is known to be stateless, so that
+   * a single instance can be shared by everyone who injects it.
+   */
+  public boolean isShared() {
+    return shared;
   }
 
   @Override protected final SourceSnippet getCreationStatement(NameGenerator nameGenerator,
@@ -133,32 +133,31 @@ public class FactoryBinding extends AbstractBinding implements Binding {
     sb.append(factoryTypeName).append(" result = new ").append(factoryTypeName).append("() {");
 
     for (AssistData assisted : assistData) {
-      // While it might seem that we could just create the return type directly
-      // in the factory, that won't work.  The problem is that the return type
-      // might have to be created in a different package from the factory: for
-      // instance, it might inject a package-private object from its own
-      // package.
-      //
-      // So here's the strategy: we generate a separate injector method that,
-      // given the assisted parameters, creates the return value and performs
-      // member injection on it, named "assistedCreate_FACTORY_RETURNTYPE".
-      // Then we create a factory method that dispatches to that injector method
-      // (which, again, may be in some other injector fragment).
-
-      String returnName = ReflectUtil.getSourceName(assisted.implementation);
-
       String signature = ReflectUtil.signatureBuilder(assisted.method)
           .removeAbstractModifier()
           .build();
 
-      SourceSnippet methodCall = methodCallUtil.createMethodCallWithInjection(
-          assisted.constructor, null, assisted.parameterNames, nameGenerator, methodsOutput);
+      sb.append("\n\n    ").append(signature).append(" {");
 
-      SourceSnippet assistedCreateCall = callAssistedCreate(assisted, nameGenerator, methodsOutput);
+      if (canCreateInFactory(assisted)) {
+        // The implementation can be named where the factory is created, so
+        // construct and member-inject it right here.
+        sb.append("\n").append(createImplementation(assisted, nameGenerator, methodsOutput));
+      } else {
+        // The return type might have to be created in a different package
+        // from the factory: for instance, it might be package-private itself.
+        // In that case we generate a separate injector method in the package
+        // of the return type that, given the assisted parameters, creates the
+        // return value and performs member injection on it, named
+        // "assistedCreate_FACTORY_RETURNTYPE", and dispatch to it from the
+        // factory method (it may be in some other injector fragment).
+        SourceSnippet assistedCreateCall =
+            callAssistedCreate(assisted, nameGenerator, methodsOutput);
+
+        sb.append("\n      return ").append(assistedCreateCall).append(";");
+      }
 
-      sb.append("\n\n    ").append(signature).append(" {")
-         .append("\n      return ").append(assistedCreateCall).append(";")
-         .append("\n    }"); // End method.
+      sb.append("\n    }"); // End method.
     }
 
     sb.append("\n};"); // End factory implementation.
@@ -166,11 +165,54 @@ public class FactoryBinding extends AbstractBinding implements Binding {
     return sb.build();
   }
 
-  private SourceSnippet callAssistedCreate(AssistData assisted, NameGenerator nameGenerator,
+  /**
+   * Returns {@code true} if the implementation created by the given factory
+   * method can be referenced from the package the factory is created in.
+   */
+  private boolean canCreateInFactory(AssistData assisted) {
+    return ReflectUtil.isVisibleFromAnyPackage(assisted.implementation)
+        || ReflectUtil.getUserPackageName(assisted.implementation)
+            .equals(getGetterMethodPackage());
+  }
+
+  /**
+   * Returns statements that create the implementation of the given factory
+   * method, member-inject it and return it.
+   */
+  private SourceSnippet createImplementation(AssistData assisted, NameGenerator nameGenerator,
       List<InjectorMethod> methodsOutput) throws NoSourceNameException {
     String returnTypeName = ReflectUtil.getSourceName(assisted.implementation);
+
+    SourceSnippet memberInjectCall =
+        SourceSnippets.callMemberInject(assisted.implementation, "instance");
+
+    // Where the implementation can be named, call its constructor right here
+    // unless it needs the invoker (for JSNI access or exception wrapping).
+    SourceSnippet constructorCall = canCreateInFactory(assisted)
+        ? methodCallUtil.createDirectConstructorCall(assisted.constructor, returnTypeName,
+            getGetterMethodPackage(), assisted.parameterNames)
+        : null;
+    if (constructorCall != null) {
+      return new SourceSnippetBuilder()
+          .append(returnTypeName).append(" instance = ").append(constructorCall).append(";")
+          .append("\n").append(memberInjectCall)
+          .append("\nreturn instance;")
+          .build();
+    }
+
+    SourceSnippet methodCall = methodCallUtil.createMethodCallWithInjection(
+        assisted.constructor, null, assisted.parameterNames, nameGenerator, methodsOutput);
+
+    return new SourceSnippetBuilder()
+        .append(returnTypeName).append(" instance = ").append(methodCall)
+        .append("\n").append(memberInjectCall)
+        .append("\nreturn instance;")
+        .build();
+  }
+
+  private SourceSnippet callAssistedCreate(AssistData assisted, NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
     String packageName = ReflectUtil.getUserPackageName(assisted.implementation);
-    String factoryTypeName = ReflectUtil.getSourceName(factoryType);
 
     String assistedInjectMethodName =
         nameGenerator.getAssistedInjectMethodName(factoryKey, assisted.method.getName());
@@ -179,19 +221,8 @@ public class FactoryBinding extends AbstractBinding implements Binding {
         .removeAbstractModifier()
         .build();
 
-    SourceSnippet memberInjectCall =
-        SourceSnippets.callMemberInject(assisted.implementation, "result");
-    SourceSnippet methodCall = methodCallUtil.createMethodCallWithInjection(
-        assisted.constructor, null, assisted.parameterNames, nameGenerator, methodsOutput);
-
-    SourceSnippet assistedInjectMethodBody = new SourceSnippetBuilder()
-        .append(returnTypeName).append(" result = ").append(methodCall)
-        .append("\n").append(memberInjectCall)
-        .append("\nreturn result;")
-        .build();
-
     methodsOutput.add(SourceSnippets.asMethod(false, assistedInjectSignature, packageName,
-        assistedInjectMethodBody));
+        createImplementation(assisted, nameGenerator, methodsOutput)));
 
     List<String> parameterNames = new ArrayList<String>();
     for (int i = 0; i < assisted.method.getParameterKeys().size(); ++i) {
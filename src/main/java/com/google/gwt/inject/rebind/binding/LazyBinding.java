@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.rebind.binding;
+
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.Preconditions;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
+import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.gwt.inject.rebind.util.SourceSnippets;
+import com.google.inject.Key;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binding implementation for {@code Lazy<T>} that generates the following
+ * code for the memoising holder:
+ *
+ * <pre style=code>
+ *   return new %lazy_name% () {
+ *      private %object_to_create% instance;
+ *      public %object_to_create% get() {
+ *        if (instance == null) {
+ *          instance = %provider_of_object_to_create%.get();
+ *        }
+ *        return instance;
+ *      }
+ *   }
+ * </pre>
+ */
+public class LazyBinding extends AbstractBinding implements Binding {
+
+  private final ParameterizedType lazyType;
+  private final Key<?> lazyKey;
+  private final Key<?> targetKey;
+
+  private LazyBinding(Key<?> lazyKey, Key<?> targetKey) {
+    super(Context.format("Implicit lazy holder for %s", lazyKey), targetKey);
+
+    this.lazyKey = Preconditions.checkNotNull(lazyKey);
+    this.lazyType = (ParameterizedType) lazyKey.getTypeLiteral().getType();
+    this.targetKey = Preconditions.checkNotNull(targetKey);
+  }
+
+  LazyBinding(Key<?> lazyKey) {
+    this(lazyKey, ReflectUtil.getProvidedKey(lazyKey));
+  }
+
+  public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
+    String lazyTypeName = ReflectUtil.getSourceName(lazyType);
+    String targetKeyName = ReflectUtil.getSourceName(targetKey.getTypeLiteral());
+
+    return new SourceSnippetBuilder()
+        .append(lazyTypeName).append(" result = new ")
+        .append(lazyTypeName).append("() { \n")
+        .append("  private ").append(targetKeyName).append(" instance;\n")
+        .append("  public ").append(targetKeyName).append(" get() { \n")
+        .append("    if (instance == null) { \n")
+        .append("      instance = ").append(SourceSnippets.callGetter(targetKey)).append(";\n")
+        .append("    }\n")
+        .append("    return instance;\n")
+        .append("  }\n")
+        .append("};")
+        .build();
+  }
+
+  public Collection<Dependency> getDependencies() {
+    // The target is only created on demand, so the edge is lazy in the same
+    // way as the edge of an implicit Provider<T>.
+    return Collections.singleton(new Dependency(lazyKey, targetKey, false, true, getContext()));
+  }
+}
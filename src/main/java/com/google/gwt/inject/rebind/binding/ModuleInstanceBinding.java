@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.rebind.binding;
+
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
+import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.inject.BindingAnnotation;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binding for the instance of a module on which its {@code @Provides} methods
+ * are invoked.  It is bound as a singleton under
+ * {@link #getModuleInstanceKey(Class)}, so that all provider methods of a
+ * module share a single, lazily created module per injector.
+ */
+public class ModuleInstanceBinding extends AbstractBinding implements Binding {
+
+  /**
+   * Marks the internal key of a module instance, so it can't collide with a
+   * binding of the module class made by the user.
+   */
+  @BindingAnnotation
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface ModuleInstance {}
+
+  private final Class<?> moduleType;
+
+  ModuleInstanceBinding(Class<?> moduleType, Context context) {
+    super(context, TypeLiteral.get(moduleType));
+
+    this.moduleType = moduleType;
+  }
+
+  /**
+   * Returns the key of the shared instance of the given module class.
+   */
+  public static Key<?> getModuleInstanceKey(Class<?> moduleType) {
+    return Key.get(moduleType, ModuleInstance.class);
+  }
+
+  public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
+    // ProviderMethodBinding already reports modules that lack an accessible
+    // default constructor.
+    String moduleSourceName = ReflectUtil.getSourceName(moduleType);
+    return new SourceSnippetBuilder()
+        .append(moduleSourceName).append(" result = new ").append(moduleSourceName).append("();")
+        .build();
+  }
+
+  public Collection<Dependency> getDependencies() {
+    return Collections.emptyList();
+  }
+}
@@ -25,6 +25,7 @@ import com.google.gwt.inject.rebind.util.MethodCallUtil;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.SourceSnippet;
 import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.gwt.inject.rebind.util.SourceSnippets;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 import com.google.inject.internal.ProviderMethod;
@@ -35,9 +36,9 @@ import java.util.List;
 
 /**
  * A binding that calls a provider method. This binding depends on
- * the {@code GinModule}'s key, meaning that it will cause the module
- * itself to be instantiated at runtime so it can call the provider
- * method.
+ * the key of the module's shared instance (see {@link ModuleInstanceBinding}),
+ * meaning that it will cause the module itself to be instantiated at runtime
+ * so it can call the provider method.
  */
 public class ProviderMethodBinding extends AbstractBinding implements Binding {
   private final GuiceUtil guiceUtil;
@@ -45,6 +46,7 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
   private MethodLiteral<?, Method> providerMethod;
   private final MethodCallUtil methodCallUtil;
   private final Class<?> moduleType;
+  private final Key<?> moduleKey;
   private final Key<?> targetKey;
   
   ProviderMethodBinding(ErrorManager errorManager, GuiceUtil guiceUtil,
@@ -55,6 +57,7 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
 
     this.methodCallUtil = methodCallUtil;
     this.moduleType = providerMethod.getInstance().getClass();
+    this.moduleKey = ModuleInstanceBinding.getModuleInstanceKey(moduleType);
     Method method = providerMethod.getMethod();
     this.providerMethod = MethodLiteral.get(method, TypeLiteral.get(method.getDeclaringClass()));
     this.targetKey = providerMethod.getKey();
@@ -68,19 +71,18 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
     }
   }
   
-  // TODO(schmitt): This implementation creates a new module instance for
-  // every provider method invocation. Instead we should likely create just a
-  // single instance of the module, invoke it repeatedly and share it between
-  // provider methods.
   public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
       List<InjectorMethod> methodsOutput) throws NoSourceNameException {
     String moduleSourceName = ReflectUtil.getSourceName(moduleType);
-    String createModule = "new " + moduleSourceName + "()";
     String type = ReflectUtil.getSourceName(targetKey.getTypeLiteral());
 
+    // All provider methods of the module share the module instance created by
+    // its ModuleInstanceBinding.
     return new SourceSnippetBuilder()
+        .append(moduleSourceName).append(" module = ")
+        .append(SourceSnippets.callGetter(moduleKey)).append(";\n")
         .append(type).append(" result = ")
-        .append(methodCallUtil.createMethodCallWithInjection(providerMethod, createModule,
+        .append(methodCallUtil.createMethodCallWithInjection(providerMethod, "module",
             nameGenerator, methodsOutput))
         .build();
   }
@@ -88,6 +90,7 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
   public Collection<Dependency> getDependencies() {
     Collection<Dependency> dependencies = guiceUtil.getDependencies(targetKey, providerMethod);
     dependencies.add(new Dependency(Dependency.GINJECTOR, targetKey, getContext()));
+    dependencies.add(new Dependency(targetKey, moduleKey, getContext()));
     return dependencies;
   }
 }
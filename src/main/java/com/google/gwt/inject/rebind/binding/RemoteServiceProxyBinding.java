@@ -15,15 +15,45 @@
  */
 package com.google.gwt.inject.rebind.binding;
 
+import com.google.gwt.inject.client.rpc.BatchingRpcRequestBuilder;
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
+import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.gwt.inject.rebind.util.SourceSnippets;
+import com.google.gwt.inject.rebind.util.SourceWriteUtil;
 import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * A binding that calls {@code GWT.create()} for the non-"Async" version
  * of the requested type.
+ *
+ * <p>If batching is enabled, the created proxy sends its requests through the
+ * injector's {@link BatchingRpcRequestBuilder} and is wrapped in a generated
+ * implementation of the asynchronous interface.  The wrapper defers every
+ * call that returns {@code void} to the end of the event loop turn, so that
+ * the calls made in one turn are sent as a single HTTP request.  The arguments
+ * of a deferred call are only serialized then, so changes made to them in the
+ * meantime are sent as well.  Calls that return a {@code Request} or
+ * {@code RequestBuilder} are passed on directly, since their callers expect
+ * the request to exist when the call returns.
+ *
+ * <p>The wrapper also implements {@code ServiceDefTarget} by forwarding to the
+ * proxy.  Setting another request builder through it ends the batching of the
+ * proxy's calls: deferred calls are then sent one by one through that builder.
  */
 public class RemoteServiceProxyBinding extends CallGwtDotCreateBinding {
 
@@ -33,6 +63,33 @@ public class RemoteServiceProxyBinding extends CallGwtDotCreateBinding {
    */
   private static final String ASYNC_SERVICE_PROXY_SUFFIX = "Async";
 
+  private static final Key<BatchingRpcRequestBuilder> BATCHING_REQUEST_BUILDER_KEY =
+      Key.get(BatchingRpcRequestBuilder.class);
+
+  private static final String SERVICE_DEF_TARGET =
+      "com.google.gwt.user.client.rpc.ServiceDefTarget";
+
+  /**
+   * The methods of {@code ServiceDefTarget} in the batching wrapper, which
+   * forward to the proxy.
+   */
+  private static final String SERVICE_DEF_TARGET_METHODS =
+      "public String getSerializationPolicyName() {\n"
+      + "  return target.getSerializationPolicyName();\n"
+      + "}\n"
+      + "public String getServiceEntryPoint() {\n"
+      + "  return target.getServiceEntryPoint();\n"
+      + "}\n"
+      + "public void setRpcRequestBuilder("
+      + "com.google.gwt.user.client.rpc.RpcRequestBuilder builder) {\n"
+      + "  target.setRpcRequestBuilder(builder);\n"
+      + "}\n"
+      + "public void setServiceEntryPoint(String address) {\n"
+      + "  target.setServiceEntryPoint(address);\n"
+      + "}\n";
+
+  private final boolean batching;
+
   public static boolean isRemoteServiceProxy(TypeLiteral<?> type) {
     Class<?> rawType = type.getRawType();
     return rawType.isInterface()
@@ -40,8 +97,94 @@ public class RemoteServiceProxyBinding extends CallGwtDotCreateBinding {
         && hasSynchronousServiceInterface(type);
   }
 
-  RemoteServiceProxyBinding(GuiceUtil guiceUtil, TypeLiteral<?> type) {
+  RemoteServiceProxyBinding(GuiceUtil guiceUtil, TypeLiteral<?> type, boolean batching) {
     super(guiceUtil, type, Context.format("Implicit remote service proxy binding for %s", type));
+    this.batching = batching;
+  }
+
+  @Override
+  public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
+    SourceSnippet creationStatements = super.getCreationStatements(nameGenerator, methodsOutput);
+    if (!batching) {
+      return creationStatements;
+    }
+
+    String typeName = getTypeName();
+    String batchTypeName = BatchingRpcRequestBuilder.class.getCanonicalName();
+    SourceSnippetBuilder builder = new SourceSnippetBuilder()
+        .append(creationStatements)
+        .append("final ").append(batchTypeName).append(" batch = ")
+        .append(SourceSnippets.callGetter(BATCHING_REQUEST_BUILDER_KEY)).append(";\n")
+        .append("final ").append(typeName).append(" proxy = result;\n")
+        .append("final ").append(SERVICE_DEF_TARGET).append(" target = (")
+        .append(SERVICE_DEF_TARGET).append(") result;\n")
+        .append("target.setRpcRequestBuilder(batch);\n")
+        .append("class BatchingProxy implements ").append(typeName).append(", ")
+        .append(SERVICE_DEF_TARGET).append(" {\n");
+
+    for (Method method : getType().getRawType().getMethods()) {
+      builder.append(getWrapperMethod(method)).append("\n");
+    }
+
+    return builder.append(SERVICE_DEF_TARGET_METHODS)
+        .append("}\n")
+        .append("result = new BatchingProxy();\n")
+        .build();
+  }
+
+  /**
+   * Returns a method of the wrapper that passes the call on to the proxy,
+   * deferring it if it doesn't return anything.
+   */
+  private String getWrapperMethod(Method method) throws NoSourceNameException {
+    MethodLiteral<?, Method> methodLiteral =
+        MethodLiteral.get(method, getType().getSupertype(method.getDeclaringClass()));
+    List<TypeLiteral<?>> parameterTypes = methodLiteral.getParameterTypes();
+
+    String[] parameterNames = new String[parameterTypes.size()];
+    List<String> arguments = new ArrayList<String>();
+    for (int i = 0; i < parameterNames.length; i++) {
+      parameterNames[i] = "arg" + i;
+      arguments.add(ReflectUtil.formatParameterName(i));
+    }
+
+    StringBuilder body = new StringBuilder();
+    if (method.getReturnType() == Void.TYPE) {
+      // Anonymous classes can only read final variables.
+      for (int i = 0; i < parameterNames.length; i++) {
+        body.append("final ").append(ReflectUtil.getSourceName(parameterTypes.get(i)))
+            .append(" ").append(arguments.get(i)).append(" = ").append(parameterNames[i])
+            .append(";\n");
+      }
+      body.append("batch.defer(new com.google.gwt.core.client.Scheduler.ScheduledCommand() {\n")
+          .append("  public void execute() {\n")
+          .append("    proxy.").append(method.getName()).append("(")
+          .append(SourceWriteUtil.join(", ", arguments)).append(");\n")
+          .append("  }\n")
+          .append("});");
+    } else {
+      body.append("return proxy.").append(method.getName()).append("(")
+          .append(SourceWriteUtil.join(", ", Arrays.asList(parameterNames))).append(");");
+    }
+
+    String signature = ReflectUtil.signatureBuilder(methodLiteral)
+        .withModifiers(Modifier.PUBLIC)
+        .withParameterNames(parameterNames)
+        .build();
+    return signature + " {\n" + body + "\n}\n";
+  }
+
+  @Override
+  public Collection<Dependency> getDependencies() {
+    if (!batching) {
+      return super.getDependencies();
+    }
+
+    Collection<Dependency> dependencies = new ArrayList<Dependency>(super.getDependencies());
+    dependencies.add(
+        new Dependency(Key.get(getType()), BATCHING_REQUEST_BUILDER_KEY, getContext()));
+    return dependencies;
   }
 
   @Override
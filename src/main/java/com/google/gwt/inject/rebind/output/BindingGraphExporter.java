@@ -0,0 +1,352 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.EmittedArtifact.Visibility;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
+import com.google.gwt.inject.rebind.binding.ParentBinding;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the resolved binding graph of a ginjector while its code is
+ * written, and exports it as JSON and DOT.
+ *
+ * <p>For every injector in the hierarchy, the export lists each binding with
+ * its scope, the fragment its getter was written to and the size of the code
+ * it contributed (its getter with the Javadoc describing where the binding was
+ * declared, and its helper methods, in characters of Java source without
+ * indentation and comment delimiters), as well as the member and static
+ * injection methods.  Bindings that
+ * were pruned because they are unreachable are listed with their dependencies,
+ * but without fragment or size.
+ *
+ * <p>The export is enabled by {@link GinProperties#EXPORT_BINDING_GRAPH} and
+ * written to the private artifacts {@code gin/graph/<ginjector>.json} and
+ * {@code gin/graph/<ginjector>.dot}.
+ */
+class BindingGraphExporter {
+
+  private final GeneratorContext ctx;
+  private final TreeLogger logger;
+  private final boolean enabled;
+
+  private final Map<GinjectorBindings, InjectorRecord> injectors =
+      new LinkedHashMap<GinjectorBindings, InjectorRecord>();
+
+  @Inject
+  BindingGraphExporter(GeneratorContext ctx, TreeLogger logger, GinProperties properties) {
+    this.ctx = ctx;
+    this.logger = logger;
+    this.enabled = properties.getBoolean(GinProperties.EXPORT_BINDING_GRAPH, false);
+  }
+
+  void recordBinding(GinjectorBindings bindings, Key<?> key, Binding binding, GinScope scope,
+      FragmentPackageName fragment, int size) {
+    if (enabled) {
+      getInjector(bindings).bindings.add(
+          new BindingRecord(key, binding, scope, fragment.toString(), size));
+    }
+  }
+
+  void recordPrunedBinding(GinjectorBindings bindings, Key<?> key, Binding binding) {
+    if (enabled) {
+      getInjector(bindings).bindings.add(
+          new BindingRecord(key, binding, bindings.determineScope(key), null, 0));
+    }
+  }
+
+  void recordMemberInjection(GinjectorBindings bindings, TypeLiteral<?> type, int size) {
+    if (enabled) {
+      getInjector(bindings).memberInjections.put(type.toString(), size);
+    }
+  }
+
+  void recordStaticInjection(GinjectorBindings bindings, Class<?> type, int size) {
+    if (enabled) {
+      getInjector(bindings).staticInjections.put(type.getName(), size);
+    }
+  }
+
+  /**
+   * Writes the recorded graph of the given root bindings, if the export is
+   * enabled.
+   */
+  void write(GinjectorBindings rootBindings) throws UnableToCompleteException {
+    if (!enabled || injectors.isEmpty()) {
+      return;
+    }
+
+    String path = "gin/graph/" + rootBindings.getGinjectorInterface().getRawType().getName();
+    writeResource(path + ".json", toJson(rootBindings));
+    writeResource(path + ".dot", toDot(rootBindings));
+    logger.log(TreeLogger.INFO, "Wrote binding graph to " + path + ".{json,dot}");
+  }
+
+  private void writeResource(String path, String content) throws UnableToCompleteException {
+    OutputStream stream = ctx.tryCreateResource(logger, path);
+    if (stream == null) {
+      // Already written for another permutation.
+      return;
+    }
+
+    try {
+      PrintWriter writer = new PrintWriter(new OutputStreamWriter(stream, "UTF-8"));
+      writer.print(content);
+      writer.flush();
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException("UTF-8 is not supported", e);
+    }
+
+    ctx.commitResource(logger, stream).setVisibility(Visibility.Private);
+  }
+
+  private String toJson(GinjectorBindings rootBindings) {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n  \"ginjector\": ").append(quote(rootBindings.toString()))
+        .append(",\n  \"injectors\": [");
+
+    String injectorSeparator = "\n";
+    for (Map.Entry<GinjectorBindings, InjectorRecord> entry : getInjectorsInOrder(rootBindings)) {
+      GinjectorBindings bindings = entry.getKey();
+      InjectorRecord injector = entry.getValue();
+
+      json.append(injectorSeparator)
+          .append("    {\n      \"name\": ").append(quote(bindings.toString()))
+          .append(",\n      \"parent\": ").append(bindings.getParent() == null
+              ? "null" : quote(bindings.getParent().toString()))
+          .append(",\n      \"bindings\": [");
+
+      String separator = "\n";
+      for (BindingRecord binding : injector.bindings) {
+        json.append(separator)
+            .append("        {\"key\": ").append(quote(binding.key))
+            .append(", \"kind\": ").append(quote(binding.kind))
+            .append(", \"scope\": ").append(quote(binding.scope.toString()))
+            .append(", \"reachable\": ").append(binding.fragment != null)
+            .append(", \"fragment\": ").append(binding.fragment == null
+                ? "null" : quote(binding.fragment))
+            .append(", \"size\": ").append(binding.size)
+            .append(", \"context\": ").append(quote(binding.context))
+            .append(", \"dependencies\": [");
+        String dependencySeparator = "";
+        for (String dependency : binding.dependencies) {
+          json.append(dependencySeparator).append(quote(dependency));
+          dependencySeparator = ", ";
+        }
+        json.append("]}");
+        separator = ",\n";
+      }
+
+      json.append("\n      ],\n      \"memberInjections\": ");
+      appendSizes(injector.memberInjections, json);
+      json.append(",\n      \"staticInjections\": ");
+      appendSizes(injector.staticInjections, json);
+      json.append("\n    }");
+      injectorSeparator = ",\n";
+    }
+
+    return json.append("\n  ]\n}\n").toString();
+  }
+
+  private void appendSizes(Map<String, Integer> sizes, StringBuilder json) {
+    json.append("{");
+    String separator = "";
+    for (Map.Entry<String, Integer> entry : sizes.entrySet()) {
+      json.append(separator).append(quote(entry.getKey())).append(": ").append(entry.getValue());
+      separator = ", ";
+    }
+    json.append("}");
+  }
+
+  private String toDot(GinjectorBindings rootBindings) {
+    StringBuilder dot = new StringBuilder();
+    dot.append("digraph ").append(quote(rootBindings.toString())).append(" {\n")
+        .append("  node [shape=box];\n");
+
+    // Nodes are named after their injector and their position in it, since
+    // the same key can be bound in several injectors.
+    Map<GinjectorBindings, Integer> injectorIds = new LinkedHashMap<GinjectorBindings, Integer>();
+    for (Map.Entry<GinjectorBindings, InjectorRecord> entry : getInjectorsInOrder(rootBindings)) {
+      int injectorId = injectorIds.size();
+      injectorIds.put(entry.getKey(), injectorId);
+
+      dot.append("  subgraph cluster_").append(injectorId).append(" {\n")
+          .append("    label=").append(quote(entry.getKey().toString())).append(";\n");
+      for (BindingRecord binding : entry.getValue().bindings) {
+        dot.append("    ").append(quote(nodeId(injectorId, binding.key)))
+            .append(" [label=").append(quote(binding.key + "\n" + binding.kind + ", "
+                + binding.scope + (binding.fragment != null ? ", " + binding.size + " chars" : "")))
+            .append(binding.fragment == null ? ", style=dashed, color=gray" : "")
+            .append("];\n");
+      }
+      dot.append("  }\n");
+    }
+
+    for (Map.Entry<GinjectorBindings, InjectorRecord> entry : getInjectorsInOrder(rootBindings)) {
+      int injectorId = injectorIds.get(entry.getKey());
+      for (BindingRecord binding : entry.getValue().bindings) {
+        String source = quote(nodeId(injectorId, binding.key));
+        for (int i = 0; i < binding.dependencies.size(); i++) {
+          dot.append("  ").append(source).append(" -> ")
+              .append(quote(nodeId(injectorId, binding.dependencies.get(i))))
+              .append(binding.lazyDependencies.get(i) ? " [style=dashed]" : "").append(";\n");
+        }
+
+        Integer targetInjectorId = injectorIds.get(binding.otherInjector);
+        if (targetInjectorId != null) {
+          dot.append("  ").append(source).append(" -> ")
+              .append(quote(nodeId(targetInjectorId, binding.key)))
+              .append(" [style=dotted];\n");
+        }
+      }
+    }
+
+    return dot.append("}\n").toString();
+  }
+
+  /**
+   * Returns the recorded injectors, starting with the root and followed by its
+   * descendants in depth-first order.
+   */
+  private List<Map.Entry<GinjectorBindings, InjectorRecord>> getInjectorsInOrder(
+      GinjectorBindings rootBindings) {
+    Map<GinjectorBindings, InjectorRecord> result =
+        new LinkedHashMap<GinjectorBindings, InjectorRecord>();
+    addInjectors(rootBindings, result);
+    return new ArrayList<Map.Entry<GinjectorBindings, InjectorRecord>>(result.entrySet());
+  }
+
+  private void addInjectors(GinjectorBindings bindings,
+      Map<GinjectorBindings, InjectorRecord> result) {
+    InjectorRecord injector = injectors.get(bindings);
+    if (injector != null) {
+      result.put(bindings, injector);
+    }
+
+    for (GinjectorBindings child : bindings.getChildren()) {
+      addInjectors(child, result);
+    }
+  }
+
+  private InjectorRecord getInjector(GinjectorBindings bindings) {
+    InjectorRecord injector = injectors.get(bindings);
+    if (injector == null) {
+      injector = new InjectorRecord();
+      injectors.put(bindings, injector);
+    }
+    return injector;
+  }
+
+  private static String nodeId(int injectorId, String key) {
+    return injectorId + ":" + key;
+  }
+
+  /**
+   * Quotes the given string for JSON, which also makes it a valid DOT ID.
+   */
+  private static String quote(String value) {
+    StringBuilder result = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          result.append("\\\"");
+          break;
+        case '\\':
+          result.append("\\\\");
+          break;
+        case '\n':
+          result.append("\\n");
+          break;
+        default:
+          if (c < ' ') {
+            result.append(String.format("\\u%04x", (int) c));
+          } else {
+            result.append(c);
+          }
+      }
+    }
+    return result.append('"').toString();
+  }
+
+  private static final class InjectorRecord {
+    final List<BindingRecord> bindings = new ArrayList<BindingRecord>();
+    final Map<String, Integer> memberInjections = new LinkedHashMap<String, Integer>();
+    final Map<String, Integer> staticInjections = new LinkedHashMap<String, Integer>();
+  }
+
+  /**
+   * The exported information about a binding.  The binding itself is not kept,
+   * only the strings that describe it.
+   */
+  private static final class BindingRecord {
+    final String key;
+    final String kind;
+    final GinScope scope;
+    final String fragment;
+    final int size;
+    final String context;
+    final List<String> dependencies = new ArrayList<String>();
+    final List<Boolean> lazyDependencies = new ArrayList<Boolean>();
+
+    /** The injector that a parent or exposed child binding forwards to. */
+    final GinjectorBindings otherInjector;
+
+    BindingRecord(Key<?> key, Binding binding, GinScope scope, String fragment, int size) {
+      this.key = PrettyPrinter.format("%s", key);
+      this.kind = binding.getClass().getSimpleName();
+      this.scope = scope;
+      this.fragment = fragment;
+      this.size = size;
+      this.context = binding.getContext().toString();
+
+      for (Dependency dependency : binding.getDependencies()) {
+        if (dependency.getSource().equals(key)) {
+          dependencies.add(PrettyPrinter.format("%s", dependency.getTarget()));
+          lazyDependencies.add(dependency.isLazy());
+        }
+      }
+
+      if (binding instanceof ParentBinding) {
+        otherInjector = ((ParentBinding) binding).getParentBindings();
+      } else if (binding instanceof ExposedChildBinding) {
+        otherInjector = ((ExposedChildBinding) binding).getChildBindings();
+      } else {
+        otherInjector = null;
+      }
+    }
+  }
+}
@@ -33,10 +33,16 @@ import com.google.inject.assistedinject.Assisted;
  * parts of those packages).  Since it doesn't matter where those methods go, we
  * arbitrarily put them in the fragment corresponding to the ginjector
  * interface.
+ *
+ * <p>A package whose injector code is too large for a single class is split
+ * into several fragments, which are distinguished by their shard number (see
+ * {@link FragmentPartitioner}).  The first shard of each package is numbered
+ * 0.
  */
 public class FragmentPackageName {
 
   private final String name;
+  private final int shard;
 
   private static final String[] prohibitedPackageNames = new String[] {
     "java.lang",
@@ -48,6 +54,23 @@ public class FragmentPackageName {
       @Assisted String requestedName) {
 
     name = sanitizePackageName(ginjectorInterface, requestedName);
+    shard = 0;
+  }
+
+  private FragmentPackageName(String name, int shard) {
+    this.name = name;
+    this.shard = shard;
+  }
+
+  /**
+   * Returns the fragment name for the given shard of this fragment's package.
+   */
+  FragmentPackageName forShard(int shard) {
+    return shard == this.shard ? this : new FragmentPackageName(name, shard);
+  }
+
+  public int getShard() {
+    return shard;
   }
 
   private static String sanitizePackageName(Class<?> ginjectorInterface, String packageName) {
@@ -70,13 +93,17 @@ public class FragmentPackageName {
       return false;
     }
 
-    return name.equals(((FragmentPackageName) obj).name);
+    FragmentPackageName other = (FragmentPackageName) obj;
+    return name.equals(other.name) && shard == other.shard;
   }
 
   public int hashCode() {
-    return name.hashCode();
+    return name.hashCode() * 31 + shard;
   }
 
+  /**
+   * Returns the name of the package containing the fragment.
+   */
   public String toString() {
     return name;
   }
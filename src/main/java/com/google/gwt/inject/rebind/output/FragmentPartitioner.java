@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.GinjectorInterfaceType;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.BindClassBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.ImplicitProviderBinding;
+import com.google.gwt.inject.rebind.binding.LazyBinding;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which fragment each method of an injector is written to.
+ *
+ * <p>By default, every method goes to the fragment of the package it needs
+ * access to.  To avoid producing hundreds of tiny fragments, the getters of
+ * packages that have fewer than {@link GinProperties#FRAGMENT_MERGE_THRESHOLD}
+ * getters are moved into the fragment of the ginjector interface's package,
+ * as long as their code only names public types.  To avoid producing huge
+ * fragments, no fragment gets more than {@link GinProperties#FRAGMENT_MAX_BINDINGS}
+ * methods: once a package's fragment is full, its further methods go to the
+ * next of several fragments in the same package.  The getters of a package
+ * are known up front and placed first, sorted by name so that their placement
+ * only changes where getters are added or removed; helper methods (invokers,
+ * member injection methods and the like) are only known while the injector is
+ * written, and fill up the shards in the order they are asked for.  Every
+ * method is counted, and its shard remembered by its (injector-unique) name so
+ * that all callers agree on it.
+ *
+ * <p>Since merged methods only name public types and shards stay in their
+ * package, the placement preserves the package visibility guarantees of
+ * {@link FragmentPackageName}.
+ */
+class FragmentPartitioner {
+
+  private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final ReachabilityAnalyzer reachabilityAnalyzer;
+  private final Class<? extends Ginjector> ginjectorInterface;
+  private final int mergeThreshold;
+  private final int maxBindings;
+
+  private final Map<GinjectorBindings, Partition> partitions =
+      new LinkedHashMap<GinjectorBindings, Partition>();
+
+  @Inject
+  FragmentPartitioner(FragmentPackageName.Factory fragmentPackageNameFactory,
+      ReachabilityAnalyzer reachabilityAnalyzer,
+      @GinjectorInterfaceType Class<? extends Ginjector> ginjectorInterface,
+      GinProperties properties) {
+    this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.reachabilityAnalyzer = reachabilityAnalyzer;
+    this.ginjectorInterface = ginjectorInterface;
+    this.mergeThreshold = properties.getInteger(GinProperties.FRAGMENT_MERGE_THRESHOLD, 0);
+    this.maxBindings = properties.getInteger(GinProperties.FRAGMENT_MAX_BINDINGS, 0);
+  }
+
+  /**
+   * Returns the fragment containing the getter for the given key in the given
+   * injector.
+   */
+  FragmentPackageName getGetterFragment(GinjectorBindings bindings, Key<?> key) {
+    Partition partition = getPartition(bindings);
+    FragmentPackageName packageName = partition.mergedKeys.contains(key)
+        ? getSharedPackageName()
+        : fragmentPackageNameFactory.create(bindings.getBinding(key).getGetterMethodPackage());
+    return partition.getShard(packageName, bindings.getNameGenerator().getGetterMethodName(key));
+  }
+
+  /**
+   * Returns the fragment containing the method with the given name, which must
+   * be placed in the given package.
+   */
+  FragmentPackageName getMethodFragment(GinjectorBindings bindings, String packageName,
+      String methodName) {
+    return getPartition(bindings).getShard(fragmentPackageNameFactory.create(packageName),
+        methodName);
+  }
+
+  /**
+   * Returns the fragment that the given method is written to.
+   */
+  FragmentPackageName getMethodFragment(GinjectorBindings bindings, InjectorMethod method) {
+    return getMethodFragment(bindings, method.getPackageName(),
+        getMethodName(method.getMethodSignature()));
+  }
+
+  /**
+   * Extracts the method name from a signature such as "public void foo(Bar bar)".
+   */
+  static String getMethodName(String signature) {
+    String beforeParameters = signature.substring(0, signature.indexOf('(')).trim();
+    return beforeParameters.substring(beforeParameters.lastIndexOf(' ') + 1);
+  }
+
+  private FragmentPackageName getSharedPackageName() {
+    return fragmentPackageNameFactory.create(ginjectorInterface.getPackage().getName());
+  }
+
+  private Partition getPartition(GinjectorBindings bindings) {
+    Partition partition = partitions.get(bindings);
+    if (partition == null) {
+      partition = createPartition(bindings);
+      partitions.put(bindings, partition);
+    }
+    return partition;
+  }
+
+  private Partition createPartition(GinjectorBindings bindings) {
+    Map<FragmentPackageName, List<Key<?>>> gettersByPackage =
+        new LinkedHashMap<FragmentPackageName, List<Key<?>>>();
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      if (!reachabilityAnalyzer.isReachable(entry.getValue())) {
+        continue;
+      }
+
+      FragmentPackageName packageName =
+          fragmentPackageNameFactory.create(entry.getValue().getGetterMethodPackage());
+      List<Key<?>> getters = gettersByPackage.get(packageName);
+      if (getters == null) {
+        getters = new ArrayList<Key<?>>();
+        gettersByPackage.put(packageName, getters);
+      }
+      getters.add(entry.getKey());
+    }
+
+    Partition partition = new Partition();
+    FragmentPackageName sharedPackageName = getSharedPackageName();
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    Map<FragmentPackageName, List<String>> getterNames =
+        new LinkedHashMap<FragmentPackageName, List<String>>();
+    for (Map.Entry<FragmentPackageName, List<Key<?>>> entry : gettersByPackage.entrySet()) {
+      FragmentPackageName packageName = entry.getKey();
+      for (Key<?> key : entry.getValue()) {
+        if (entry.getValue().size() < mergeThreshold && !packageName.equals(sharedPackageName)
+            && isMergeable(key, bindings.getBinding(key))) {
+          partition.mergedKeys.add(key);
+          addGetterName(getterNames, sharedPackageName, nameGenerator.getGetterMethodName(key));
+        } else {
+          addGetterName(getterNames, packageName, nameGenerator.getGetterMethodName(key));
+        }
+      }
+    }
+
+    if (maxBindings > 0) {
+      for (Map.Entry<FragmentPackageName, List<String>> entry : getterNames.entrySet()) {
+        Collections.sort(entry.getValue());
+        for (String getterName : entry.getValue()) {
+          partition.getShard(entry.getKey(), getterName);
+        }
+      }
+    }
+
+    return partition;
+  }
+
+  private static void addGetterName(Map<FragmentPackageName, List<String>> getterNames,
+      FragmentPackageName packageName, String getterName) {
+    List<String> names = getterNames.get(packageName);
+    if (names == null) {
+      names = new ArrayList<String>();
+      getterNames.put(packageName, names);
+    }
+    names.add(getterName);
+  }
+
+  /**
+   * Returns true if the getter for the given binding can be written to any
+   * package.  This holds for the bindings whose getter only forwards to
+   * another getter and names nothing but the (public) types in its key.
+   */
+  private boolean isMergeable(Key<?> key, Binding binding) {
+    if (!(binding instanceof BindClassBinding
+        || binding instanceof ImplicitProviderBinding
+        || binding instanceof AsyncProviderBinding
+        || binding instanceof LazyBinding)) {
+      return false;
+    }
+
+    try {
+      return ReflectUtil.isVisibleFromAnyPackage(key.getTypeLiteral());
+    } catch (IllegalArgumentException e) {
+      // Thrown for private types, which are reported elsewhere.
+      return false;
+    }
+  }
+
+  /**
+   * The placement decisions for a single injector.
+   */
+  private final class Partition {
+    final Set<Key<?>> mergedKeys = new LinkedHashSet<Key<?>>();
+    final Map<FragmentPackageName, Shards> shards =
+        new LinkedHashMap<FragmentPackageName, Shards>();
+
+    /**
+     * Returns the shard of the given package that the method with the given
+     * name is placed in, placing it in the current shard if it hasn't been
+     * placed yet.
+     */
+    FragmentPackageName getShard(FragmentPackageName packageName, String methodName) {
+      if (maxBindings <= 0) {
+        return packageName;
+      }
+
+      Shards packageShards = shards.get(packageName);
+      if (packageShards == null) {
+        packageShards = new Shards();
+        shards.put(packageName, packageShards);
+      }
+      return packageName.forShard(packageShards.place(methodName));
+    }
+  }
+
+  /**
+   * The shards of a single package, which are filled one after the other.
+   */
+  private final class Shards {
+    final Map<String, Integer> methodShards = new HashMap<String, Integer>();
+    int currentShard;
+    int currentCount;
+
+    int place(String methodName) {
+      Integer shard = methodShards.get(methodName);
+      if (shard == null) {
+        if (currentCount == maxBindings) {
+          currentShard++;
+          currentCount = 0;
+        }
+        currentCount++;
+        shard = currentShard;
+        methodShards.put(methodName, shard);
+      }
+      return shard;
+    }
+  }
+}
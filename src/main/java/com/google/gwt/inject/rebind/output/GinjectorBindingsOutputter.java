@@ -21,16 +21,24 @@ import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.GinjectorStatsRecorder;
+import com.google.gwt.inject.client.InitializeSynchronously;
 import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GeneratorRunScoped;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.GinjectorNameGenerator;
 import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.GinjectorBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
@@ -46,46 +54,70 @@ import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
 import com.google.gwt.user.rebind.SourceWriter;
 import com.google.inject.Inject;
 import com.google.inject.Key;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 import com.google.inject.spi.InjectionPoint;
 
 /**
  * Outputs the generated classes for one or more {@link GinjectorBindings}.
  */
-@Singleton
+@GeneratorRunScoped
 class GinjectorBindingsOutputter {
 
+  /**
+   * Name of the method of every injector class that returns the
+   * {@link GinjectorStatsRecorder} of its ginjector, if statistics are enabled.
+   */
+  static final String STATS_RECORDER_GETTER = "getStatsRecorder";
+
+  private final BindingGraphExporter bindingGraphExporter;
   private final GeneratorContext ctx;
   private final ErrorManager errorManager;
   private final GinjectorFragmentOutputter.Factory fragmentOutputterFactory;
-  private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final FragmentPartitioner fragmentPartitioner;
   private final GinjectorNameGenerator ginjectorNameGenerator;
   private final TreeLogger logger;
   private final MethodCallUtil methodCallUtil;
   private final ReachabilityAnalyzer reachabilityAnalyzer;
   private final SourceWriteUtil.Factory sourceWriteUtilFactory;
 
+  /**
+   * Whether eager singletons that are not marked with
+   * {@link InitializeSynchronously} are created through the scheduler instead
+   * of during injector initialization.
+   */
+  private final boolean deferEagerSingletons;
+
+  /**
+   * Whether provisioning statistics are recorded, see
+   * {@link GinProperties#STATS_ENABLED}.
+   */
+  private final boolean statsEnabled;
+
   @Inject
-  GinjectorBindingsOutputter(GeneratorContext ctx,
+  GinjectorBindingsOutputter(BindingGraphExporter bindingGraphExporter,
+      GeneratorContext ctx,
       ErrorManager errorManager,
       GinjectorFragmentOutputter.Factory fragmentOutputterFactory,
-      FragmentPackageName.Factory fragmentPackageNameFactory,
+      FragmentPartitioner fragmentPartitioner,
       GinjectorNameGenerator ginjectorNameGenerator,
       TreeLogger logger,
       MethodCallUtil methodCallUtil,
       ReachabilityAnalyzer reachabilityAnalyzer,
-      SourceWriteUtil.Factory sourceWriteUtilFactory) {
+      SourceWriteUtil.Factory sourceWriteUtilFactory,
+      GinProperties properties) {
 
+    this.bindingGraphExporter = bindingGraphExporter;
     this.ctx = ctx;
     this.errorManager = errorManager;
     this.fragmentOutputterFactory = fragmentOutputterFactory;
-    this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.fragmentPartitioner = fragmentPartitioner;
     this.ginjectorNameGenerator = ginjectorNameGenerator;
     this.logger = logger;
     this.methodCallUtil = methodCallUtil;
     this.reachabilityAnalyzer = reachabilityAnalyzer;
     this.sourceWriteUtilFactory = sourceWriteUtilFactory;
+    this.deferEagerSingletons = properties.getBoolean(GinProperties.DEFER_EAGER_SINGLETONS, false);
+    this.statsEnabled = properties.getBoolean(GinProperties.STATS_ENABLED, false);
   }
 
   /**
@@ -130,9 +162,11 @@ class GinjectorBindingsOutputter {
    * injector, which stores a reference to an instance of that fragment.  In
    * addition, it contains a getter for every public type created by one of its
    * fragments, each of which forwards to a getter in the corresponding
-   * fragment.  In addition to being the injector's public interface, these
-   * getters are used by each fragment of the injector to retrieve objects
-   * created by other fragments.
+   * fragment.
+   *
+   * <p>The fragments and child injectors are created by the injector's
+   * constructor, after which every fragment is handed direct references to the
+   * other fragments it calls into (see {@link GinjectorFragmentContext}).
    */
   private void outputBindings(GinjectorBindings bindings, FragmentMap fragments,
       SourceWriter writer) {
@@ -148,6 +182,13 @@ class GinjectorBindingsOutputter {
     // Collects the text of the body of initializeStaticInjections().
     StringBuilder initializeStaticInjectionsBody = new StringBuilder();
 
+    // Collects the text of the body of collectDeferredEagerSingletons().
+    StringBuilder collectDeferredEagerSingletonsBody = new StringBuilder();
+
+    // Collects the statements of the constructor that create the child
+    // injectors.
+    StringBuilder childConstructionBody = new StringBuilder();
+
     SourceWriteUtil sourceWriteUtil = sourceWriteUtilFactory.create(bindings);
 
     // Output child modules.
@@ -160,56 +201,166 @@ class GinjectorBindingsOutputter {
       writer.beginJavaDocComment();
       writer.print("Child injector for %s", child.getModule());
       writer.endJavaDocComment();
-      writer.println("private %s %s = null;", canonicalClassName, fieldName);
+      writer.println("private final %s %s;", canonicalClassName, fieldName);
 
       writer.beginJavaDocComment();
       writer.print("Getter for child injector for %s", child.getModule());
       writer.endJavaDocComment();
       sourceWriteUtil.writeMethod(writer,
           String.format("public %s %s()", canonicalClassName, getterName),
-          String.format(
-              "if (%2$s == null) {\n"
-            + "    %2$s = new %1$s(this);\n"
-            + "}\n\n"
-            + "return %2$s;", canonicalClassName, fieldName));
+          String.format("return %s;", fieldName));
+
+      childConstructionBody.append(
+          String.format("%2$s = new %1$s(this);\n", canonicalClassName, fieldName));
 
       // Ensure that the initializer initializes this child, if necessary.
       outputSubInitialize(child, getterName,
           initializeEagerSingletonsBody, initializeStaticInjectionsBody);
+
+      if (deferEagerSingletons && child.hasEagerSingletonBindingInSubtree()) {
+        collectDeferredEagerSingletonsBody
+            .append(getterName)
+            .append("().collectDeferredEagerSingletons(commands);\n");
+      }
     }
 
     initializeEagerSingletonsBody.append("\n");
     initializeStaticInjectionsBody.append("\n");
 
     outputInterfaceField(bindings, sourceWriteUtil, writer);
+    if (statsEnabled) {
+      outputStatsRecorder(bindings, sourceWriteUtil, writer);
+    }
 
     outputMemberInjections(bindings, fragments, sourceWriteUtil);
     outputStaticInjections(bindings, fragments, sourceWriteUtil);
 
+    Set<Key<?>> deferredKeys = getDeferredEagerSingletons(bindings);
+
     // Output the bindings in the fragments.
     for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
       Binding binding = entry.getValue();
+      Key<?> key = entry.getKey();
       if (!reachabilityAnalyzer.isReachable(binding)) {
+        bindingGraphExporter.recordPrunedBinding(bindings, key, binding);
         continue;
       }
 
       FragmentPackageName fragmentPackageName =
-          fragmentPackageNameFactory.create(binding.getGetterMethodPackage());
-      Key<?> key = entry.getKey();
+          fragmentPartitioner.getGetterFragment(bindings, key);
+
+      GinScope scope = bindings.determineScope(key);
+      if (deferredKeys.contains(key)) {
+        // A deferred eager singleton is an ordinary singleton as far as its
+        // fragment is concerned; it is created by the command registered in
+        // collectDeferredEagerSingletons(), or earlier if something asks for it.
+        scope = GinScope.SINGLETON;
+      }
 
       List<InjectorMethod> helperMethods = new ArrayList();
-      fragments.get(fragmentPackageName)
-          .writeBindingGetter(key, binding, bindings.determineScope(key), helperMethods);
-      outputMethods(helperMethods, fragments);
+      int size = fragments.get(fragmentPackageName)
+          .writeBindingGetter(key, binding, scope, helperMethods);
+      size += outputMethods(helperMethods, fragments);
+      bindingGraphExporter.recordBinding(bindings, key, binding, scope, fragmentPackageName, size);
     }
 
+    outputDeferredEagerSingletons(bindings, deferredKeys, collectDeferredEagerSingletonsBody);
+
+    // Collects the statements of the constructor that create the fragments,
+    // and those that wire the references between fragments.
+    StringBuilder fragmentConstructionBody = new StringBuilder();
+    StringBuilder fragmentReferencesBody = new StringBuilder();
+
     // Output the fragment members.
     outputFragments(bindings, fragments, initializeEagerSingletonsBody,
-        initializeStaticInjectionsBody, sourceWriteUtil, writer);
+        initializeStaticInjectionsBody, fragmentConstructionBody, fragmentReferencesBody,
+        sourceWriteUtil, writer);
 
-    writeConstructor(bindings, sourceWriteUtil, writer);
-    writeInitializers(bindings, initializeEagerSingletonsBody, initializeStaticInjectionsBody,
+    // Fragments have to exist before the child injectors are created, since
+    // fragments of the children keep references to them; references to the
+    // fragments of children can in turn only be wired once they exist.
+    writeConstructor(bindings,
+        fragmentConstructionBody.append(childConstructionBody).append(fragmentReferencesBody),
         sourceWriteUtil, writer);
+    writeInitializers(bindings, initializeEagerSingletonsBody, initializeStaticInjectionsBody,
+        collectDeferredEagerSingletonsBody, sourceWriteUtil, writer);
+  }
+
+  /**
+   * Returns the eager singletons of the given bindings that should be created
+   * through the scheduler rather than synchronously, ordered so that every
+   * singleton comes after the eager singletons it (transitively) depends on.
+   * Returns an empty set unless deferred eager singletons were requested.
+   */
+  private Set<Key<?>> getDeferredEagerSingletons(GinjectorBindings bindings) {
+    Set<Key<?>> result = new LinkedHashSet<Key<?>>();
+    if (!deferEagerSingletons) {
+      return result;
+    }
+
+    Set<Key<?>> candidates = new LinkedHashSet<Key<?>>();
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      Key<?> key = entry.getKey();
+      if (bindings.determineScope(key) == GinScope.EAGER_SINGLETON
+          && !key.getTypeLiteral().getRawType().isAnnotationPresent(InitializeSynchronously.class)
+          && reachabilityAnalyzer.isReachable(entry.getValue())) {
+        candidates.add(key);
+      }
+    }
+
+    Set<Key<?>> visited = new LinkedHashSet<Key<?>>();
+    for (Key<?> key : candidates) {
+      orderByDependencies(key, bindings, candidates, visited, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Depth-first walk over the eager dependencies of {@code key} in the given
+   * bindings, adding every candidate to {@code output} after its dependencies.
+   */
+  private void orderByDependencies(Key<?> key, GinjectorBindings bindings,
+      Set<Key<?>> candidates, Set<Key<?>> visited, Set<Key<?>> output) {
+    if (!visited.add(key)) {
+      return;
+    }
+
+    Binding binding = bindings.getBinding(key);
+    if (binding != null) {
+      for (Dependency dependency : binding.getDependencies()) {
+        if (dependency.getSource().equals(key) && !dependency.isLazy()) {
+          orderByDependencies(dependency.getTarget(), bindings, candidates, visited, output);
+        }
+      }
+    }
+
+    if (candidates.contains(key)) {
+      output.add(key);
+    }
+  }
+
+  /**
+   * Appends a command for each deferred eager singleton to the body of
+   * collectDeferredEagerSingletons().  Each command simply invokes the
+   * singleton's getter, so it is a no-op if the singleton was already created
+   * on demand.
+   */
+  private void outputDeferredEagerSingletons(GinjectorBindings bindings, Set<Key<?>> deferredKeys,
+      StringBuilder collectDeferredEagerSingletonsBody) {
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    for (Key<?> key : deferredKeys) {
+      FragmentPackageName fragmentPackageName =
+          fragmentPartitioner.getGetterFragment(bindings, key);
+
+      collectDeferredEagerSingletonsBody
+          .append("commands.add(new com.google.gwt.core.client.Scheduler.ScheduledCommand() {\n")
+          .append("  public void execute() {\n")
+          .append("    ").append(nameGenerator.getFragmentGetterMethodName(fragmentPackageName))
+          .append("().").append(nameGenerator.getGetterMethodName(key)).append("();\n")
+          .append("  }\n")
+          .append("});\n");
+    }
   }
 
   /**
@@ -248,14 +399,38 @@ class GinjectorBindingsOutputter {
         String.format("return %s;", fieldName));
   }
 
+  /**
+   * Writes the getter for the {@link GinjectorStatsRecorder} of the ginjector.
+   * The root injector creates the recorder, so that every ginjector instance
+   * has its own statistics; child injectors ask their parent for it.
+   */
+  private void outputStatsRecorder(GinjectorBindings bindings, SourceWriteUtil sourceWriteUtil,
+      SourceWriter writer) {
+    String recorderClassName = GinjectorStatsRecorder.class.getCanonicalName();
+    String getterSignature = String.format("public %s %s()", recorderClassName,
+        STATS_RECORDER_GETTER);
+    if (bindings.getParent() == null) {
+      writer.beginJavaDocComment();
+      writer.print("The provisioning statistics of this ginjector.");
+      writer.endJavaDocComment();
+      writer.println("private final %1$s statsRecorder = new %1$s();", recorderClassName);
+      sourceWriteUtil.writeMethod(writer, getterSignature, "return statsRecorder;");
+    } else {
+      sourceWriteUtil.writeMethod(writer, getterSignature,
+          String.format("return parent.%s();", STATS_RECORDER_GETTER));
+    }
+  }
+
   /**
    * For each fragment in the given {@link FragmentMap}, writes the field that
-   * stores it and a getter for that field, and adds code to invoke the
+   * stores it and a getter for that field, and adds code to create the
+   * fragment, to wire its references to other fragments and to invoke the
    * fragment's initializers.
    */
   private void outputFragments(GinjectorBindings bindings,
       FragmentMap fragments, StringBuilder initializeEagerSingletonsBody,
-      StringBuilder initializeStaticInjectionsBody, SourceWriteUtil sourceWriteUtil,
+      StringBuilder initializeStaticInjectionsBody, StringBuilder fragmentConstructionBody,
+      StringBuilder fragmentReferencesBody, SourceWriteUtil sourceWriteUtil,
       SourceWriter writer) {
     String implClassName = ginjectorNameGenerator.getClassName(bindings);
     NameGenerator nameGenerator = bindings.getNameGenerator();
@@ -271,18 +446,22 @@ class GinjectorBindingsOutputter {
       writer.beginJavaDocComment();
       writer.print("Injector fragment for %s", fragmentPackageName);
       writer.endJavaDocComment();
-      writer.print("private %s %s = null;", fragmentCanonicalClassName, fieldName);
+      writer.print("private final %s %s;", fragmentCanonicalClassName, fieldName);
 
       // Write the getter.
       writer.beginJavaDocComment();
       writer.print("Getter for injector fragment for %s", fragmentPackageName);
       writer.endJavaDocComment();
       sourceWriteUtil.writeMethod(writer,
-          "public " + fragmentCanonicalClassName + " " + getterName + "()", String.format(
-          "if (%2$s == null) {\n"
-        + "    %2$s = new %1$s(this);\n"
-        + "}\n\n"
-        + "return %2$s;", fragmentCanonicalClassName, fieldName));
+          "public " + fragmentCanonicalClassName + " " + getterName + "()",
+          String.format("return %s;", fieldName));
+
+      fragmentConstructionBody.append(
+          String.format("%2$s = new %1$s(this);\n", fragmentCanonicalClassName, fieldName));
+
+      if (fragments.get(fragmentPackageName).hasFragmentReferenceInitialization()) {
+        fragmentReferencesBody.append(fieldName + ".initializeFragmentReferences();\n");
+      }
 
       if (fragments.get(fragmentPackageName).hasEagerSingletonInitialization()) {
         initializeEagerSingletonsBody.append(getterName + "().initializeEagerSingletons();\n");
@@ -300,16 +479,28 @@ class GinjectorBindingsOutputter {
   private void outputMemberInjections(GinjectorBindings bindings, FragmentMap fragments,
       SourceWriteUtil sourceWriteUtil) {
     NameGenerator nameGenerator = bindings.getNameGenerator();
+
+    // Member-inject methods may delegate to the member-inject method of their
+    // superclass, so those have to be created as well (once per type, even if
+    // several subclasses share them).
+    Set<TypeLiteral<?>> types = new LinkedHashSet<TypeLiteral<?>>();
     for (TypeLiteral<?> type : bindings.getMemberInjectRequests()) {
       if (!reachabilityAnalyzer.isReachableMemberInject(bindings, type)) {
         continue;
       }
 
+      while (type != null && types.add(type)) {
+        type = sourceWriteUtil.getMemberInjectionSuperType(type);
+      }
+    }
+
+    for (TypeLiteral<?> type : types) {
       List<InjectorMethod> memberInjectionHelpers = new ArrayList<InjectorMethod>();
 
       try {
         sourceWriteUtil.createMemberInjection(type, nameGenerator, memberInjectionHelpers);
-        outputMethods(memberInjectionHelpers, fragments);
+        bindingGraphExporter.recordMemberInjection(bindings, type,
+            outputMethods(memberInjectionHelpers, fragments));
       } catch (NoSourceNameException e) {
         errorManager.logError(e.getMessage(), e);
       }
@@ -330,6 +521,7 @@ class GinjectorBindingsOutputter {
       NameGenerator nameGenerator, SourceWriteUtil sourceWriteUtil) {
     String methodName = nameGenerator.convertToValidMemberName("injectStatic_" + type.getName());
     SourceSnippetBuilder body = new SourceSnippetBuilder();
+    int size = 0;
     for (InjectionPoint injectionPoint : InjectionPoint.forStaticMethodsAndFields(type)) {
       Member member = injectionPoint.getMember();
       try {
@@ -347,7 +539,7 @@ class GinjectorBindingsOutputter {
               staticInjectionHelpers));
         }
 
-        outputMethods(staticInjectionHelpers, fragments);
+        size += outputMethods(staticInjectionHelpers, fragments);
       } catch (NoSourceNameException e) {
         errorManager.logError(e.getMessage(), e);
       }
@@ -362,21 +554,28 @@ class GinjectorBindingsOutputter {
     InjectorMethod method = SourceSnippets.asMethod(false, "private void " + methodName + "()",
         packageName, body.build());
     GinjectorFragmentOutputter fragment =
-        fragments.get(fragmentPackageNameFactory.create(packageName));
-    fragment.outputMethod(method);
+        fragments.get(fragmentPartitioner.getMethodFragment(fragments.getBindings(), packageName,
+            methodName));
+    size += fragment.outputMethod(method);
     fragment.invokeInInitializeStaticInjections(methodName);
+    bindingGraphExporter.recordStaticInjection(fragments.getBindings(), type, size);
   }
 
   /**
    * Outputs some methods to the fragments they belong to.
+   *
+   * @return the total size of the methods, see
+   *     {@link GinjectorFragmentOutputter#outputMethod}
    */
-  void outputMethods(Iterable<InjectorMethod> methods, FragmentMap fragments) {
+  int outputMethods(Iterable<InjectorMethod> methods, FragmentMap fragments) {
+    int size = 0;
     for (InjectorMethod method : methods) {
       FragmentPackageName fragmentPackageName =
-          fragmentPackageNameFactory.create(method.getPackageName());
+          fragmentPartitioner.getMethodFragment(fragments.getBindings(), method);
       GinjectorFragmentOutputter fragment = fragments.get(fragmentPackageName);
-      fragment.outputMethod(method);
+      size += fragment.outputMethod(method);
     }
+    return size;
   }
 
   /**
@@ -423,9 +622,10 @@ class GinjectorBindingsOutputter {
   }
 
   /**
-   * Writes the class constructor.  If there is a parent injector, also writes a
-   * field that stores it and a getter (used by fragments in this injector and
-   * its children).
+   * Writes the class constructor, which stores its argument and then runs the
+   * given statements.  If there is a parent injector, also writes a field that
+   * stores it and a getter (used by fragments in this injector and its
+   * children to look up the fragments of their ancestors).
    *
    * <p>The arguments to the constructor are:
    *
@@ -433,8 +633,8 @@ class GinjectorBindingsOutputter {
    *
    * <p>For the root injector, the implementation of the ginjector interface.
    */
-  private void writeConstructor(GinjectorBindings bindings, SourceWriteUtil sourceWriteUtil,
-      SourceWriter writer) {
+  private void writeConstructor(GinjectorBindings bindings, StringBuilder constructionBody,
+      SourceWriteUtil sourceWriteUtil, SourceWriter writer) {
     String implClassName = ginjectorNameGenerator.getClassName(bindings);
     if (bindings.getParent() == null) {
       // In outputInterfaceField, we verify that we have a bound injector if we
@@ -446,7 +646,7 @@ class GinjectorBindingsOutputter {
 
       sourceWriteUtil.writeMethod(writer,
           String.format("public %s(%s %s)", implClassName, interfaceCanonicalClassName, fieldName),
-          String.format("this.%1$s = %1$s;", fieldName));
+          String.format("this.%1$s = %1$s;\n%2$s", fieldName, constructionBody));
     } else {
       String parentImplCanonicalClassName = ginjectorNameGenerator.getCanonicalClassName(
           bindings.getParent());
@@ -457,28 +657,43 @@ class GinjectorBindingsOutputter {
           parentImplCanonicalClassName), "return parent;");
 
       sourceWriteUtil.writeMethod(writer, String.format("public %1$s(%2$s parent)",
-          implClassName, parentImplCanonicalClassName), "this.parent = parent;");
+          implClassName, parentImplCanonicalClassName),
+          String.format("this.parent = parent;\n%s", constructionBody));
     }
   }
 
   // Setting up the injector works as follows:
   //
-  // When the injectors are constructed, each injector creates its children and
-  // fragments via field initializers.  Then, if the injector is the top-level
+  // When the injectors are constructed, each injector creates its fragments and
+  // children in its constructor.  Then, if the injector is the top-level
   // injector, it initializes itself and its children.  Initialization is
   // performed as a separate step to ensure that the entire injector hierarchy
   // is created before we try to invoke any injection method to, e.g., create
   // eager singletons.  For more details, see
   // <http://code.google.com/p/google-gin/issues/detail?id=156>.
 
+  //
+  // If eager singletons are deferred, initializeEagerSingletons() only creates
+  // those marked with @InitializeSynchronously.  The remaining ones are
+  // gathered by collectDeferredEagerSingletons() as scheduler commands, which
+  // the Ginjector implementation runs through Scheduler.scheduleIncremental().
+
   private void writeInitializers(
       GinjectorBindings bindings,
       StringBuilder initializeEagerSingletonsBody, StringBuilder initializeStaticInjectionsBody,
-      SourceWriteUtil sourceWriteUtil, SourceWriter writer) {
+      StringBuilder collectDeferredEagerSingletonsBody, SourceWriteUtil sourceWriteUtil,
+      SourceWriter writer) {
 
     if (bindings.hasEagerSingletonBindingInSubtree()) {
       sourceWriteUtil.writeMethod(writer,
           "public void initializeEagerSingletons()", initializeEagerSingletonsBody.toString());
+
+      if (deferEagerSingletons) {
+        sourceWriteUtil.writeMethod(writer,
+            "public void collectDeferredEagerSingletons(java.util.List<"
+                + "com.google.gwt.core.client.Scheduler.ScheduledCommand> commands)",
+            collectDeferredEagerSingletonsBody.toString());
+      }
     }
 
     if (bindings.hasStaticInjectionRequestInSubtree()) {
@@ -522,6 +737,10 @@ class GinjectorBindingsOutputter {
       }
     }
 
+    GinjectorBindings getBindings() {
+      return bindings;
+    }
+
     /**
      * Gets the package names associated with fragments that were created by
      * this map.
@@ -19,6 +19,7 @@ import com.google.gwt.inject.rebind.ErrorManager;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.GinjectorNameGenerator;
 import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
 import com.google.gwt.inject.rebind.util.InjectorWriteContext;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
@@ -28,23 +29,40 @@ import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.Assisted;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * An {@link InjectorWriteContext} for use when writing an injector fragment.
+ *
+ * <p>Calls into other fragments, whether they belong to the same injector, to
+ * a child injector or to an ancestor injector, go through a field of the
+ * calling fragment that references the target fragment directly.  The context
+ * records each such reference so that the fragment can declare and wire it;
+ * see {@link FragmentReference}.
  */
 class GinjectorFragmentContext implements InjectorWriteContext {
 
   private final GinjectorBindings bindings;
   private final ErrorManager errorManager;
   private final FragmentPackageName fragmentPackageName;
-  private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final FragmentPartitioner fragmentPartitioner;
   private final GinjectorNameGenerator ginjectorNameGenerator;
   private final SourceWriteUtil sourceWriteUtil;
   private final SourceWriter sourceWriter;
 
+  /**
+   * The references to other fragments used by the code written so far, keyed
+   * by the name of the field storing them.
+   */
+  private final Map<String, FragmentReference> fragmentReferences =
+      new LinkedHashMap<String, FragmentReference>();
+
   @Inject
   public GinjectorFragmentContext(
       ErrorManager errorManager,
-      FragmentPackageName.Factory fragmentPackageNameFactory,
+      FragmentPartitioner fragmentPartitioner,
       GinjectorNameGenerator ginjectorNameGenerator,
       SourceWriteUtil.Factory sourceWriteUtilFactory,
       @Assisted GinjectorBindings bindings,
@@ -54,7 +72,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
     this.bindings = bindings;
     this.errorManager = errorManager;
     this.fragmentPackageName = fragmentPackageName;
-    this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.fragmentPartitioner = fragmentPartitioner;
     this.ginjectorNameGenerator = ginjectorNameGenerator;
     this.sourceWriteUtil = sourceWriteUtilFactory.create(bindings);
     this.sourceWriter = sourceWriter;
@@ -66,18 +84,14 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       errorManager.logError("No binding found for %s in %s", key, bindings);
       return "null /* No binding found */";
     }
-    FragmentPackageName keyPackageName =
-        fragmentPackageNameFactory.create(keyBinding.getGetterMethodPackage());
+    FragmentPackageName keyPackageName = fragmentPartitioner.getGetterFragment(bindings, key);
 
     String getterCall = bindings.getNameGenerator().getGetterMethodName(key) + "()";
 
     if (keyPackageName.equals(fragmentPackageName)) {
       return getterCall;
     } else {
-      String fragmentGetterName =
-          bindings.getNameGenerator().getFragmentGetterMethodName(keyPackageName);
-
-      return String.format("injector.%s().%s", fragmentGetterName, getterCall);
+      return String.format("%s.%s", referencePeerFragment(keyPackageName), getterCall);
     }
   }
 
@@ -88,7 +102,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       return "null /* No binding found */";
     }
     FragmentPackageName childKeyPackageName =
-        fragmentPackageNameFactory.create(childKeyBinding.getGetterMethodPackage());
+        fragmentPartitioner.getGetterFragment(childBindings, key);
 
     NameGenerator nameGenerator = bindings.getNameGenerator();
     NameGenerator childNameGenerator = childBindings.getNameGenerator();
@@ -98,20 +112,22 @@ class GinjectorFragmentContext implements InjectorWriteContext {
     String fragmentGetter = childNameGenerator.getFragmentGetterMethodName(childKeyPackageName);
     String getter = childNameGenerator.getGetterMethodName(key);
 
-    return String.format("injector.%s().%s().%s()", childGetter, fragmentGetter, getter);
+    // Child injectors are created after the fragments of this injector, so
+    // the reference is wired once the whole hierarchy exists.
+    String field = referenceFragment(childBindings, childKeyPackageName,
+        String.format("injector.%s().%s()", childGetter, fragmentGetter), false);
+    return String.format("%s.%s()", field, getter);
   }
 
   public String callMethod(String methodName, String methodFragmentPackage,
       Iterable<String> parameters) {
-    NameGenerator nameGenerator = bindings.getNameGenerator();
     StringBuilder resultBuilder = new StringBuilder();
 
     FragmentPackageName methodFragmentPackageName =
-        fragmentPackageNameFactory.create(methodFragmentPackage);
+        fragmentPartitioner.getMethodFragment(bindings, methodFragmentPackage, methodName);
 
     if (!methodFragmentPackageName.equals(fragmentPackageName)) {
-      String fragmentGetter = nameGenerator.getFragmentGetterMethodName(methodFragmentPackageName);
-      resultBuilder.append("injector.").append(fragmentGetter).append("().");
+      resultBuilder.append(referencePeerFragment(methodFragmentPackageName)).append(".");
     }
 
     return resultBuilder.append(methodName).append("(")
@@ -121,7 +137,16 @@ class GinjectorFragmentContext implements InjectorWriteContext {
   public String callMemberInject(TypeLiteral<?> type, String input) {
     String memberInjectMethodName = bindings.getNameGenerator().getMemberInjectMethodName(type);
 
-    return String.format("%s(%s);", memberInjectMethodName, input);
+    // Member inject methods are placed in the package of the injected type.
+    FragmentPackageName methodFragmentPackageName = fragmentPartitioner.getMethodFragment(
+        bindings, ReflectUtil.getUserPackageName(type), memberInjectMethodName);
+
+    if (methodFragmentPackageName.equals(fragmentPackageName)) {
+      return String.format("%s(%s);", memberInjectMethodName, input);
+    } else {
+      return String.format("%s.%s(%s);", referencePeerFragment(methodFragmentPackageName),
+          memberInjectMethodName, input);
+    }
   }
 
   public String callParentGetter(Key<?> key, GinjectorBindings parentBindings) {
@@ -130,14 +155,14 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       errorManager.logError("No binding found for %s in %s", key, parentBindings);
       return "null /* No binding found */";
     }
-    FragmentPackageName parentKeyPackageName = fragmentPackageNameFactory.create(
-        parentKeyBinding.getGetterMethodPackage());
+    FragmentPackageName parentKeyPackageName =
+        fragmentPartitioner.getGetterFragment(parentBindings, key);
 
-    StringBuilder result = new StringBuilder().append("injector");
+    StringBuilder parentInjector = new StringBuilder().append("injector");
     // Walk up the injector hierarchy until we hit the requested parent.
     GinjectorBindings current = bindings;
     while (current != null && current != parentBindings) {
-      result.append(".getParent()");
+      parentInjector.append(".getParent()");
       current = current.getParent();
     }
     if (current == null) {
@@ -152,7 +177,11 @@ class GinjectorFragmentContext implements InjectorWriteContext {
     String fragmentGetter = parentNameGenerator.getFragmentGetterMethodName(parentKeyPackageName);
     String getter = parentNameGenerator.getGetterMethodName(key);
 
-    return result.append(String.format(".%s().%s()", fragmentGetter, getter)).toString();
+    // Ancestor injectors and their fragments are fully constructed before this
+    // fragment, so the reference can be final.
+    String field = referenceFragment(parentBindings, parentKeyPackageName,
+        String.format("%s.%s()", parentInjector, fragmentGetter), true);
+    return String.format("%s.%s()", field, getter);
   }
 
   public String callGinjectorInterfaceGetter() {
@@ -164,11 +193,93 @@ class GinjectorFragmentContext implements InjectorWriteContext {
     sourceWriteUtil.writeMethod(sourceWriter, signature, body);
   }
 
+  /**
+   * Returns the references to other fragments used by the code written through
+   * this context.
+   */
+  Collection<FragmentReference> getFragmentReferences() {
+    return fragmentReferences.values();
+  }
+
+  private String referencePeerFragment(FragmentPackageName peerPackageName) {
+    String peerGetter = bindings.getNameGenerator().getFragmentGetterMethodName(peerPackageName);
+
+    // Fragments of the same injector may refer to each other, so none of them
+    // can be handed its peers at construction; they are wired afterwards.
+    return referenceFragment(bindings, peerPackageName,
+        String.format("injector.%s()", peerGetter), false);
+  }
+
+  /**
+   * Records a reference to the given fragment of the given injector and
+   * returns the name of the field that stores it.
+   */
+  private String referenceFragment(GinjectorBindings targetBindings,
+      FragmentPackageName targetPackageName, String initializer, boolean isFinal) {
+    String injectorClassName = ginjectorNameGenerator.getClassName(targetBindings);
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    String fieldName = nameGenerator.getFragmentReferenceFieldName(injectorClassName,
+        targetPackageName);
+
+    if (!fragmentReferences.containsKey(fieldName)) {
+      String className = targetBindings.getNameGenerator().getFragmentCanonicalClassName(
+          injectorClassName, targetPackageName);
+      fragmentReferences.put(fieldName,
+          new FragmentReference(fieldName, className, initializer, isFinal));
+    }
+
+    return fieldName;
+  }
+
+  /**
+   * A field of a fragment that references another fragment.
+   *
+   * <p>References to fragments of ancestor injectors are final and assigned in
+   * the fragment's constructor.  References to peer fragments and to fragments
+   * of child injectors cannot be, since those fragments may not exist yet when
+   * this fragment is created; they are assigned exactly once by
+   * {@code initializeFragmentReferences()}, which the injector invokes as the
+   * last step of its constructor.
+   */
+  static final class FragmentReference {
+    private final String fieldName;
+    private final String className;
+    private final String initializer;
+    private final boolean isFinal;
+
+    FragmentReference(String fieldName, String className, String initializer, boolean isFinal) {
+      this.fieldName = fieldName;
+      this.className = className;
+      this.initializer = initializer;
+      this.isFinal = isFinal;
+    }
+
+    String getFieldName() {
+      return fieldName;
+    }
+
+    String getClassName() {
+      return className;
+    }
+
+    /**
+     * Returns an expression, in terms of the fragment's {@code injector}
+     * field, that evaluates to the referenced fragment.
+     */
+    String getInitializer() {
+      return initializer;
+    }
+
+    boolean isFinal() {
+      return isFinal;
+    }
+  }
+
   /**
    * Factory for {@link GinjectorFragmentContext}.
    */
   interface Factory {
-    InjectorWriteContext create(
+    GinjectorFragmentContext create(
         GinjectorBindings bindings,
         FragmentPackageName fragmentPackageName,
         SourceWriter sourceWriter);
@@ -16,20 +16,26 @@
 package com.google.gwt.inject.rebind.output;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.GinjectorStatsRecorder;
 import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
 import com.google.gwt.inject.rebind.GinScope;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.Context;
+import com.google.gwt.inject.rebind.output.GinjectorFragmentContext.FragmentReference;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
 import com.google.gwt.inject.rebind.util.InjectorMethod;
-import com.google.gwt.inject.rebind.util.InjectorWriteContext;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.SourceSnippet;
 import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
@@ -52,7 +58,7 @@ import com.google.inject.assistedinject.Assisted;
 class GinjectorFragmentOutputter {
 
   private final GeneratorContext ctx;
-  private final InjectorWriteContext injectorWriteContext;
+  private final GinjectorFragmentContext injectorWriteContext;
   private final ErrorManager errorManager;
   private final TreeLogger logger;
   private final NameGenerator nameGenerator;
@@ -63,14 +69,27 @@ class GinjectorFragmentOutputter {
   private final String ginjectorClassName;
 
   /**
-   * Collects the text of the body of initializeEagerSingletons().
+   * Whether getters record provisioning statistics, see
+   * {@link GinProperties#STATS_ENABLED}.
    */
-  private final StringBuilder initializeEagerSingletonsBody = new StringBuilder();
+  private final boolean statsEnabled;
 
   /**
-   * Collects the text of the body of initializeStaticInjections().
+   * Whether the comments describing binding declarations are left out, see
+   * {@link GinProperties#COMPACT_OUTPUT}.
    */
-  private final StringBuilder initializeStaticInjectionsBody = new StringBuilder();
+  private final boolean compact;
+
+  /**
+   * The getters of eager singletons, invoked by initializeEagerSingletons(),
+   * mapped to the context of their bindings.
+   */
+  private final Map<String, Context> eagerSingletonGetters = new LinkedHashMap<String, Context>();
+
+  /**
+   * The methods invoked by initializeStaticInjections().
+   */
+  private final List<String> staticInjectionMethods = new ArrayList<String>();
 
   /**
    * The {@link SourceWriter} used to generate the source code.
@@ -86,6 +105,7 @@ class GinjectorFragmentOutputter {
       ErrorManager errorManager,
       TreeLogger logger,
       SourceWriteUtil.Factory sourceWriteUtilFactory,
+      GinProperties properties,
       @Assisted GinjectorBindings bindings,
       @Assisted FragmentPackageName fragmentPackageName,
       @Assisted("ginjectorPackageName") String ginjectorPackageName,
@@ -95,6 +115,8 @@ class GinjectorFragmentOutputter {
     this.errorManager = errorManager;
     this.logger = logger;
     this.sourceWriteUtil = sourceWriteUtilFactory.create(bindings);
+    this.statsEnabled = properties.getBoolean(GinProperties.STATS_ENABLED, false);
+    this.compact = properties.getBoolean(GinProperties.COMPACT_OUTPUT, false);
 
     this.fragmentPackageName = fragmentPackageName;
     this.ginjectorClassName = ginjectorClassName;
@@ -139,20 +161,37 @@ class GinjectorFragmentOutputter {
 
   /** Returns true if the eager singletons initializer is nonempty. */
   boolean hasEagerSingletonInitialization() {
-    return initializeEagerSingletonsBody.length() > 0;
+    return !eagerSingletonGetters.isEmpty();
   }
 
   /** Returns true if the static injections initializer is nonempty. */
   boolean hasStaticInjectionInitialization() {
-    return initializeStaticInjectionsBody.length() > 0;
+    return !staticInjectionMethods.isEmpty();
+  }
+
+  /**
+   * Returns true if this fragment references other fragments that must be
+   * wired by initializeFragmentReferences() once the injector hierarchy is
+   * constructed.
+   */
+  boolean hasFragmentReferenceInitialization() {
+    for (FragmentReference reference : injectorWriteContext.getFragmentReferences()) {
+      if (!reference.isFinal()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
    * Writes a method describing the getter for the given key, along with any
    * other code necessary to support it.  Produces a list of helper methods that
    * still need to be written.
+   *
+   * @return the size of the getter including its Javadoc, see
+   *     {@link #outputMethod}
    */
-  void writeBindingGetter(Key<?> key, Binding binding, GinScope scope,
+  int writeBindingGetter(Key<?> key, Binding binding, GinScope scope,
       List<InjectorMethod> helperMethodsOutput) {
     Context bindingContext = binding.getContext();
 
@@ -168,17 +207,22 @@ class GinjectorFragmentOutputter {
     } catch (NoSourceNameException e) {
       errorManager.logError("Error trying to write getter for [%s] -> [%s];"
           + " binding declaration: %s", e, key, binding, bindingContext);
-      return;
+      return 0;
+    }
+
+    if (statsEnabled) {
+      creationStatements = recordStats(key, scope, creationStatements);
     }
 
     // Name of the field that we might need.
     String field = nameGenerator.getSingletonFieldName(key);
 
+    // Size of the getter's Javadoc, if any.
+    int javadocSize = 0;
+
     switch (scope) {
       case EAGER_SINGLETON:
-        initializeEagerSingletonsBody.append("// Eager singleton bound at:\n");
-        appendBindingContextCommentToMethod(bindingContext, initializeEagerSingletonsBody);
-        initializeEagerSingletonsBody.append(getter).append("();\n");
+        eagerSingletonGetters.put(getter, bindingContext);
         // $FALL-THROUGH$
       case SINGLETON:
         writer.println("private " + typeName + " " + field + " = null;");
@@ -191,7 +235,9 @@ class GinjectorFragmentOutputter {
         break;
 
       case NO_SCOPE:
-        sourceWriteUtil.writeBindingContextJavadoc(writer, bindingContext, key);
+        if (!compact) {
+          javadocSize = sourceWriteUtil.writeBindingContextJavadoc(writer, bindingContext, key);
+        }
 
         getterBuilder.append(creationStatements).append("\n").append("return result;\n");
         break;
@@ -200,15 +246,40 @@ class GinjectorFragmentOutputter {
         throw new IllegalStateException();
     }
 
-    outputMethod(SourceSnippets.asMethod(false, String.format("public %s %s()", typeName, getter),
+    return javadocSize + outputMethod(SourceSnippets.asMethod(false,
+        String.format("public %s %s()", typeName, getter),
         fragmentPackageName.toString(), getterBuilder.build()));
   }
 
-  void outputMethod(InjectorMethod method) {
+  /**
+   * Wraps the given creation statements with code that records the provision
+   * in the {@link GinjectorStatsRecorder} of the enclosing ginjector.
+   */
+  private SourceSnippet recordStats(Key<?> key, GinScope scope, SourceSnippet creationStatements) {
+    boolean singleton = scope != GinScope.NO_SCOPE;
+    return new SourceSnippetBuilder()
+        .append("double ginStatsStart = ")
+        .append(GinjectorStatsRecorder.class.getCanonicalName()).append(".start();\n")
+        .append(creationStatements).append("\n")
+        .append("injector.").append(GinjectorBindingsOutputter.STATS_RECORDER_GETTER)
+        .append("().record(\"").append(Generator.escape(key.toString()))
+        .append("\", \"").append(scope.toString()).append("\", ").append(String.valueOf(singleton))
+        .append(", ginStatsStart);\n")
+        .build();
+  }
+
+  /**
+   * Writes the given method to the fragment.
+   *
+   * @return the length of the method's source, used to attribute the size of
+   *     the generated code to bindings
+   */
+  int outputMethod(InjectorMethod method) {
     try {
-      sourceWriteUtil.writeMethod(method, writer, injectorWriteContext);
+      return sourceWriteUtil.writeMethod(method, writer, injectorWriteContext);
     } catch (NoSourceNameException e) {
       errorManager.logError(e.getMessage(), e);
+      return 0;
     }
   }
 
@@ -216,7 +287,7 @@ class GinjectorFragmentOutputter {
    * Add the given method name to the methods invoked in initializeStaticInjections().
    */
   void invokeInInitializeStaticInjections(String methodName) {
-    initializeStaticInjectionsBody.append(methodName).append("();\n");
+    staticInjectionMethods.add(methodName);
   }
 
   /**
@@ -237,37 +308,76 @@ class GinjectorFragmentOutputter {
     writer.endJavaDocComment();
     writer.println("private final %s injector;", ginjectorClassName);
 
-    // Write the constructor, which takes the enclosing injector and does
-    // nothing but store it in a field.  It's important that the constructor has
-    // no other side-effects; in particular, it must not call any injector
-    // methods, since the injector might not be fully constructed.
+    // Write the fields that reference other fragments, so that calls into them
+    // don't need to go through the injectors.
+    StringBuilder constructorBody = new StringBuilder("this.injector = injector;\n");
+    StringBuilder initializeFragmentReferencesBody = new StringBuilder();
+    for (FragmentReference reference : injectorWriteContext.getFragmentReferences()) {
+      writer.println("private %s%s %s;", reference.isFinal() ? "final " : "",
+          reference.getClassName(), reference.getFieldName());
+
+      String assignment =
+          String.format("%s = %s;\n", reference.getFieldName(), reference.getInitializer());
+      if (reference.isFinal()) {
+        constructorBody.append(assignment);
+      } else {
+        initializeFragmentReferencesBody.append(assignment);
+      }
+    }
+
+    // Write the constructor, which takes the enclosing injector and stores it
+    // and the fragments of ancestor injectors in fields.  It's important that
+    // the constructor has no other side-effects; in particular, it must not
+    // call any injector methods other than the getters of the injector
+    // hierarchy, since the injector might not be fully constructed.
     sourceWriteUtil.writeMethod(writer,
         String.format("public %s(%s injector)", fragmentClassName, ginjectorClassName),
-        "this.injector = injector;");
+        constructorBody.toString());
 
-    if (hasEagerSingletonInitialization()) {
-      // Write a method to initialize eager singletons.
+    if (initializeFragmentReferencesBody.length() > 0) {
+      // Write a method to wire references to fragments of this injector and
+      // its children.
       sourceWriteUtil.writeMethod(
           writer,
-          "public void initializeEagerSingletons()",
-          initializeEagerSingletonsBody.toString());
+          "public void initializeFragmentReferences()",
+          initializeFragmentReferencesBody.toString());
+    }
+
+    if (hasEagerSingletonInitialization()) {
+      // Write a method to initialize eager singletons, straight to the writer
+      // since it can call a great many getters.
+      writer.println("public void initializeEagerSingletons() {");
+      writer.indent();
+      for (Map.Entry<String, Context> entry : eagerSingletonGetters.entrySet()) {
+        if (!compact) {
+          writeBindingContextComment(entry.getValue());
+        }
+        writer.println(entry.getKey() + "();");
+      }
+      writer.outdent();
+      writer.println("}");
+      writer.println();
     }
 
     if (hasStaticInjectionInitialization()) {
       // Write a method to initialize static injection.
-      sourceWriteUtil.writeMethod(
-          writer,
-          "public void initializeStaticInjections()",
-          initializeStaticInjectionsBody.toString());
+      writer.println("public void initializeStaticInjections() {");
+      writer.indent();
+      for (String methodName : staticInjectionMethods) {
+        writer.println(methodName + "();");
+      }
+      writer.outdent();
+      writer.println("}");
+      writer.println();
     }
 
     writer.commit(logger);
   }
 
-  private void appendBindingContextCommentToMethod(Context bindingContext,
-      StringBuilder methodBody) {
+  private void writeBindingContextComment(Context bindingContext) {
+    writer.println("// Eager singleton bound at:");
     for (String line : bindingContext.toString().split("\n")) {
-      methodBody.append("//   ").append(line).append("\n");
+      writer.println("//   " + line);
     }
   }
 
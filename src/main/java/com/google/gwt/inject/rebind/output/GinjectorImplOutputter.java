@@ -18,6 +18,10 @@ package com.google.gwt.inject.rebind.output;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.GinjectorStats;
+import com.google.gwt.inject.client.GinjectorStatsRecorder;
+import com.google.gwt.inject.rebind.GeneratorRunScoped;
+import com.google.gwt.inject.rebind.GinProperties;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.GinjectorNameGenerator;
 import com.google.gwt.inject.rebind.binding.Binding;
@@ -34,7 +38,6 @@ import com.google.gwt.user.rebind.SourceWriter;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.Provider;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 
 import java.io.PrintWriter;
@@ -44,7 +47,7 @@ import java.lang.reflect.Method;
  * Outputs all the generated classes for an implementation of a Ginjector
  * interface.
  */
-@Singleton
+@GeneratorRunScoped
 public class GinjectorImplOutputter {
 
   private final GinjectorBindingsOutputter bindingsOutputter;
@@ -59,12 +62,17 @@ public class GinjectorImplOutputter {
   private final MemberCollector constructorInjectCollector;
 
   private final GeneratorContext ctx;
-  private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final FragmentPartitioner fragmentPartitioner;
   private final GinjectorNameGenerator ginjectorNameGenerator;
   private final GuiceUtil guiceUtil;
   private final TreeLogger logger;
   private final ReachabilityAnalyzer reachabilityAnalyzer;
   private final SourceWriteUtil.Factory sourceWriteUtilFactory;
+  private final SplitPointLeakDetector splitPointLeakDetector;
+  private final StartupReporter startupReporter;
+  private final BindingGraphExporter bindingGraphExporter;
+  private final boolean deferEagerSingletons;
+  private final boolean statsEnabled;
 
   /**
    * Collector that gathers methods from an injector interface and its
@@ -77,18 +85,25 @@ public class GinjectorImplOutputter {
 
   @Inject
   public GinjectorImplOutputter(GinjectorBindingsOutputter bindingsOutputter,
-      GeneratorContext ctx, FragmentPackageName.Factory fragmentPackageNameFactory,
+      GeneratorContext ctx, FragmentPartitioner fragmentPartitioner,
       GinjectorNameGenerator ginjectorNameGenerator, final GuiceUtil guiceUtil,
       TreeLogger logger, Provider<MemberCollector> collectorProvider,
-      ReachabilityAnalyzer reachabilityAnalyzer, SourceWriteUtil.Factory sourceWriteUtilFactory) {
+      ReachabilityAnalyzer reachabilityAnalyzer, SourceWriteUtil.Factory sourceWriteUtilFactory,
+      SplitPointLeakDetector splitPointLeakDetector, StartupReporter startupReporter,
+      BindingGraphExporter bindingGraphExporter, GinProperties properties) {
     this.bindingsOutputter = bindingsOutputter;
     this.ctx = ctx;
-    this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.fragmentPartitioner = fragmentPartitioner;
     this.ginjectorNameGenerator = ginjectorNameGenerator;
     this.guiceUtil = guiceUtil;
     this.logger = logger;
     this.reachabilityAnalyzer = reachabilityAnalyzer;
     this.sourceWriteUtilFactory = sourceWriteUtilFactory;
+    this.splitPointLeakDetector = splitPointLeakDetector;
+    this.startupReporter = startupReporter;
+    this.bindingGraphExporter = bindingGraphExporter;
+    this.deferEagerSingletons = properties.getBoolean(GinProperties.DEFER_EAGER_SINGLETONS, false);
+    this.statsEnabled = properties.getBoolean(GinProperties.STATS_ENABLED, false);
 
     constructorInjectCollector = collectorProvider.get();
     constructorInjectCollector.setMethodFilter(new MemberCollector.MethodFilter() {
@@ -112,7 +127,10 @@ public class GinjectorImplOutputter {
    */
   public void write(String packageName, String implClassName, PrintWriter printWriter,
       GinjectorBindings rootBindings) throws UnableToCompleteException {
+    splitPointLeakDetector.check();
+    startupReporter.report();
     writeInjectorHierarchy(rootBindings);
+    bindingGraphExporter.write(rootBindings);
 
     TypeLiteral<?> ginjectorInterface = rootBindings.getGinjectorInterface();
     if (ginjectorInterface != null) {
@@ -138,6 +156,9 @@ public class GinjectorImplOutputter {
 
     try {
       composerFactory.addImplementedInterface(ReflectUtil.getSourceName(ginjectorInterface));
+      if (statsEnabled) {
+        composerFactory.addImplementedInterface(GinjectorStats.class.getCanonicalName());
+      }
 
       writer = composerFactory.createSourceWriter(ctx, printWriter);
 
@@ -158,6 +179,25 @@ public class GinjectorImplOutputter {
           ? String.format("%s.initializeEagerSingletons();\n", rootFieldName)
           : "";
 
+      // Deferred eager singletons are created one per scheduler slice, once
+      // the constructor has returned.  Getters still create them on demand,
+      // in which case the scheduled command finds them already initialized.
+      String deferredEagerSingletonsScheduling =
+          deferEagerSingletons && rootBindings.hasEagerSingletonBindingInSubtree()
+              ? String.format("final java.util.List<%1$s.ScheduledCommand> deferredEagerSingletons ="
+                  + " new java.util.ArrayList<%1$s.ScheduledCommand>();\n"
+                  + "%2$s.collectDeferredEagerSingletons(deferredEagerSingletons);\n"
+                  + "if (!deferredEagerSingletons.isEmpty()) {\n"
+                  + "  %1$s.get().scheduleIncremental(new %1$s.RepeatingCommand() {\n"
+                  + "    private int next = 0;\n"
+                  + "    public boolean execute() {\n"
+                  + "      deferredEagerSingletons.get(next++).execute();\n"
+                  + "      return next < deferredEagerSingletons.size();\n"
+                  + "    }\n"
+                  + "  });\n"
+                  + "}\n", "com.google.gwt.core.client.Scheduler", rootFieldName)
+              : "";
+
       sourceWriteUtil.writeMethod(writer, "public " + implClassName + "()", String.format(
           // To imitate the behavior of Guice and provide more predictable
           // bootstrap ordering, we initialize the injectors in two phases:
@@ -167,9 +207,13 @@ public class GinjectorImplOutputter {
           // the proper order.
           //
           // See http://code.google.com/p/google-guice/wiki/Bootstrap
-          "%s%s", staticInjectionInitialization, eagerSingletonsInitialization));
+          "%s%s%s", staticInjectionInitialization, eagerSingletonsInitialization,
+          deferredEagerSingletonsScheduling));
 
       outputInterfaceMethods(rootBindings, ginjectorInterface, sourceWriteUtil, writer);
+      if (statsEnabled) {
+        outputStatsMethods(rootFieldName, sourceWriteUtil, writer);
+      }
     } catch (NoSourceNameException e) {
       // TODO(schmitt): Collect errors and log list of them.
       logger.log(TreeLogger.Type.ERROR, e.getMessage(), e);
@@ -180,6 +224,29 @@ public class GinjectorImplOutputter {
     }
   }
 
+  /**
+   * Writes the {@link GinjectorStats} methods, which delegate to the
+   * {@link GinjectorStatsRecorder} owned by the root injector.
+   */
+  private void outputStatsMethods(String rootFieldName, SourceWriteUtil sourceWriteUtil,
+      SourceWriter writer) {
+    String recorder = rootFieldName + "." + GinjectorBindingsOutputter.STATS_RECORDER_GETTER + "()";
+    sourceWriteUtil.writeMethod(writer,
+        "public java.util.Map<String, Integer> getProvisionCounts()",
+        "return " + recorder + ".getProvisionCounts();");
+    sourceWriteUtil.writeMethod(writer,
+        "public java.util.Map<String, Double> getProvisionMillis()",
+        "return " + recorder + ".getProvisionMillis();");
+    sourceWriteUtil.writeMethod(writer,
+        "public java.util.Map<String, String> getProvisionScopes()",
+        "return " + recorder + ".getProvisionScopes();");
+    sourceWriteUtil.writeMethod(writer,
+        "public java.util.List<String> getSingletonCreationOrder()",
+        "return " + recorder + ".getSingletonCreationOrder();");
+    sourceWriteUtil.writeMethod(writer, "public void resetStats()",
+        recorder + ".resetStats();");
+  }
+
   private void outputInterfaceMethods(GinjectorBindings bindings, TypeLiteral<?> ginjectorInterface,
       SourceWriteUtil sourceWriteUtil, SourceWriter writer)
       throws NoSourceNameException, UnableToCompleteException {
@@ -208,8 +275,8 @@ public class GinjectorImplOutputter {
         throw new UnableToCompleteException();
       }
 
-      FragmentPackageName fragmentPackageName = fragmentPackageNameFactory.create(
-          binding.getGetterMethodPackage());
+      FragmentPackageName fragmentPackageName =
+          fragmentPartitioner.getGetterFragment(bindings, methodKey);
 
       String body = String.format("return %s.%s().%s();",
           ginjectorNameGenerator.getFieldName(bindings),
@@ -236,13 +303,15 @@ public class GinjectorImplOutputter {
         throw new UnableToCompleteException();
       }
 
-      FragmentPackageName fragmentPackageName = fragmentPackageNameFactory.create(
-          ReflectUtil.getUserPackageName(injectee.getTypeLiteral()));
+      String memberInjectMethodName =
+          nameGenerator.getMemberInjectMethodName(injectee.getTypeLiteral());
+      FragmentPackageName fragmentPackageName = fragmentPartitioner.getMethodFragment(bindings,
+          ReflectUtil.getUserPackageName(injectee.getTypeLiteral()), memberInjectMethodName);
 
       String body = String.format("%s.%s().%s(param);",
           ginjectorNameGenerator.getFieldName(bindings),
           nameGenerator.getFragmentGetterMethodName(fragmentPackageName),
-          nameGenerator.getMemberInjectMethodName(injectee.getTypeLiteral()));
+          memberInjectMethodName);
 
       String readableDeclaration = ReflectUtil.signatureBuilder(method)
           .withParameterNames(new String[]{"param"})
@@ -15,9 +15,8 @@
  */
 package com.google.gwt.inject.rebind.output;
 
-import com.google.gwt.inject.rebind.util.InjectorWriteContext;
+import com.google.gwt.inject.rebind.GeneratorRunScoped;
 import com.google.inject.PrivateModule;
-import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 
 /**
@@ -29,13 +28,16 @@ public class OutputModule extends PrivateModule {
     install(new FactoryModuleBuilder()
         .build(FragmentPackageName.Factory.class));
     install(new FactoryModuleBuilder()
-        .implement(InjectorWriteContext.class, GinjectorFragmentContext.class)
         .build(GinjectorFragmentContext.Factory.class));
     install(new FactoryModuleBuilder()
         .build(GinjectorFragmentOutputter.Factory.class));
 
     bind(GinjectorImplOutputter.class);
-    bind(ReachabilityAnalyzer.class).in(Singleton.class);
+    bind(ReachabilityAnalyzer.class).in(GeneratorRunScoped.class);
+    bind(FragmentPartitioner.class).in(GeneratorRunScoped.class);
+    bind(SplitPointLeakDetector.class);
+    bind(StartupReporter.class);
+    bind(BindingGraphExporter.class).in(GeneratorRunScoped.class);
 
     expose(FragmentPackageName.Factory.class);
     expose(GinjectorImplOutputter.class);
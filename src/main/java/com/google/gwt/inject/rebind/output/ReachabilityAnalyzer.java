@@ -16,15 +16,18 @@
 package com.google.gwt.inject.rebind.output;
 
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.InitializeSynchronously;
 import com.google.gwt.inject.rebind.GinScope;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.RootBindings;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.gwt.inject.rebind.resolution.DependencyGraph;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
@@ -54,8 +57,7 @@ import java.util.Set;
  */
 final class ReachabilityAnalyzer {
 
-  private Set<Binding> reachable = null;
-  private Map<GinjectorBindings, Set<TypeLiteral<?>>> reachableMemberInjects = null;
+  private Trace reachable = null;
 
   private final GuiceUtil guiceUtil;
   private final TreeLogger logger;
@@ -98,23 +100,69 @@ final class ReachabilityAnalyzer {
    */
   boolean isReachable(Binding binding) {
     if (reachable == null) {
-      computeReachable();
+      reachable = computeReachable(Traversal.ALL, null);
     }
 
-    return reachable.contains(binding);
+    return reachable.bindings.containsKey(binding);
   }
 
   boolean isReachableMemberInject(GinjectorBindings bindings, TypeLiteral<?> type) {
-    if (reachableMemberInjects == null) {
-      computeReachable();
+    if (reachable == null) {
+      reachable = computeReachable(Traversal.ALL, null);
     }
 
-    return getReachableMemberInjects(bindings).contains(type);
+    return reachable.getMemberInjects(bindings).contains(type);
   }
 
-  private void computeReachable() {
-    reachable = new LinkedHashSet<Binding>();
-    reachableMemberInjects = new LinkedHashMap<GinjectorBindings, Set<TypeLiteral<?>>>();
+  /**
+   * Returns the bindings that are reachable from a true root without passing
+   * through an {@code AsyncProvider}, i.e. the bindings that end up in the
+   * initial download.
+   *
+   * @param edges if not {@code null}, receives every dependency followed by
+   *     the traversal, with the true roots as targets of
+   *     {@link Dependency#GINJECTOR}
+   */
+  Set<Binding> getSynchronouslyReachable(DependencyGraph.Builder edges) {
+    return computeReachable(Traversal.SYNCHRONOUS, edges).bindings.keySet();
+  }
+
+  /**
+   * Returns the bindings that are reachable from the given key without passing
+   * through an {@code AsyncProvider}, including the key's own binding, mapped
+   * to the keys they are bound to.
+   */
+  Map<Binding, Key<?>> getSynchronouslyReachable(Key<?> key, GinjectorBindings bindings) {
+    Trace trace = new Trace(Traversal.SYNCHRONOUS, null);
+    traceKey(key, bindings, trace);
+    return trace.bindings;
+  }
+
+  /**
+   * Returns the bindings that are created while the ginjector is constructed,
+   * i.e. the static injections, the eager singletons that are not deferred,
+   * and everything they depend on without going through a {@code Provider} or
+   * another lazy dependency.  The bindings are mapped to the keys they are
+   * bound to.
+   *
+   * @param eagerSingletonsDeferred whether eager singletons are created
+   *     through the scheduler, in which case only those annotated with
+   *     {@link InitializeSynchronously} are created in the ginjector's
+   *     constructor
+   * @param edges if not {@code null}, receives every dependency followed by
+   *     the traversal, with the startup roots as targets of
+   *     {@link Dependency#GINJECTOR}
+   */
+  Map<Binding, Key<?>> getCreatedAtStartup(boolean eagerSingletonsDeferred,
+      DependencyGraph.Builder edges) {
+    Trace trace = new Trace(Traversal.EAGER, edges);
+    doTraceEagerSingletons(rootBindings, trace, eagerSingletonsDeferred);
+    traceStaticInjections(trace);
+    return trace.bindings;
+  }
+
+  private Trace computeReachable(Traversal traversal, DependencyGraph.Builder edges) {
+    Trace trace = new Trace(traversal, edges);
 
     logger.log(TreeLogger.DEBUG, "Begin reachability analysis");
 
@@ -125,15 +173,16 @@ final class ReachabilityAnalyzer {
     // unique Binding object.  Since the caller of this routine is interested in
     // determining which bindings to output, it's more convenient to just work
     // at the binding level.
-    traceGinjectorMethods();
-    traceEagerSingletons();
-    traceStaticInjections();
+    traceGinjectorMethods(trace);
+    traceEagerSingletons(trace);
+    traceStaticInjections(trace);
 
     logger.log(TreeLogger.DEBUG, "End reachability analysis");
+    return trace;
   }
 
   /** Traces out bindings that are reachable from a GInjector method. */
-  private void traceGinjectorMethods() {
+  private void traceGinjectorMethods(Trace trace) {
     TypeLiteral<?> ginjectorInterface = rootBindings.getGinjectorInterface();
     for (MethodLiteral<?, Method> method
          : memberCollector.getMethods(ginjectorInterface)) {
@@ -144,43 +193,56 @@ final class ReachabilityAnalyzer {
         Key<?> key = guiceUtil.getKey(method);
         PrettyPrinter.log(logger, TreeLogger.DEBUG,
             "ROOT -> %s:%s [%s]", rootBindings, key, method);
-        traceKey(key, rootBindings);
+        trace.addRoot(key, method);
+        traceKey(key, rootBindings, trace);
       } else {
         Key<?> sourceKey = guiceUtil.getKey(method);
-        getReachableMemberInjects(rootBindings).add(sourceKey.getTypeLiteral());
+        trace.getMemberInjects(rootBindings).add(sourceKey.getTypeLiteral());
         for (Dependency dependency
              : guiceUtil.getMemberInjectionDependencies(sourceKey, sourceKey.getTypeLiteral())) {
 
           Key<?> targetKey = dependency.getTarget();
           PrettyPrinter.log(
               logger, TreeLogger.DEBUG, "ROOT -> %s:%s [%s]", rootBindings, targetKey, method);
-          traceKey(targetKey, rootBindings);
+          trace.addRoot(targetKey, method);
+          traceKey(targetKey, rootBindings, trace);
         }
       }
     }
   }
 
   /** Traces out bindings that are reachable from an eager singleton. */
-  private void traceEagerSingletons() {
-    doTraceEagerSingletons(rootBindings);
+  private void traceEagerSingletons(Trace trace) {
+    doTraceEagerSingletons(rootBindings, trace, false);
   }
 
-  private void doTraceEagerSingletons(GinjectorBindings bindings) {
+  /**
+   * Traces out bindings that are reachable from an eager singleton of the
+   * given bindings or their children.
+   *
+   * @param synchronousOnly whether to only trace the eager singletons
+   *     annotated with {@link InitializeSynchronously}
+   */
+  private void doTraceEagerSingletons(GinjectorBindings bindings, Trace trace,
+      boolean synchronousOnly) {
     for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
       Key<?> key = entry.getKey();
       Binding binding = entry.getValue();
       GinScope scope = bindings.determineScope(key);
 
-      if (scope == GinScope.EAGER_SINGLETON) {
+      if (scope == GinScope.EAGER_SINGLETON && (!synchronousOnly
+          || key.getTypeLiteral().getRawType().isAnnotationPresent(
+              InitializeSynchronously.class))) {
         PrettyPrinter.log(logger, TreeLogger.DEBUG,
             "ROOT -> %s:%s [eager singleton: %s]", bindings, key, binding);
 
-        traceKey(key, bindings);
+        trace.addRoot(key, "eager singleton");
+        traceKey(key, bindings, trace);
       }
     }
 
     for (GinjectorBindings child : bindings.getChildren()) {
-      doTraceEagerSingletons(child);
+      doTraceEagerSingletons(child, trace, synchronousOnly);
     }
   }
 
@@ -188,21 +250,22 @@ final class ReachabilityAnalyzer {
    * Traces out bindings that are reachable from statically injected fields and
    * methods.
    */
-  private void traceStaticInjections() {
-    doTraceStaticInjections(rootBindings);
+  private void traceStaticInjections(Trace trace) {
+    doTraceStaticInjections(rootBindings, trace);
   }
 
-  private void doTraceStaticInjections(GinjectorBindings bindings) {
+  private void doTraceStaticInjections(GinjectorBindings bindings, Trace trace) {
     for (Class<?> klass : bindings.getStaticInjectionRequests()) {
-      traceStaticInjectionsFor(klass, bindings);
+      traceStaticInjectionsFor(klass, bindings, trace);
     }
 
     for (GinjectorBindings child : bindings.getChildren()) {
-      doTraceStaticInjections(child);
+      doTraceStaticInjections(child, trace);
     }
   }
 
-  private void traceStaticInjectionsFor(Class<?> klass, GinjectorBindings bindings) {
+  private void traceStaticInjectionsFor(Class<?> klass, GinjectorBindings bindings,
+      Trace trace) {
     TypeLiteral<?> type = TypeLiteral.get(klass);
     for (InjectionPoint injectionPoint : InjectionPoint.forStaticMethodsAndFields(klass)) {
       Member member = injectionPoint.getMember();
@@ -216,7 +279,8 @@ final class ReachabilityAnalyzer {
           PrettyPrinter.log(logger, TreeLogger.DEBUG, "ROOT -> %s:%s [static injection: %s]",
               bindings, key, method);
 
-          traceKey(key, bindings);
+          trace.addRoot(key, method);
+          traceKey(key, bindings, trace);
         }
       } else if (member instanceof Field) {
         Field fieldRaw = (Field) member;
@@ -227,7 +291,8 @@ final class ReachabilityAnalyzer {
         PrettyPrinter.log(logger, TreeLogger.DEBUG, "ROOT -> %s:%s [static injection: %s]",
             bindings, key, field);
 
-        traceKey(key, bindings);
+        trace.addRoot(key, field);
+        traceKey(key, bindings, trace);
       }
     }
   }
@@ -236,24 +301,33 @@ final class ReachabilityAnalyzer {
    * Marks the binding of the given key in the given {@link GinjectorBindings}
    * as reachable, and traces out its dependencies.
    */
-  private void traceKey(Key<?> key, GinjectorBindings bindings) {
+  private void traceKey(Key<?> key, GinjectorBindings bindings, Trace trace) {
     Binding binding = bindings.getBinding(key);
     // Make sure the binding is present: optional bindings might be missing.
     if (binding != null) {
-      if (!reachable.add(binding)) {
+      if (trace.bindings.containsKey(binding)) {
         // The binding was already marked as reachable.
         return;
       }
 
-      getReachableMemberInjects(bindings).addAll(binding.getMemberInjectRequests());
+      trace.bindings.put(binding, key);
+
+      trace.getMemberInjects(bindings).addAll(binding.getMemberInjectRequests());
+
+      if (binding instanceof AsyncProviderBinding && trace.traversal != Traversal.ALL) {
+        // The target is only loaded once the split point has been reached.
+        return;
+      }
 
       for (Dependency dependency : binding.getDependencies()) {
-        if (dependency.getSource().equals(key)) {
+        if (dependency.getSource().equals(key)
+            && (!dependency.isLazy() || trace.traversal != Traversal.EAGER)) {
           Key<?> target = dependency.getTarget();
 
           PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [%s]",
               bindings, key, bindings, dependency.getTarget(), binding);
-          traceKey(target, bindings);
+          trace.addEdge(dependency);
+          traceKey(target, bindings, trace);
         }
       }
 
@@ -264,23 +338,66 @@ final class ReachabilityAnalyzer {
         ParentBinding parentBinding = (ParentBinding) binding;
         PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [inherited]",
             bindings, key, parentBinding.getParentBindings(), key);
-        traceKey(key, parentBinding.getParentBindings());
+        traceKey(key, parentBinding.getParentBindings(), trace);
       } else if (binding instanceof ExposedChildBinding) {
         ExposedChildBinding exposedChildBinding = (ExposedChildBinding) binding;
         PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [exposed]",
             bindings, key, exposedChildBinding.getChildBindings(), key);
-        traceKey(key, exposedChildBinding.getChildBindings());
+        traceKey(key, exposedChildBinding.getChildBindings(), trace);
       }
     }
   }
 
-  private Set<TypeLiteral<?>> getReachableMemberInjects(GinjectorBindings bindings) {
-    Set<TypeLiteral<?>> result = reachableMemberInjects.get(bindings);
-    if (result == null) {
-      result = new LinkedHashSet<TypeLiteral<?>>();
-      reachableMemberInjects.put(bindings, result);
+  /**
+   * The dependencies followed by a traversal of the binding graph.
+   */
+  private enum Traversal {
+    /** Follows all dependencies. */
+    ALL,
+
+    /** Follows all dependencies except those of {@code AsyncProvider}s. */
+    SYNCHRONOUS,
+
+    /** Follows only dependencies that are not lazy. */
+    EAGER
+  }
+
+  /**
+   * The state of a single traversal of the binding graph.
+   */
+  private static final class Trace {
+    final Map<Binding, Key<?>> bindings = new LinkedHashMap<Binding, Key<?>>();
+    final Map<GinjectorBindings, Set<TypeLiteral<?>>> memberInjects =
+        new LinkedHashMap<GinjectorBindings, Set<TypeLiteral<?>>>();
+
+    final Traversal traversal;
+
+    /** Receives the followed dependencies, may be {@code null}. */
+    final DependencyGraph.Builder edges;
+
+    Trace(Traversal traversal, DependencyGraph.Builder edges) {
+      this.traversal = traversal;
+      this.edges = edges;
+    }
+
+    void addRoot(Key<?> key, Object context) {
+      addEdge(new Dependency(Dependency.GINJECTOR, key, "%s", context));
+    }
+
+    void addEdge(Dependency dependency) {
+      if (edges != null) {
+        edges.addEdge(dependency);
+      }
     }
 
-    return result;
+    Set<TypeLiteral<?>> getMemberInjects(GinjectorBindings bindings) {
+      Set<TypeLiteral<?>> result = memberInjects.get(bindings);
+      if (result == null) {
+        result = new LinkedHashSet<TypeLiteral<?>>();
+        memberInjects.put(bindings, result);
+      }
+
+      return result;
+    }
   }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.RootBindings;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.resolution.DependencyGraph;
+import com.google.gwt.inject.rebind.resolution.PathFinder;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds {@code AsyncProvider}s that don't actually split the code they
+ * provide.
+ *
+ * <p>An {@code AsyncProvider<T>} only removes {@code T} from the initial
+ * download if nothing reaches {@code T} (or any binding that {@code T}
+ * depends on) without going through a split point.  A single stray
+ * {@code @Inject T} elsewhere silently moves {@code T} back into the initial
+ * fragment.  Each such leak is reported as a warning, or as an error if
+ * {@link GinProperties#STRICT_SPLIT_POINTS} is set, together with the
+ * shortest synchronous path that reaches the leaked binding.
+ *
+ * <p>Paths are computed on a graph whose nodes are keys, so a path may pass
+ * from one injector in the hierarchy to another where both bind the same key.
+ */
+final class SplitPointLeakDetector {
+
+  private final ReachabilityAnalyzer reachabilityAnalyzer;
+  private final ErrorManager errorManager;
+  private final TreeLogger logger;
+  private final GinjectorBindings rootBindings;
+  private final boolean strict;
+
+  @Inject
+  SplitPointLeakDetector(ReachabilityAnalyzer reachabilityAnalyzer, ErrorManager errorManager,
+      TreeLogger logger, @RootBindings GinjectorBindings rootBindings, GinProperties properties) {
+    this.reachabilityAnalyzer = reachabilityAnalyzer;
+    this.errorManager = errorManager;
+    this.logger = logger;
+    this.rootBindings = rootBindings;
+    this.strict = properties.getBoolean(GinProperties.STRICT_SPLIT_POINTS, false);
+  }
+
+  /**
+   * Reports every reachable {@code AsyncProvider} whose target graph is also
+   * reachable synchronously.
+   *
+   * @throws UnableToCompleteException if a leak was found in strict mode
+   */
+  void check() throws UnableToCompleteException {
+    DependencyGraph.Builder edges = new DependencyGraph.Builder(rootBindings);
+    Set<Binding> synchronouslyReachable = reachabilityAnalyzer.getSynchronouslyReachable(edges);
+
+    // Build the graph lazily: most ginjectors have no leaks.
+    DependencyGraph graph = null;
+    for (GinjectorBindings bindings
+         : getAllBindings(rootBindings, new ArrayList<GinjectorBindings>())) {
+      for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+        if (!(entry.getValue() instanceof AsyncProviderBinding)
+            || !reachabilityAnalyzer.isReachable(entry.getValue())) {
+          continue;
+        }
+
+        List<Key<?>> leakedKeys = new ArrayList<Key<?>>();
+        for (Dependency dependency : entry.getValue().getDependencies()) {
+          for (Map.Entry<Binding, Key<?>> target : reachabilityAnalyzer
+              .getSynchronouslyReachable(dependency.getTarget(), bindings).entrySet()) {
+            if (synchronouslyReachable.contains(target.getKey())) {
+              leakedKeys.add(target.getValue());
+            }
+          }
+        }
+
+        if (!leakedKeys.isEmpty()) {
+          if (graph == null) {
+            graph = edges.build();
+          }
+
+          reportLeak(entry.getKey(), leakedKeys, graph);
+        }
+      }
+    }
+
+    errorManager.checkForError();
+  }
+
+  private void reportLeak(Key<?> asyncProviderKey, List<Key<?>> leakedKeys,
+      DependencyGraph graph) {
+    List<Dependency> path = new PathFinder()
+        .onGraph(graph)
+        .addRoots(Dependency.GINJECTOR)
+        .addDestinations(leakedKeys.toArray(new Key<?>[leakedKeys.size()]))
+        .findShortestPath();
+
+    String message = "%s does not introduce a split point: %d of the bindings it loads are also"
+        + " reachable without it, and so are part of the initial download.  Consider injecting"
+        + " the AsyncProvider in their place.%n  Synchronous path:%n%s";
+    if (strict) {
+      errorManager.logError(message, asyncProviderKey, leakedKeys.size(), path);
+    } else {
+      PrettyPrinter.log(logger, TreeLogger.WARN, message, asyncProviderKey, leakedKeys.size(),
+          path);
+    }
+  }
+
+  private static List<GinjectorBindings> getAllBindings(GinjectorBindings bindings,
+      List<GinjectorBindings> result) {
+    result.add(bindings);
+    for (GinjectorBindings child : bindings.getChildren()) {
+      getAllBindings(child, result);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.EmittedArtifact.Visibility;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.RootBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.resolution.DependencyGraph;
+import com.google.gwt.inject.rebind.resolution.PathFinder;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the work done while a ginjector is constructed.
+ *
+ * <p>Everything that runs inside the constructor of the generated ginjector
+ * adds to the application's startup latency: static injections, eager
+ * singletons (if {@link GinProperties#DEFER_EAGER_SINGLETONS} is set, only
+ * those annotated with
+ * {@link com.google.gwt.inject.client.InitializeSynchronously}) and everything
+ * they depend on through non-lazy dependencies.
+ *
+ * <p>If {@link GinProperties#STARTUP_REPORT} is set, the bindings created at
+ * startup are written to a private generator artifact named
+ * {@code gin/startup/<ginjector>.txt}, each with the shortest dependency path
+ * from the eager root that pulls it in.  If
+ * {@link GinProperties#STARTUP_MAX_BINDINGS} is set, generation fails when more
+ * bindings than that are created at startup.
+ */
+final class StartupReporter {
+
+  private final ReachabilityAnalyzer reachabilityAnalyzer;
+  private final ErrorManager errorManager;
+  private final GeneratorContext ctx;
+  private final TreeLogger logger;
+  private final GinjectorBindings rootBindings;
+  private final boolean eagerSingletonsDeferred;
+  private final boolean writeReport;
+  private final int maxBindings;
+
+  @Inject
+  StartupReporter(ReachabilityAnalyzer reachabilityAnalyzer, ErrorManager errorManager,
+      GeneratorContext ctx, TreeLogger logger, @RootBindings GinjectorBindings rootBindings,
+      GinProperties properties) {
+    this.reachabilityAnalyzer = reachabilityAnalyzer;
+    this.errorManager = errorManager;
+    this.ctx = ctx;
+    this.logger = logger;
+    this.rootBindings = rootBindings;
+    this.eagerSingletonsDeferred =
+        properties.getBoolean(GinProperties.DEFER_EAGER_SINGLETONS, false);
+    this.writeReport = properties.getBoolean(GinProperties.STARTUP_REPORT, false);
+    this.maxBindings = properties.getInteger(GinProperties.STARTUP_MAX_BINDINGS, -1);
+  }
+
+  /**
+   * Writes the startup report, if enabled, and checks the startup budget.
+   *
+   * @throws UnableToCompleteException if the startup budget is exceeded
+   */
+  void report() throws UnableToCompleteException {
+    if (!writeReport && maxBindings < 0) {
+      return;
+    }
+
+    DependencyGraph.Builder edges = new DependencyGraph.Builder(rootBindings);
+    Map<Binding, Key<?>> createdAtStartup =
+        reachabilityAnalyzer.getCreatedAtStartup(eagerSingletonsDeferred, edges);
+
+    if (writeReport) {
+      writeReport(createdAtStartup, edges.build());
+    }
+
+    if (maxBindings >= 0 && createdAtStartup.size() > maxBindings) {
+      errorManager.logError("%s creates %d bindings at startup, more than the %d allowed by %s.",
+          rootBindings.getGinjectorInterface(), createdAtStartup.size(), maxBindings,
+          GinProperties.STARTUP_MAX_BINDINGS);
+      errorManager.checkForError();
+    }
+  }
+
+  private void writeReport(Map<Binding, Key<?>> createdAtStartup, DependencyGraph graph)
+      throws UnableToCompleteException {
+    String ginjectorName = rootBindings.getGinjectorInterface().getRawType().getName();
+    String path = "gin/startup/" + ginjectorName + ".txt";
+    OutputStream stream = ctx.tryCreateResource(logger, path);
+    if (stream == null) {
+      // Already written for another permutation.
+      return;
+    }
+
+    PrintWriter writer;
+    try {
+      writer = new PrintWriter(new OutputStreamWriter(stream, "UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException("UTF-8 is not supported", e);
+    }
+
+    writer.println(PrettyPrinter.format("Bindings created in the constructor of %s: %d",
+        rootBindings.getGinjectorInterface(), createdAtStartup.size()));
+    for (Key<?> key : createdAtStartup.values()) {
+      List<Dependency> dependencyPath = new PathFinder()
+          .onGraph(graph)
+          .addRoots(Dependency.GINJECTOR)
+          .addDestinations(key)
+          .findShortestPath();
+
+      // The path is printed one dependency per line, starting with the eager
+      // root.
+      writer.println();
+      writer.print(PrettyPrinter.format("%s:%s", key,
+          dependencyPath != null ? dependencyPath : String.format(" (no path found)%n")));
+    }
+    writer.flush();
+
+    ctx.commitResource(logger, stream).setVisibility(Visibility.Private);
+    logger.log(TreeLogger.INFO, "Wrote startup report to " + path);
+  }
+}
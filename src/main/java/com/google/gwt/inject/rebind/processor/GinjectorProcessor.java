@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that validates and indexes the ginjector interfaces of
+ * a compilation at javac time.
+ *
+ * <p>For every interface extending {@code Ginjector}, the processor checks the
+ * modules listed in its {@code @GinModules} annotation (they must be concrete
+ * {@code GinModule} classes with a zero-argument constructor, which the
+ * generator would otherwise only report during the GWT compile) and records
+ * the ginjector's binary name in {@link #INDEX_RESOURCE}.  The index lets
+ * tools find the ginjectors of a compilation without scanning the class path.
+ * Incremental builds only recompile some of the ginjectors, so the entries of
+ * an existing index are kept as long as they still name a ginjector.
+ *
+ * <p>This is not a generation mode: the {@code *Impl} classes are still
+ * generated by {@code GinjectorGenerator} during the GWT compile, since the
+ * generator analyzes modules and types through reflection on loaded classes,
+ * which is not available at javac time.  Enable the processor with
+ * {@code -processor com.google.gwt.inject.rebind.processor.GinjectorProcessor};
+ * like the rest of Gin, it requires Java 6.
+ */
+@SupportedAnnotationTypes("*")
+public class GinjectorProcessor extends AbstractProcessor {
+
+  /**
+   * Class path resource listing the binary names of all ginjector interfaces,
+   * one per line.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/gin/ginjectors";
+
+  private static final String GINJECTOR = "com.google.gwt.inject.client.Ginjector";
+  private static final String GIN_MODULE = "com.google.gwt.inject.client.GinModule";
+  private static final String GIN_MODULES = "com.google.gwt.inject.client.GinModules";
+
+  private final Set<String> ginjectorNames = new LinkedHashSet<String>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement ginjector = processingEnv.getElementUtils().getTypeElement(GINJECTOR);
+    if (ginjector == null) {
+      // Gin is not on the compilation's class path.
+      return false;
+    }
+
+    if (roundEnv.processingOver()) {
+      writeIndex(ginjector);
+      return false;
+    }
+
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+      processType(type, ginjector);
+    }
+
+    // Claim nothing, other processors may be interested in the same types.
+    return false;
+  }
+
+  private void processType(TypeElement type, TypeElement ginjector) {
+    if (type.getKind() == ElementKind.INTERFACE && !type.equals(ginjector)
+        && isSubtype(type.asType(), ginjector)) {
+      ginjectorNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+      checkModules(type);
+    }
+
+    for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+      processType(nested, ginjector);
+    }
+  }
+
+  private void checkModules(TypeElement ginjectorType) {
+    TypeElement ginModule = processingEnv.getElementUtils().getTypeElement(GIN_MODULE);
+
+    for (AnnotationMirror annotation : ginjectorType.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (!annotationType.getQualifiedName().contentEquals(GIN_MODULES)) {
+        continue;
+      }
+
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+          : annotation.getElementValues().entrySet()) {
+        if (!entry.getKey().getSimpleName().contentEquals("value")) {
+          continue;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<? extends AnnotationValue> modules =
+            (List<? extends AnnotationValue>) entry.getValue().getValue();
+        for (AnnotationValue module : modules) {
+          checkModule(ginjectorType, annotation, module, ginModule);
+        }
+      }
+    }
+  }
+
+  private void checkModule(TypeElement ginjectorType, AnnotationMirror annotation,
+      AnnotationValue moduleValue, TypeElement ginModule) {
+    if (!(moduleValue.getValue() instanceof DeclaredType)) {
+      // Unresolvable types are already reported by javac.
+      return;
+    }
+
+    TypeElement module = (TypeElement) ((DeclaredType) moduleValue.getValue()).asElement();
+    if (ginModule != null && !isSubtype(module.asType(), ginModule)) {
+      error(ginjectorType, annotation, moduleValue,
+          "The gin module type [%s] does not inherit from GinModule.", module);
+    } else if (module.getKind() != ElementKind.CLASS
+        || module.getModifiers().contains(Modifier.ABSTRACT)) {
+      error(ginjectorType, annotation, moduleValue,
+          "The gin module type [%s] must be a concrete class.", module);
+    } else if (!hasZeroArgConstructor(module)) {
+      error(ginjectorType, annotation, moduleValue,
+          "The gin module type [%s] must have a zero-argument constructor.", module);
+    }
+  }
+
+  private boolean hasZeroArgConstructor(TypeElement type) {
+    for (ExecutableElement constructor
+        : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isSubtype(TypeMirror type, TypeElement supertype) {
+    return processingEnv.getTypeUtils().isSubtype(
+        processingEnv.getTypeUtils().erasure(type),
+        processingEnv.getTypeUtils().erasure(supertype.asType()));
+  }
+
+  private void error(Element element, AnnotationMirror annotation, AnnotationValue value,
+      String format, Object... args) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args),
+        element, annotation, value);
+  }
+
+  private void writeIndex(TypeElement ginjector) {
+    if (ginjectorNames.isEmpty()) {
+      return;
+    }
+
+    Set<String> names = readIndex(ginjector);
+    names.addAll(ginjectorNames);
+
+    try {
+      FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+          "", INDEX_RESOURCE);
+      Writer writer = index.openWriter();
+      try {
+        for (String name : names) {
+          writer.write(name);
+          writer.write("\n");
+        }
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+          "Unable to write the ginjector index " + INDEX_RESOURCE + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the entries of the index written by an earlier compilation that
+   * still name a ginjector, or an empty set if there is no such index.
+   */
+  private Set<String> readIndex(TypeElement ginjector) {
+    Set<String> names = new LinkedHashSet<String>();
+
+    BufferedReader reader;
+    try {
+      FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT,
+          "", INDEX_RESOURCE);
+      reader = new BufferedReader(index.openReader(true));
+    } catch (IOException e) {
+      // No earlier index.
+      return names;
+    }
+
+    try {
+      for (String name = reader.readLine(); name != null; name = reader.readLine()) {
+        name = name.trim();
+        if (name.length() > 0 && isGinjector(name, ginjector)) {
+          names.add(name);
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+          "Unable to read the ginjector index " + INDEX_RESOURCE + ": " + e.getMessage());
+    } finally {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        // Nothing left to read.
+      }
+    }
+
+    return names;
+  }
+
+  /**
+   * Returns {@code true} if the type with the given binary name exists and is
+   * a ginjector interface.
+   */
+  private boolean isGinjector(String binaryName, TypeElement ginjector) {
+    TypeElement type =
+        processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+    return type != null && type.getKind() == ElementKind.INTERFACE
+        && isSubtype(type.asType(), ginjector);
+  }
+}
@@ -201,6 +201,17 @@ public class ReflectUtil {
     }
   }
 
+  /**
+   * Returns {@code true} if all the type names contained in the given type
+   * literal are public, i.e. if code using the type can be placed in any
+   * package.
+   */
+  public static boolean isVisibleFromAnyPackage(TypeLiteral<?> typeLiteral) {
+    Map<String, Class<?>> packageNames = new LinkedHashMap<String, Class<?>>();
+    getTypePackageNames(typeLiteral.getType(), packageNames);
+    return packageNames.isEmpty();
+  }
+
   /**
    * Visits all the components of a type, collecting a map taking the name of
    * each package in which package-private types are defined to one of the
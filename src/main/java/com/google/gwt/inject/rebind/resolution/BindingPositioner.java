@@ -148,8 +148,8 @@ class BindingPositioner {
     for (Key<?> key : output.getImplicitlyBoundKeys()) {
       GinjectorBindings initialPosition = computeInitialPosition(key);
 
-      PrettyPrinter.log(logger, TreeLogger.DEBUG, PrettyPrinter.format(
-          "Initial highest visible position of %s is %s", key, initialPosition));
+      PrettyPrinter.log(logger, TreeLogger.DEBUG,
+          "Initial highest visible position of %s is %s", key, initialPosition);
 
       positions.put(key, initialPosition);
     }
@@ -172,8 +172,7 @@ class BindingPositioner {
     // to install the binding in the origin.
     if (pinned) {
       PrettyPrinter.log(logger, TreeLogger.DEBUG,
-          PrettyPrinter.format("Forcing %s to be installed in %s due to a pin.", key,
-              initialPosition));
+          "Forcing %s to be installed in %s due to a pin.", key, initialPosition);
       installOverrides.put(key, initialPosition);
     }
 
@@ -60,8 +60,8 @@ public class BindingResolver {
   }
   
   public void resolveBindings(GinjectorBindings origin) {
-    TreeLogger branch = logger.branch(TreeLogger.DEBUG, PrettyPrinter.format(
-        "Resolving bindings for %s", origin));
+    TreeLogger branch =
+        PrettyPrinter.branch(logger, TreeLogger.DEBUG, "Resolving bindings for %s", origin);
 
     // Use providers so that the instances are cleaned up after this method.  This ensures that even
     // though BindingResolver may be held on to (eg, {@link GinjectorBindings}, we won't leak
@@ -18,6 +18,8 @@ package com.google.gwt.inject.rebind.resolution;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.Lazy;
+import com.google.gwt.inject.rebind.GinProperties;
 import com.google.gwt.inject.rebind.binding.BindClassBinding;
 import com.google.gwt.inject.rebind.binding.BindConstantBinding;
 import com.google.gwt.inject.rebind.binding.BindProviderBinding;
@@ -39,6 +41,8 @@ import com.google.inject.assistedinject.Assisted;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import javax.inject.Provider;
 
@@ -67,12 +71,20 @@ public class ImplicitBindingCreator {
   private final BindingFactory bindingFactory;
   private final GeneratorContext generatorContext;
   private final TreeLogger logger;
+  private final GinProperties properties;
+
+  /**
+   * Names of the types listed in {@link GinProperties#SHARED_GWT_CREATE_TYPES},
+   * read on first use.
+   */
+  private Set<String> sharedTypeNames;
 
   @Inject
   public ImplicitBindingCreator(BindingFactory bindingFactory, GeneratorContext generatorContext,
-      @Assisted TreeLogger logger) {
+      GinProperties properties, @Assisted TreeLogger logger) {
     this.bindingFactory = bindingFactory;
     this.generatorContext = generatorContext;
+    this.properties = properties;
     this.logger = logger;
   }
 
@@ -102,6 +114,11 @@ public class ImplicitBindingCreator {
       return bindingFactory.getAsyncProviderBinding(key);
     }
 
+    // 4c. Lazy injections.
+    if (isLazyKey(key)) {
+      return bindingFactory.getLazyBinding(key);
+    }
+
     // 5. Convert constants.
     // Already covered by resolving explicit bindings.
     if (BindConstantBinding.isConstantKey(key)) {
@@ -151,7 +168,10 @@ public class ImplicitBindingCreator {
 
     if (shouldGwtDotCreate(type)) {
       if (RemoteServiceProxyBinding.isRemoteServiceProxy(type)) {
-        return bindingFactory.getRemoteServiceProxyBinding(type);
+        return bindingFactory.getRemoteServiceProxyBinding(type,
+            properties.getBoolean(GinProperties.RPC_BATCHING, false));
+      } else if (isSharedGwtDotCreateType(type.getRawType())) {
+        return bindingFactory.getSharedCallGwtDotCreateBinding(type);
       } else {
         return bindingFactory.getCallGwtDotCreateBinding(type);
       }
@@ -190,6 +210,44 @@ public class ImplicitBindingCreator {
     }
   }
 
+  /**
+   * Returns {@code true} if the given type is a subtype of one of the stateless
+   * types listed in {@link GinProperties#SHARED_GWT_CREATE_TYPES}.
+   *
+   * <p>Types are compared by name so that the listed types don't have to be
+   * loadable by the generator.
+   */
+  private boolean isSharedGwtDotCreateType(Class<?> rawType) {
+    if (sharedTypeNames == null) {
+      sharedTypeNames = new LinkedHashSet<String>();
+      for (String name : properties.getValues(GinProperties.SHARED_GWT_CREATE_TYPES)) {
+        if (name != null && !name.trim().isEmpty()) {
+          sharedTypeNames.add(name.trim());
+        }
+      }
+    }
+
+    return !sharedTypeNames.isEmpty() && isSubtypeOfAny(rawType, sharedTypeNames);
+  }
+
+  private boolean isSubtypeOfAny(Class<?> rawType, Set<String> typeNames) {
+    if (rawType == null) {
+      return false;
+    }
+
+    if (typeNames.contains(rawType.getName())) {
+      return true;
+    }
+
+    for (Class<?> superInterface : rawType.getInterfaces()) {
+      if (isSubtypeOfAny(superInterface, typeNames)) {
+        return true;
+      }
+    }
+
+    return isSubtypeOfAny(rawType.getSuperclass(), typeNames);
+  }
+
   private boolean hasRebindRule(Class<?> rawType) throws BindingCreationException {
     String canonicalName = rawType.getCanonicalName();
     if (canonicalName == null) {
@@ -265,6 +323,12 @@ public class ImplicitBindingCreator {
     ((ParameterizedType) keyType).getRawType() == AsyncProvider.class;
   }
 
+  private boolean isLazyKey(Key<?> key) {
+    Type keyType = key.getTypeLiteral().getType();
+    return keyType instanceof ParameterizedType &&
+    ((ParameterizedType) keyType).getRawType() == Lazy.class;
+  }
+
   private MethodLiteral<?, Constructor<?>> getInjectConstructor(TypeLiteral<?> type)
       throws BindingCreationException {
     Constructor<?>[] constructors = type.getRawType().getDeclaredConstructors();
@@ -15,6 +15,10 @@
  */
 package com.google.gwt.inject.rebind.util;
 
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+
+import java.io.IOException;
+
 /**
  * Common base class for injector methods.
  */
@@ -40,4 +44,13 @@ public abstract class AbstractInjectorMethod implements InjectorMethod {
   public String getPackageName() {
     return packageName;
   }
+
+  /**
+   * Writes the result of {@link #getMethodBody}; methods whose body is
+   * composed of snippets should override this to stream them instead.
+   */
+  public void writeMethodBody(Appendable out, InjectorWriteContext context)
+      throws IOException, NoSourceNameException {
+    out.append(getMethodBody(context));
+  }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import java.io.IOException;
+
+/**
+ * Common base class for source snippets, which writes the result of
+ * {@link #getSource} when the snippet is streamed.  Snippets composed of other
+ * snippets should override {@link #writeTo} to stream their parts instead.
+ */
+public abstract class AbstractSourceSnippet implements SourceSnippet {
+
+  public void writeTo(Appendable out, InjectorWriteContext writeContext) throws IOException {
+    out.append(getSource(writeContext));
+  }
+}
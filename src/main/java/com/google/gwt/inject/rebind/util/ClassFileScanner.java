@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+/**
+ * Answers questions about a class from its class file, without reflecting on
+ * its members.  Reflection resolves the types in the signature of every
+ * declared member, which defines classes that are otherwise never needed;
+ * reading the class file's constant pool defines nothing.
+ *
+ * <p>The class file is read through the class's own class loader, so for
+ * classes defined by the {@code GinBridgeClassLoader} it's the GWT version of
+ * the class.
+ */
+public final class ClassFileScanner {
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  private ClassFileScanner() {
+  }
+
+  /**
+   * Returns the descriptor of the given type as it appears in class files,
+   * such as {@code Lcom/google/inject/Inject;}.
+   */
+  public static String getDescriptor(Class<?> type) {
+    return "L" + type.getName().replace('.', '/') + ";";
+  }
+
+  /**
+   * Returns whether the class file of the given type might refer to any of
+   * the given type descriptors.  An annotation on the class or one of its
+   * members always refers to the descriptor of the annotation type, so if
+   * this returns {@code false} none of the annotations are present.
+   *
+   * <p>Returns {@code true} whenever the class file can't be read or isn't
+   * understood, so callers fall back to reflection.
+   *
+   * @param type the class whose class file is scanned
+   * @param descriptors type descriptors, see {@link #getDescriptor}
+   */
+  public static boolean mayReferTo(Class<?> type, Collection<String> descriptors) {
+    if (type.isArray() || type.isPrimitive()) {
+      return true;
+    }
+
+    String resourceName = type.getName().replace('.', '/') + ".class";
+    ClassLoader classLoader = type.getClassLoader();
+    InputStream stream = classLoader == null
+        ? ClassLoader.getSystemResourceAsStream(resourceName)
+        : classLoader.getResourceAsStream(resourceName);
+    if (stream == null) {
+      return true;
+    }
+
+    try {
+      return constantPoolContains(
+          new DataInputStream(new BufferedInputStream(stream)), descriptors);
+    } catch (IOException e) {
+      return true;
+    } finally {
+      try {
+        stream.close();
+      } catch (IOException e) {
+        // Ignored, we've read what we need.
+      }
+    }
+  }
+
+  private static boolean constantPoolContains(DataInputStream in, Collection<String> strings)
+      throws IOException {
+    if (in.readInt() != 0xCAFEBABE) {
+      return true;
+    }
+
+    in.readUnsignedShort(); // Minor version.
+    in.readUnsignedShort(); // Major version.
+
+    int count = in.readUnsignedShort();
+    for (int i = 1; i < count; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case CONSTANT_UTF8:
+          // Class files use the same modified UTF-8 encoding as readUTF().
+          if (strings.contains(in.readUTF())) {
+            return true;
+          }
+          break;
+
+        case CONSTANT_LONG:
+        case CONSTANT_DOUBLE:
+          // Eight-byte constants take up two entries in the pool.
+          skip(in, 8);
+          i++;
+          break;
+
+        case CONSTANT_INTEGER:
+        case CONSTANT_FLOAT:
+        case CONSTANT_FIELDREF:
+        case CONSTANT_METHODREF:
+        case CONSTANT_INTERFACE_METHODREF:
+        case CONSTANT_NAME_AND_TYPE:
+        case CONSTANT_DYNAMIC:
+        case CONSTANT_INVOKE_DYNAMIC:
+          skip(in, 4);
+          break;
+
+        case CONSTANT_METHOD_HANDLE:
+          skip(in, 3);
+          break;
+
+        case CONSTANT_CLASS:
+        case CONSTANT_STRING:
+        case CONSTANT_METHOD_TYPE:
+        case CONSTANT_MODULE:
+        case CONSTANT_PACKAGE:
+          skip(in, 2);
+          break;
+
+        default:
+          // A newer class file format than we know; don't guess.
+          return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static void skip(DataInputStream in, int bytes) throws IOException {
+    in.readFully(new byte[bytes]);
+  }
+}
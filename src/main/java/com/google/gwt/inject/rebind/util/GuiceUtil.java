@@ -17,6 +17,7 @@
 package com.google.gwt.inject.rebind.util;
 
 import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GeneratorRunScoped;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.Injectable;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
@@ -25,7 +26,6 @@ import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.ProvisionException;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 
 import java.lang.annotation.Annotation;
@@ -41,10 +41,13 @@ import java.util.Set;
  */
 // TODO(schmitt): Figure out how to make this class entirely static (or move
 // hasInject()).
-@Singleton
+@GeneratorRunScoped
 public class GuiceUtil {
   private final MemberCollector memberCollector;
 
+  // Like this class, the interned keys live as long as the generator run.
+  private final Interner interner = new Interner();
+
   @Inject
   public GuiceUtil(@Injectable MemberCollector memberCollector) {
     this.memberCollector = memberCollector;
@@ -87,10 +90,11 @@ public class GuiceUtil {
    * @throws ProvisionException in case of any failure
    */
   private Key<?> getKey(Type type, Annotation bindingAnnotation) throws ProvisionException {
+    TypeLiteral<?> typeLiteral = interner.intern(TypeLiteral.get(type));
     if (bindingAnnotation == null) {
-      return Key.get(type);
+      return interner.intern(Key.get(typeLiteral));
     } else {
-      return Key.get(type, bindingAnnotation);
+      return interner.intern(Key.get(typeLiteral, bindingAnnotation));
     }
   }
 
@@ -17,6 +17,8 @@ package com.google.gwt.inject.rebind.util;
 
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 
+import java.io.IOException;
+
 /**
  * A method that will be written to an injector implementation.
  */
@@ -36,6 +38,13 @@ public interface InjectorMethod {
    */
   String getMethodBody(InjectorWriteContext context) throws NoSourceNameException;
 
+  /**
+   * Writes the body of the method in the given context to {@code out}, without
+   * assembling it into a string first.
+   */
+  void writeMethodBody(Appendable out, InjectorWriteContext context)
+      throws IOException, NoSourceNameException;
+
   /** Get the name of the package in which this method should be created. */
   String getPackageName();
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonicalizes {@link Key}s and {@link TypeLiteral}s, so that the generator
+ * holds a single instance of each rather than one for every binding,
+ * dependency and member that mentions it.
+ *
+ * <p>Each generator run interns through its own instance (see
+ * {@link GuiceUtil}), so runs on different threads don't contend for it and
+ * the instances are released with the run.  Not thread-safe.
+ */
+public final class Interner {
+
+  private final Map<Object, Object> instances = new HashMap<Object, Object>();
+
+  /**
+   * Returns the canonical instance of the given key.
+   */
+  public <T> Key<T> intern(Key<T> key) {
+    return doIntern(key);
+  }
+
+  /**
+   * Returns the canonical instance of the given type literal.
+   */
+  public <T> TypeLiteral<T> intern(TypeLiteral<T> typeLiteral) {
+    return doIntern(typeLiteral);
+  }
+
+  private <T> T doIntern(T value) {
+    Object existing = instances.get(value);
+    if (existing != null) {
+      @SuppressWarnings("unchecked") // Equal to value, so of the same type.
+      T result = (T) existing;
+      return result;
+    }
+
+    instances.put(value, value);
+    return value;
+  }
+}
@@ -22,6 +22,7 @@ import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.inject.Inject;
 import com.google.inject.TypeLiteral;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -169,6 +170,12 @@ public class MemberCollector {
    */
   private FieldFilter fieldFilter;
 
+  /**
+   * Descriptors of the annotations that every collected member carries, or
+   * {@code null} if the filters accept members without annotations.
+   */
+  private Set<String> requiredAnnotationDescriptors;
+
   /**
    * Locking status.  The collector is locked once it started to accumulate
    * members.  No filters can be set on the collector after it has been locked.
@@ -207,6 +214,24 @@ public class MemberCollector {
     this.fieldFilter = filter;
   }
 
+  /**
+   * Declares that the filters of this collector only accept members carrying
+   * one of the given annotations.  Types whose class files don't refer to any
+   * of them are then skipped without reflecting on their members, which
+   * avoids loading every type that appears in their member signatures.  This
+   * method can only be called before members are requested.
+   *
+   * @throws IllegalStateException if called after members have been requested
+   */
+  public void setRequiredAnnotations(Class<? extends Annotation>... annotationTypes)
+      throws IllegalStateException {
+    assertNotLocked();
+    requiredAnnotationDescriptors = new LinkedHashSet<String>();
+    for (Class<? extends Annotation> annotationType : annotationTypes) {
+      requiredAnnotationDescriptors.add(ClassFileScanner.getDescriptor(annotationType));
+    }
+  }
+
   private void assertNotLocked() {
     if (locked) {
       String msg = "A filter can only be set on this collector before members are requested!";
@@ -260,7 +285,10 @@ public class MemberCollector {
   private void accumulateMembers(TypeLiteral<?> typeLiteral,
       Set<MethodLiteral<?, Method>> methodAccu, Set<FieldLiteral<?>> fieldAccu) {
 
-    if (methodFilter != null) {
+    // Only reflect on the declared members if some of them could be accepted.
+    boolean mayAccept = methodMultiMap.containsKey(typeLiteral) || mayDeclareAccepted(typeLiteral);
+
+    if (methodFilter != null && mayAccept) {
       if (methodMultiMap.containsKey(typeLiteral)) {
         for (MethodLiteral<?, Method> method : methodMultiMap.get(typeLiteral)) {
           methodAccu.add(method);
@@ -269,15 +297,15 @@ public class MemberCollector {
         for (MethodLiteral<?, Method> method : getTypeMethods(typeLiteral)) {
           if (methodFilter.accept(method)) {
             methodAccu.add(method);
-            logger.log(TreeLogger.TRACE, String.format("Found method: %s", method));
+            PrettyPrinter.log(logger, TreeLogger.TRACE, "Found method: %s", method);
           } else {
-            logger.log(TreeLogger.DEBUG, String.format("Ignoring method: %s", method));
+            PrettyPrinter.log(logger, TreeLogger.DEBUG, "Ignoring method: %s", method);
           }
         }
       }
     }
 
-    if (fieldFilter != null) {
+    if (fieldFilter != null && mayAccept) {
       if (fieldMultiMap.containsKey(typeLiteral)) {
         for (FieldLiteral<?> field : fieldMultiMap.get(typeLiteral)) {
           fieldAccu.add(field);
@@ -286,9 +314,9 @@ public class MemberCollector {
         for (FieldLiteral<?> field : getTypeFields(typeLiteral)) {
           if (fieldFilter.accept(field)) {
             fieldAccu.add(field);
-            logger.log(TreeLogger.TRACE, String.format("Found field: %s", field));
+            PrettyPrinter.log(logger, TreeLogger.TRACE, "Found field: %s", field);
           } else {
-            logger.log(TreeLogger.DEBUG, String.format("Ignoring field: %s", field));
+            PrettyPrinter.log(logger, TreeLogger.DEBUG, "Ignoring field: %s", field);
           }
         }
       }
@@ -305,6 +333,17 @@ public class MemberCollector {
     }
   }
 
+  private boolean mayDeclareAccepted(TypeLiteral<?> typeLiteral) {
+    if (requiredAnnotationDescriptors == null
+        || ClassFileScanner.mayReferTo(typeLiteral.getRawType(), requiredAnnotationDescriptors)) {
+      return true;
+    }
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG,
+        "Skipping the members of %s, none carry a required annotation", typeLiteral);
+    return false;
+  }
+
   private <T> Iterable<MethodLiteral<T, Method>> getTypeMethods(TypeLiteral<T> typeLiteral) {
     List<MethodLiteral<T, Method>> methods = new ArrayList<MethodLiteral<T, Method>>();
     for (Method method : typeLiteral.getRawType().getDeclaredMethods()) {
@@ -18,6 +18,7 @@ package com.google.gwt.inject.rebind.util;
 
 import static com.google.gwt.inject.rebind.util.SourceWriteUtil.*;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
@@ -31,6 +32,7 @@ import java.util.List;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 
@@ -39,6 +41,13 @@ import com.google.inject.TypeLiteral;
  */
 public class MethodCallUtil {
 
+  private final SharedInvokers sharedInvokers;
+
+  @Inject
+  public MethodCallUtil(SharedInvokers sharedInvokers) {
+    this.sharedInvokers = sharedInvokers;
+  }
+
   /**
    * Creates a constructor injecting method and returns a string that invokes
    * the new method.  The new method returns the constructed object.
@@ -118,7 +127,6 @@ public class MethodCallUtil {
     String returnTypeString = ReflectUtil.getSourceName(returnType);
     boolean returning = !returnType.getRawType().equals(Void.TYPE);
 
-    String invokerMethodName = getInvokerMethodName(method, nameGenerator);
     // The invoker method is placed in the fragment of the package that declares
     // the method, so it has access to the same package-private types as the
     // method declaration.
@@ -142,14 +150,82 @@ public class MethodCallUtil {
       // invokee have limited visibility?  Currently I believe that we'll just
       // generate noncompiling code.
     }
+
+    if (sharedInvokers.isEnabled()) {
+      // Write the invoker as a static method of a class shared with all other
+      // users of this method, and call it directly.
+      String invokerClassName =
+          sharedInvokers.getInvokerClassName(method, hasInvokee, useNativeMethod);
+      sharedInvokers.writeInvokerClass(invokerPackageName, invokerClassName,
+          createInvoker(invokeeName, invokeeTypeName, hasInvokee, useNativeMethod, isThrowing,
+              SharedInvokers.INVOKER_METHOD_NAME, true, invokerPackageName, invokerParamCount,
+              method, returnTypeString, returning, isLongAccess(method)));
+
+      return new InvokerCall(hasInvokee, invokeeName, SharedInvokers.INVOKER_METHOD_NAME,
+          invokerPackageName, invokerPackageName + "." + invokerClassName, invokerParamCount,
+          method, parameterNames);
+    }
+
+    String invokerMethodName = getInvokerMethodName(method, nameGenerator);
     methodsOutput.add(createInvoker(invokeeName, invokeeTypeName, hasInvokee, useNativeMethod,
-        isThrowing, invokerMethodName, invokerPackageName, invokerParamCount, method,
+        isThrowing, invokerMethodName, false, invokerPackageName, invokerParamCount, method,
         returnTypeString, returning, isLongAccess(method)));
 
-    return new InvokerCall(hasInvokee, invokeeName, invokerMethodName, invokerPackageName,
+    return new InvokerCall(hasInvokee, invokeeName, invokerMethodName, invokerPackageName, null,
         invokerParamCount, method, parameterNames);
   }
 
+  /**
+   * Returns a snippet that creates an instance with the passed constructor
+   * directly, as {@code new T(...)} with its parameters injected using getters
+   * as necessary, or {@code null} if that isn't possible from the given
+   * package.  Only constructors that are accessible from the package and
+   * declare no exceptions (which an invoker would rethrow as
+   * {@link com.google.gwt.inject.client.CreationException}) are called
+   * directly; the type to create must be visible from the package as well.
+   *
+   * @param constructor constructor to call
+   * @param typeName source name of the type to create, including its type
+   *     arguments
+   * @param packageName package the returned snippet is written to
+   * @param parameterNames see {@link #createMethodCallWithInjection(
+   *     MethodLiteral, String, String[], NameGenerator, List)}
+   * @return source snippet evaluating to the new instance, or {@code null}
+   */
+  public SourceSnippet createDirectConstructorCall(
+      final MethodLiteral<?, Constructor<?>> constructor, final String typeName,
+      String packageName, final String[] parameterNames) throws NoSourceNameException {
+    boolean accessible = constructor.isPublic()
+        || (!constructor.isPrivate()
+            && ReflectUtil.getUserPackageName(constructor.getDeclaringType()).equals(packageName));
+    if (!accessible || ReflectUtil.isPrivate(constructor.getDeclaringType())
+        || hasCheckedExceptions(constructor)) {
+      return null;
+    }
+
+    // Getters return primitives boxed, so cast them back to select the right
+    // constructor among overloads.
+    final List<String> casts = new ArrayList<String>();
+    for (TypeLiteral<?> parameterType : constructor.getParameterTypes()) {
+      casts.add(parameterType.getRawType().isPrimitive()
+          ? "(" + ReflectUtil.getSourceName(parameterType) + ") " : "");
+    }
+
+    return new AbstractSourceSnippet() {
+      public String getSource(InjectorWriteContext writeContext) {
+        List<String> arguments = new ArrayList<String>();
+        int paramCount = 0;
+        for (Key<?> paramKey : constructor.getParameterKeys()) {
+          arguments.add(casts.get(paramCount) + (parameterNames[paramCount] != null
+              ? parameterNames[paramCount] : writeContext.callGetter(paramKey)));
+          paramCount++;
+        }
+
+        return "new " + typeName + "(" + join(", ", arguments) + ")";
+      }
+    };
+  }
+
   /**
    * Check whether a method needs to have Long access.
    */
@@ -162,22 +238,29 @@ public class MethodCallUtil {
     return result;
   }
 
-  private static final class InvokerCall implements SourceSnippet {
+  private static final class InvokerCall extends AbstractSourceSnippet {
     private final boolean hasInvokee;
     private final String invokeeName;
     private final String invokerMethodName;
     private final String invokerPackageName;
+    private final String invokerClassName;
     private final int invokerParamCount;
     private final MethodLiteral<?, ?> method;
     private final String[] parameterNames;
 
+    /**
+     * @param invokerClassName fully qualified name of the class declaring the
+     *     static invoker method, or {@code null} if the invoker is an injector
+     *     method
+     */
     public InvokerCall(boolean hasInvokee, String invokeeName, String invokerMethodName,
-        String invokerPackageName, int invokerParamCount, MethodLiteral<?, ?> method,
-        String[] parameterNames) {
+        String invokerPackageName, String invokerClassName, int invokerParamCount,
+        MethodLiteral<?, ?> method, String[] parameterNames) {
       this.hasInvokee = hasInvokee;
       this.invokeeName = invokeeName;
       this.invokerMethodName = invokerMethodName;
       this.invokerPackageName = invokerPackageName;
+      this.invokerClassName = invokerClassName;
       this.invokerParamCount = invokerParamCount;
       this.method = method;
       this.parameterNames = parameterNames;
@@ -203,6 +286,11 @@ public class MethodCallUtil {
         paramCount++;
       }
 
+      if (invokerClassName != null) {
+        return invokerClassName + "." + invokerMethodName + "(" + join(", ", invokerCallParams)
+            + ");";
+      }
+
       return writeContext.callMethod(invokerMethodName, invokerPackageName, invokerCallParams)
           + ";";
     }
@@ -213,8 +301,9 @@ public class MethodCallUtil {
    */
   private InjectorMethod createInvoker(String invokeeName, String invokeeTypeName,
       boolean hasInvokee, boolean isNative, boolean isThrowing, String invokerMethodName,
-      String invokerPackageName, int invokerParamCount, MethodLiteral<?, ?> method,
-      String returnTypeString, boolean returning, boolean isLongAccess)
+      boolean isStatic, String invokerPackageName, int invokerParamCount,
+      MethodLiteral<?, ?> method, String returnTypeString, boolean returning,
+      boolean isLongAccess)
       throws NoSourceNameException {
 
     List<String> invokerSignatureParams = new ArrayList<String>(invokerParamCount);
@@ -240,9 +329,9 @@ public class MethodCallUtil {
 
     String annotation = isLongAccess ? "@com.google.gwt.core.client.UnsafeNativeLong " : "";
 
-    String invokerSignature = annotation + "public " + (isNative ? "native " : "")
-        + returnTypeString + " " + invokerMethodName + "(" + join(", ", invokerSignatureParams)
-        + ")";
+    String invokerSignature = annotation + "public " + (isStatic ? "static " : "")
+        + (isNative ? "native " : "") + returnTypeString + " " + invokerMethodName + "("
+        + join(", ", invokerSignatureParams) + ")";
 
     return new InvokerMethod(hasInvokee, invokeeCallParams, invokeeTypeName, invokerPackageName,
         invokerSignature, isNative, isThrowing, method, returning, returnTypeString);
@@ -273,7 +362,18 @@ public class MethodCallUtil {
 
     public String getMethodBody(InjectorWriteContext writeContext) throws NoSourceNameException {
       StringBuilder result = new StringBuilder();
+      try {
+        writeMethodBody(result, writeContext);
+      } catch (IOException e) {
+        throw new AssertionError("StringBuilder does not throw IOException");
+      }
 
+      return result.toString();
+    }
+
+    @Override
+    public void writeMethodBody(Appendable result, InjectorWriteContext writeContext)
+        throws IOException, NoSourceNameException {
       if (isThrowing) {
         result.append("try {\n  ");
       }
@@ -309,8 +409,6 @@ public class MethodCallUtil {
               .append("}");
         }
       }
-
-      return result.toString();
     }
   }
 
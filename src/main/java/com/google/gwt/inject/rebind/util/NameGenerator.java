@@ -83,7 +83,8 @@ public class NameGenerator {
    * Returnst he name of a getter for an injector fragment.
    */
   public String getFragmentGetterMethodName(FragmentPackageName fragmentPackageName) {
-    return "getFragment_" + fragmentPackageName.toString().replace(".", "_");
+    return "getFragment_" + fragmentPackageName.toString().replace(".", "_")
+        + getShardSuffix(fragmentPackageName, "$");
   }
 
   /**
@@ -114,7 +115,7 @@ public class NameGenerator {
     // a file (e.g., ~256 characters).  However, it means that other parts of
     // Gin must reference the fragment using its canonical class name, to avoid
     // ambiguity.
-    return injectorClassName + "_fragment";
+    return injectorClassName + "_fragment" + getShardSuffix(fragmentPackageName, "");
   }
 
   /**
@@ -130,7 +131,29 @@ public class NameGenerator {
    * Computes the field name of a single fragment of an injector.
    */
   public String getFragmentFieldName(FragmentPackageName fragmentPackageName) {
-    return convertToValidMemberName("fieldFragment_" + fragmentPackageName);
+    return convertToValidMemberName("fieldFragment_" + fragmentPackageName
+        + getShardSuffix(fragmentPackageName, "$"));
+  }
+
+  /**
+   * Computes the name of the field in which a fragment stores its reference to
+   * another fragment, which may belong to a different injector.
+   */
+  public String getFragmentReferenceFieldName(String injectorClassName,
+      FragmentPackageName fragmentPackageName) {
+    return convertToValidMemberName("fragment_" + injectorClassName + "_" + fragmentPackageName
+        + getShardSuffix(fragmentPackageName, "$"));
+  }
+
+  /**
+   * Returns the suffix that distinguishes the names belonging to additional
+   * shards of a fragment package; the first shard has no suffix.  Since no
+   * package segment can start with a digit, the separator "$" keeps the names
+   * of shards from colliding with those of other packages.
+   */
+  private String getShardSuffix(FragmentPackageName fragmentPackageName, String separator) {
+    int shard = fragmentPackageName.getShard();
+    return shard == 0 ? "" : separator + shard;
   }
 
   /**
@@ -49,15 +49,34 @@ public final class PrettyPrinter {
 
   /**
    * Log a pretty-printed message if the given log level is active.  The message
-   * is only formatted if it will be logged.
+   * is only formatted if it will be logged; a {@link TraceLogger} also records
+   * it, to be formatted if it is reported later.
    */
   public static void log(TreeLogger logger, TreeLogger.Type type, String formatString,
       Object... args) {
-    if (logger.isLoggable(type)) {
+    if (logger instanceof TraceLogger) {
+      ((TraceLogger) logger).trace(type, formatString, args);
+    } else if (logger.isLoggable(type)) {
       logger.log(type, format(formatString, args));
     }
   }
 
+  /**
+   * Create a branch with a pretty-printed message if the given log level is
+   * active, or return the given logger otherwise.  The message is only
+   * formatted if the branch is created, see {@link #log}.
+   */
+  public static TreeLogger branch(TreeLogger logger, TreeLogger.Type type, String formatString,
+      Object... args) {
+    if (logger instanceof TraceLogger) {
+      return ((TraceLogger) logger).traceBranch(type, formatString, args);
+    } else if (logger.isLoggable(type)) {
+      return logger.branch(type, format(formatString, args));
+    } else {
+      return logger;
+    }
+  }
+
   /**
    * Generate a string based on a format template as {@link String#format}
    * would, using the pretty-printing rules specified in the class
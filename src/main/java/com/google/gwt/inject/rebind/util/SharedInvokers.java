@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GeneratorRunScoped;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
+import com.google.gwt.user.rebind.SourceWriter;
+import com.google.inject.Inject;
+import com.google.inject.TypeLiteral;
+
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Writes invokers that are shared by all ginjectors of a compilation.
+ *
+ * <p>An invoker only depends on the member it invokes, so instead of writing
+ * it into the fragments of every ginjector that needs it, it can be written
+ * once as a static method of its own top-level class.  The class name is
+ * derived from the full signature of the invoked member, so that every
+ * ginjector (and every binding) invoking the same member refers to the same
+ * class, which is only created by the first of them.  The members behind the
+ * names used in a compilation are remembered, and reusing a name for another
+ * member is reported as an error rather than silently calling the wrong
+ * member.
+ *
+ * <p>Only invokers are shared.  Member injection methods and creation code
+ * call the getters of the injector they belong to, so they differ between
+ * ginjectors even where their source text doesn't.
+ *
+ * <p>Enabled by {@link GinProperties#SHARE_INVOKERS}.
+ */
+@GeneratorRunScoped
+public class SharedInvokers {
+
+  /**
+   * Name of the static method in a shared invoker class.
+   */
+  static final String INVOKER_METHOD_NAME = "invoke";
+
+  /**
+   * The signatures of the members behind the invoker class names used so far,
+   * per compilation.  Keyed by the type oracle of the compilation, because
+   * every run sees its own wrapper of the generator context.
+   */
+  private static final Map<TypeOracle, Map<String, String>> SIGNATURES =
+      new WeakHashMap<TypeOracle, Map<String, String>>();
+
+  private final GeneratorContext ctx;
+  private final TreeLogger logger;
+  private final ErrorManager errorManager;
+  private final boolean enabled;
+
+  @Inject
+  public SharedInvokers(GeneratorContext ctx, TreeLogger logger, ErrorManager errorManager,
+      GinProperties properties) {
+    this.ctx = ctx;
+    this.logger = logger;
+    this.errorManager = errorManager;
+    this.enabled = properties.getBoolean(GinProperties.SHARE_INVOKERS, false);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the simple name of the class holding the shared invoker for the
+   * given method.  Logs an error if the name was already used for another
+   * method in this compilation.
+   *
+   * @param method the invoked method or constructor
+   * @param hasInvokee whether the invoker takes the invoked object as its
+   *     first parameter
+   * @param isNative whether the invoker is written in JSNI
+   */
+  String getInvokerClassName(MethodLiteral<?, ?> method, boolean hasInvokee, boolean isNative) {
+    String signature = getSignature(method, hasInvokee, isNative);
+
+    String memberName = method.isConstructor() ? "new" : method.getName();
+    String className = method.getRawDeclaringType().getName();
+    className = (className.substring(className.lastIndexOf('.') + 1) + "_" + memberName
+        + "_GinInvoker_" + digest(signature)).replace('$', '_');
+
+    checkUnique(className, signature);
+    return className;
+  }
+
+  /**
+   * Remembers that the given invoker class name stands for the given
+   * signature in this compilation, and logs an error if it already stood for
+   * another one.
+   */
+  void checkUnique(String className, String signature) {
+    synchronized (SIGNATURES) {
+      TypeOracle typeOracle = ctx.getTypeOracle();
+      Map<String, String> signatures = SIGNATURES.get(typeOracle);
+      if (signatures == null) {
+        signatures = new HashMap<String, String>();
+        SIGNATURES.put(typeOracle, signatures);
+      }
+
+      String previousSignature = signatures.get(className);
+      if (previousSignature == null) {
+        signatures.put(className, signature);
+      } else if (!previousSignature.equals(signature)) {
+        errorManager.logError("Shared invoker class %s is already used for %s, cannot use it"
+            + " for %s", className, previousSignature, signature);
+      }
+    }
+  }
+
+  /**
+   * Returns the full signature of the given member, along with the properties
+   * of its invoker, in a form that identifies the invoker.  Parameter types
+   * are given both as declared (which tells overloads apart) and as seen from
+   * the declaring type (which the invoker's own signature uses).
+   */
+  static String getSignature(MethodLiteral<?, ?> method, boolean hasInvokee, boolean isNative) {
+    StringBuilder signature = new StringBuilder(method.getDeclaringType().toString())
+        .append('#').append(method.isConstructor() ? "<init>" : method.getName()).append('(');
+    String separator = "";
+    for (Type parameterType : method.getRawParameterTypes()) {
+      signature.append(separator).append(parameterType instanceof Class
+          ? ((Class<?>) parameterType).getName() : parameterType.toString());
+      separator = ",";
+    }
+    signature.append(") as (");
+    separator = "";
+    for (TypeLiteral<?> parameterType : method.getParameterTypes()) {
+      signature.append(separator).append(parameterType);
+      separator = ",";
+    }
+    return signature.append(')')
+        .append(hasInvokee ? " with invokee" : "")
+        .append(isNative ? " native" : "")
+        .toString();
+  }
+
+  /**
+   * Returns the first 64 bits of the SHA-1 digest of the given string, in
+   * hexadecimal.
+   */
+  private static String digest(String value) {
+    byte[] bytes;
+    try {
+      bytes = MessageDigest.getInstance("SHA-1").digest(value.getBytes("UTF-8"));
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-1 is always supported");
+    } catch (UnsupportedEncodingException e) {
+      throw new AssertionError("UTF-8 is always supported");
+    }
+
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < 8; i++) {
+      result.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16))
+          .append(Character.forDigit(bytes[i] & 0xf, 16));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Writes the class holding the given invoker, unless an earlier ginjector in
+   * this compilation already did.
+   *
+   * @param packageName the package in which to create the class
+   * @param className the class name, see {@link #getInvokerClassName}
+   * @param invoker the invoker method, which must be static and named
+   *     {@link #INVOKER_METHOD_NAME}
+   */
+  void writeInvokerClass(String packageName, String className, InjectorMethod invoker)
+      throws NoSourceNameException {
+    PrintWriter printWriter = ctx.tryCreate(logger, packageName, className);
+    if (printWriter == null) {
+      // Already written.
+      return;
+    }
+
+    ClassSourceFileComposerFactory composerFactory =
+        new ClassSourceFileComposerFactory(packageName, className);
+    SourceWriter writer = composerFactory.createSourceWriter(ctx, printWriter);
+
+    // Invokers don't refer to the injector, so they don't need a write
+    // context.
+    String body = invoker.getMethodBody(null);
+    if (invoker.isNative()) {
+      writer.println(invoker.getMethodSignature() + " /*-{");
+      writer.indent();
+      writer.println(body);
+      writer.outdent();
+      writer.println("}-*/;");
+    } else {
+      writer.println(invoker.getMethodSignature() + " {");
+      writer.indent();
+      writer.println(body);
+      writer.outdent();
+      writer.println("}");
+    }
+
+    writer.commit(logger);
+  }
+}
@@ -15,12 +15,22 @@
  */
 package com.google.gwt.inject.rebind.util;
 
+import java.io.IOException;
+
 /**
  * A fragment of code that can be written to an injector implementation.
+ *
+ * <p>Implementations should usually extend {@link AbstractSourceSnippet}.
  */
 public interface SourceSnippet {
   /**
    * Format this code for the given write context.
    */
   String getSource(InjectorWriteContext writeContext);
+
+  /**
+   * Writes this code for the given write context to {@code out}, without
+   * assembling it into a string first.
+   */
+  void writeTo(Appendable out, InjectorWriteContext writeContext) throws IOException;
 }
@@ -16,6 +16,7 @@
 
 package com.google.gwt.inject.rebind.util;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,17 +40,30 @@ public class SourceSnippetBuilder {
     return this;
   }
 
+  /**
+   * Returns a snippet that writes the appended snippets in order.  When it is
+   * streamed, each part is written straight to the output rather than being
+   * concatenated first.
+   */
   public SourceSnippet build() {
     final List<SourceSnippet> snippetsCopy = new ArrayList<SourceSnippet>(snippets);
     return new SourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         StringBuilder resultBuilder = new StringBuilder();
-        for (SourceSnippet snippet : snippetsCopy) {
-          resultBuilder.append(snippet.getSource(writeContext));
+        try {
+          writeTo(resultBuilder, writeContext);
+        } catch (IOException e) {
+          throw new AssertionError("StringBuilder does not throw IOException");
         }
 
         return resultBuilder.toString();
       }
+
+      public void writeTo(Appendable out, InjectorWriteContext writeContext) throws IOException {
+        for (SourceSnippet snippet : snippetsCopy) {
+          snippet.writeTo(out, writeContext);
+        }
+      }
     };
   }
 }
@@ -20,6 +20,8 @@ import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 
+import java.io.IOException;
+
 /**
  * Utility class for source snippets.
  */
@@ -33,7 +35,7 @@ public final class SourceSnippets {
    */
   public static SourceSnippet callChildGetter(final GinjectorBindings childBindings,
       final Key<?> key) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callChildGetter(childBindings, key);
       }
@@ -45,7 +47,7 @@ public final class SourceSnippets {
    * in the current {@link GinjectorBindings}.
    */
   public static SourceSnippet callGetter(final Key<?> key) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callGetter(key);
       }
@@ -61,7 +63,7 @@ public final class SourceSnippets {
    *     member-injected
    */
   public static SourceSnippet callMemberInject(final TypeLiteral<?> type, final String input) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callMemberInject(type, input);
       }
@@ -77,7 +79,7 @@ public final class SourceSnippets {
    */
   public static SourceSnippet callMethod(final String methodName, final String fragmentPackageName,
       final Iterable<String> parameters) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callMethod(methodName, fragmentPackageName, parameters);
       }
@@ -90,7 +92,7 @@ public final class SourceSnippets {
    */
   public static SourceSnippet callParentGetter(final Key<?> key,
       final GinjectorBindings parentBindings) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callParentGetter(key, parentBindings);
       }
@@ -102,7 +104,7 @@ public final class SourceSnippets {
    * Ginjector interface.
    */
   public static SourceSnippet callGinjectorInterfaceGetter() {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return writeContext.callGinjectorInterfaceGetter();
       }
@@ -111,7 +113,7 @@ public final class SourceSnippets {
 
   /** Creates a snippet that generates a constant text string. */
   public static SourceSnippet forText(final String text) {
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         return text;
       }
@@ -133,6 +135,12 @@ public final class SourceSnippets {
       public String getMethodBody(InjectorWriteContext writeContext) {
         return body.getSource(writeContext);
       }
+
+      @Override
+      public void writeMethodBody(Appendable out, InjectorWriteContext writeContext)
+          throws IOException {
+        body.writeTo(out, writeContext);
+      }
     };
   }
 }
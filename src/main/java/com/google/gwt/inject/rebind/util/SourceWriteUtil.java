@@ -16,6 +16,7 @@
 
 package com.google.gwt.inject.rebind.util;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -27,6 +28,7 @@ import com.google.gwt.inject.rebind.binding.BindingIndex;
 import com.google.gwt.inject.rebind.binding.Context;
 import com.google.gwt.inject.rebind.binding.Injectable;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
+import com.google.gwt.inject.rebind.reflect.MemberLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
@@ -140,7 +142,7 @@ public class SourceWriteUtil {
         };
     methodsOutput.add(injectionMethod);
 
-    return new SourceSnippet() {
+    return new AbstractSourceSnippet() {
       public String getSource(InjectorWriteContext writeContext) {
         List<String> callParams = new ArrayList<String>();
         if (hasInjectee) {
@@ -201,11 +203,14 @@ public class SourceWriteUtil {
    * <p>Binding contexts may contain newlines; this routine translates those for
    * the SourceWriter to ensure that indents, Javadoc comments, etc are handled
    * properly.
+   *
+   * @return the number of characters of the context that were written
    */
-  public void writeBindingContext(SourceWriter writer, Context context) {
+  public int writeBindingContext(SourceWriter writer, Context context) {
     // Avoid a trailing \n -- the GWT class source file composer will output an
     // ugly extra newline if we do that.
     String text = context.toString();
+    int length = 0;
     boolean first = true;
     for (String line : text.split("\n")) {
       if (first) {
@@ -217,7 +222,9 @@ public class SourceWriteUtil {
       // won't work, since it does the wrong thing in Javadoc.
       writer.print("  ");
       writer.print(line);
+      length += line.length();
     }
+    return length;
   }
 
   /**
@@ -227,13 +234,16 @@ public class SourceWriteUtil {
    *     location, such as "Foo bound at: "
    * @param writer The writer to use in displaying the context.
    * @param bindingContext The context of the binding.
+   * @return the number of characters of the description and context that were
+   *     written
    */
-  public void writeBindingContextJavadoc(SourceWriter writer, Context bindingContext,
+  public int writeBindingContextJavadoc(SourceWriter writer, Context bindingContext,
       String description) {
     writer.beginJavaDocComment();
     writer.println(description);
-    writeBindingContext(writer, bindingContext);
+    int length = description.length() + writeBindingContext(writer, bindingContext);
     writer.endJavaDocComment();
+    return length;
   }
 
   /**
@@ -243,10 +253,12 @@ public class SourceWriteUtil {
    * @param key The bound key.
    * @param writer The writer to use to write this comment.
    * @param bindingContext The context of the binding.
+   * @return the number of characters of the description and context that were
+   *     written
    */
-  public void writeBindingContextJavadoc(SourceWriter writer, Context bindingContext,
+  public int writeBindingContextJavadoc(SourceWriter writer, Context bindingContext,
       Key<?> key) {
-    writeBindingContextJavadoc(writer, bindingContext,
+    return writeBindingContextJavadoc(writer, bindingContext,
         "Binding for " + key.getTypeLiteral() + " declared at:");
   }
 
@@ -285,14 +297,31 @@ public class SourceWriteUtil {
 
   /**
    * Writes the given method to the given source writer.
+   *
+   * @return the length of the method's signature and body, as a measure of
+   *     the size of the generated code
    */
-  public void writeMethod(InjectorMethod method, SourceWriter writer,
+  public int writeMethod(InjectorMethod method, SourceWriter writer,
       InjectorWriteContext writeContext) throws NoSourceNameException {
-    if (method.isNative()) {
-      writeNativeMethod(writer, method.getMethodSignature(), method.getMethodBody(writeContext));
-    } else {
-      writeMethod(writer, method.getMethodSignature(), method.getMethodBody(writeContext));
+    String signature = method.getMethodSignature();
+    writer.println(signature + (method.isNative() ? " /*-{" : " {"));
+    writer.indent();
+
+    // The body is streamed into the writer rather than assembled first; if it
+    // can't be written, the half-written method is never committed because
+    // the error aborts generation.
+    SourceWriterAppendable body = new SourceWriterAppendable(writer);
+    try {
+      method.writeMethodBody(body, writeContext);
+    } catch (IOException e) {
+      throw new AssertionError("SourceWriter does not throw IOException");
     }
+
+    writer.println();
+    writer.outdent();
+    writer.println(method.isNative() ? "}-*/;" : "}");
+    writer.println();
+    return signature.length() + body.getLength();
   }
 
   /**
@@ -313,6 +342,13 @@ public class SourceWriteUtil {
    * Generates all the required injector methods to inject members of the given
    * type, and a standard member-inject method that invokes them.
    *
+   * <p>If the members the type inherits are exactly those injected for its
+   * superclass (see {@link #getMemberInjectionSuperType}), the member-inject
+   * method only injects the members declared by the type itself and delegates
+   * the rest to the superclass's member-inject method, which is then shared by
+   * all of its subclasses.  The caller is responsible for also creating the
+   * member injection of that superclass.
+   *
    * @param type type for which the injection is performed
    * @param nameGenerator the name generator used to create method names
    * @param methodsOutput a list to which the new injection method and all its
@@ -325,12 +361,20 @@ public class SourceWriteUtil {
     String memberInjectMethodSignature = "public void " + memberInjectMethodName + "("
         + ReflectUtil.getSourceName(type) + " injectee)";
 
+    Set<FieldLiteral<?>> fields = getFieldsToInject(type);
+    Set<MethodLiteral<?, Method>> methods = getMethodsToInject(type);
+
     SourceSnippetBuilder sb = new SourceSnippetBuilder();
 
-    sb.append(createFieldInjections(getFieldsToInject(type), "injectee", nameGenerator,
-        methodsOutput));
-    sb.append(createMethodInjections(getMethodsToInject(type), "injectee", nameGenerator,
-        methodsOutput));
+    TypeLiteral<?> superType = getMemberInjectionSuperType(type);
+    if (superType != null) {
+      sb.append(SourceSnippets.callMemberInject(superType, "injectee")).append("\n");
+      fields = getDeclaredMembers(fields, type);
+      methods = getDeclaredMembers(methods, type);
+    }
+
+    sb.append(createFieldInjections(fields, "injectee", nameGenerator, methodsOutput));
+    sb.append(createMethodInjections(methods, "injectee", nameGenerator, methodsOutput));
 
     // Generate the top-level member inject method in the package containing the
     // type we're injecting:
@@ -340,6 +384,77 @@ public class SourceWriteUtil {
     return memberInjectMethodName;
   }
 
+  /**
+   * Returns the superclass whose member-inject method the member-inject method
+   * of the given type delegates to, or {@code null} if it injects all members
+   * itself.
+   *
+   * <p>Delegation is only possible if the superclass can be named in generated
+   * code, has members to inject, and the members of the type that were
+   * inherited from the superclass are exactly the members injected for the
+   * superclass.  The latter fails if, for instance, the type overrides an
+   * injected method of its superclass.
+   */
+  public TypeLiteral<?> getMemberInjectionSuperType(TypeLiteral<?> type) {
+    Class<?> rawSuperType = type.getRawType().getSuperclass();
+    if (rawSuperType == null || rawSuperType == Object.class) {
+      return null;
+    }
+
+    TypeLiteral<?> superType = type.getSupertype(rawSuperType);
+    try {
+      ReflectUtil.getUserPackageName(superType);
+    } catch (IllegalArgumentException e) {
+      // The superclass is private or can't be named from any single package.
+      return null;
+    }
+
+    Set<String> superTypeMembers = getMemberSignatures(getFieldsToInject(superType),
+        getMethodsToInject(superType), null);
+    if (superTypeMembers.isEmpty()) {
+      return null;
+    }
+
+    Set<String> inheritedMembers = getMemberSignatures(getFieldsToInject(type),
+        getMethodsToInject(type), type.getRawType());
+    return superTypeMembers.equals(inheritedMembers) ? superType : null;
+  }
+
+  /**
+   * Returns the members of the given set that are declared by the given type.
+   */
+  private <T extends MemberLiteral<?, ?>> Set<T> getDeclaredMembers(Set<T> members,
+      TypeLiteral<?> type) {
+    Set<T> result = new LinkedHashSet<T>();
+    for (T member : members) {
+      if (member.getRawDeclaringType() == type.getRawType()) {
+        result.add(member);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns signatures identifying the given fields and methods, skipping
+   * members declared by {@code excludedType}, if it is non-null.
+   */
+  private Set<String> getMemberSignatures(Set<FieldLiteral<?>> fields,
+      Set<MethodLiteral<?, Method>> methods, Class<?> excludedType) {
+    Set<String> result = new LinkedHashSet<String>();
+    for (FieldLiteral<?> field : fields) {
+      if (field.getRawDeclaringType() != excludedType) {
+        result.add(field.getRawDeclaringType().getName() + "#" + field.getName());
+      }
+    }
+    for (MethodLiteral<?, Method> method : methods) {
+      if (method.getRawDeclaringType() != excludedType) {
+        result.add(method.getRawDeclaringType().getName() + "#" + method.getName()
+            + method.getRawParameterTypes());
+      }
+    }
+    return result;
+  }
+
   private String getJsniSignature(FieldLiteral<?> field) throws NoSourceNameException {
     StringBuilder signature = new StringBuilder();
     signature.append("@");
@@ -396,6 +511,39 @@ public class SourceWriteUtil {
     return true;
   }
 
+  /**
+   * Adapts a {@link SourceWriter} to {@link Appendable}, counting the
+   * characters written through it.  The writer takes care of indenting each
+   * line, whichever chunks the text arrives in.
+   */
+  private static final class SourceWriterAppendable implements Appendable {
+    private final SourceWriter writer;
+    private int length = 0;
+
+    SourceWriterAppendable(SourceWriter writer) {
+      this.writer = writer;
+    }
+
+    public Appendable append(CharSequence csq) {
+      String text = String.valueOf(csq);
+      writer.print(text);
+      length += text.length();
+      return this;
+    }
+
+    public Appendable append(CharSequence csq, int start, int end) {
+      return append(String.valueOf(csq).substring(start, end));
+    }
+
+    public Appendable append(char c) {
+      return append(String.valueOf(c));
+    }
+
+    int getLength() {
+      return length;
+    }
+  }
+
   /**
    * Factory for {@link SourceWriteUtil}.
    */
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.TreeLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TreeLogger} that keeps the most recent events of a generator run,
+ * so that they can be reported if the run fails.
+ *
+ * <p>Events are forwarded to the wrapped logger as usual, but are also stored
+ * in a bounded ring buffer regardless of their level.  An event stores its
+ * format string and arguments, and is only formatted if the wrapped logger
+ * accepts it or when it is dumped, so keeping the trace is cheap.  The buffer
+ * lives only as long as a generator run, so holding on to the arguments is
+ * fine; lists are copied since callers may change them after logging.
+ */
+public final class TraceLogger extends TreeLogger {
+
+  private final TreeLogger delegate;
+  private final EventBuffer buffer;
+  private final int depth;
+
+  /**
+   * @param capacity the number of events kept, must be positive
+   */
+  public TraceLogger(TreeLogger delegate, int capacity) {
+    this(delegate, new EventBuffer(capacity), 0);
+  }
+
+  private TraceLogger(TreeLogger delegate, EventBuffer buffer, int depth) {
+    this.delegate = delegate;
+    this.buffer = buffer;
+    this.depth = depth;
+  }
+
+  /**
+   * Records an event whose message is formatted as with
+   * {@link PrettyPrinter#format}.
+   */
+  public void trace(Type type, String format, Object... args) {
+    Event event = Event.deferred(type, depth, format, args);
+    buffer.add(event);
+    if (delegate.isLoggable(type)) {
+      delegate.log(type, event.getMessage());
+    }
+  }
+
+  /**
+   * Records an event and returns a logger for nested events, see
+   * {@link #trace}.  The branch is only created in the wrapped logger if it
+   * accepts the given level.
+   */
+  public TraceLogger traceBranch(Type type, String format, Object... args) {
+    Event event = Event.deferred(type, depth, format, args);
+    buffer.add(event);
+    TreeLogger branch =
+        delegate.isLoggable(type) ? delegate.branch(type, event.getMessage()) : delegate;
+    return new TraceLogger(branch, buffer, depth + 1);
+  }
+
+  @Override
+  public TreeLogger branch(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+    buffer.add(Event.formatted(type, depth, msg, caught));
+    return new TraceLogger(delegate.branch(type, msg, caught, helpInfo), buffer, depth + 1);
+  }
+
+  @Override
+  public boolean isLoggable(Type type) {
+    return delegate.isLoggable(type);
+  }
+
+  @Override
+  public void log(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+    buffer.add(Event.formatted(type, depth, msg, caught));
+    delegate.log(type, msg, caught, helpInfo);
+  }
+
+  /**
+   * Logs the recorded events to the given logger, oldest first, in a branch
+   * of their own.  Events that weren't logged before are formatted here.
+   */
+  public void dumpRecentEvents(TreeLogger logger) {
+    Event[] events = buffer.getEvents();
+    TreeLogger branch = logger.branch(TreeLogger.INFO, String.format(
+        "Most recent %d events before the failure:", events.length));
+    for (Event event : events) {
+      StringBuilder message = new StringBuilder();
+      for (int i = 0; i < event.depth; i++) {
+        message.append("  ");
+      }
+      message.append('[').append(event.type).append("] ").append(event.getMessage());
+      branch.log(TreeLogger.INFO, message.toString(), event.caught);
+    }
+  }
+
+  /**
+   * A logged event, whose message is formatted at most once, when first
+   * needed.
+   */
+  private static final class Event {
+    final Type type;
+    final int depth;
+    final Throwable caught;
+    private final String format;
+    private Object[] args;
+    private String message;
+
+    private Event(Type type, int depth, String format, Object[] args, String message,
+        Throwable caught) {
+      this.type = type;
+      this.depth = depth;
+      this.format = format;
+      this.args = args;
+      this.message = message;
+      this.caught = caught;
+    }
+
+    static Event formatted(Type type, int depth, String message, Throwable caught) {
+      return new Event(type, depth, null, null, message, caught);
+    }
+
+    static Event deferred(Type type, int depth, String format, Object[] args) {
+      Object[] copy = new Object[args.length];
+      for (int i = 0; i < args.length; i++) {
+        copy[i] = args[i] instanceof List ? new ArrayList<Object>((List<?>) args[i]) : args[i];
+      }
+      return new Event(type, depth, format, copy, null, null);
+    }
+
+    synchronized String getMessage() {
+      if (message == null) {
+        message = PrettyPrinter.format(format, args);
+        args = null;
+      }
+      return message;
+    }
+  }
+
+  /**
+   * A ring buffer holding the most recent events.
+   */
+  private static final class EventBuffer {
+    private final Event[] events;
+    private int next = 0;
+    private int size = 0;
+
+    EventBuffer(int capacity) {
+      events = new Event[capacity];
+    }
+
+    synchronized void add(Event event) {
+      events[next] = event;
+      next = (next + 1) % events.length;
+      size = Math.min(size + 1, events.length);
+    }
+
+    synchronized Event[] getEvents() {
+      Event[] result = new Event[size];
+      int start = (next - size + events.length) % events.length;
+      for (int i = 0; i < size; i++) {
+        result[i] = events[(start + i) % events.length];
+      }
+      return result;
+    }
+  }
+}
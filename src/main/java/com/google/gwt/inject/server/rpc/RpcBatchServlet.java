@@ -0,0 +1,380 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.server.rpc;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Servlet that receives the batches of GWT-RPC requests sent by
+ * {@code com.google.gwt.inject.client.rpc.BatchingRpcRequestBuilder}, passes
+ * each request to the servlet it was meant for and returns all responses in a
+ * single HTTP response.
+ *
+ * <p>The servlet must be mapped to the batch URL of the request builder, by
+ * default {@code gin.rpcBatch} below the module base URL.  Requests are only
+ * passed to the servlets whose context-relative paths are listed in the
+ * {@value #ALLOWED_PATHS_PARAMETER} init parameter, such as
+ * {@code /app/greet, /app/login}; requests for any other path get the status
+ * 403.  Since the requests are passed on with
+ * {@link RequestDispatcher#include}, the filters and security constraints of
+ * the target servlets don't apply to them, so only list GWT-RPC servlets that
+ * don't rely on these.  Subclasses can override {@link #isAllowedPath} to
+ * decide differently.  A batch that is not well-formed gets the status 400.
+ *
+ * <p>A batch consists of one entry per request: the URL and the length of the
+ * request data on a line each, followed by the data.  The response consists of
+ * one entry per request in the same order: the status code and the length of
+ * the response text on a line each, followed by the text.
+ */
+public class RpcBatchServlet extends HttpServlet {
+
+  /**
+   * Name of the request attribute that holds the number of requests in the
+   * batch a request belongs to.
+   */
+  public static final String BATCH_SIZE_ATTRIBUTE = RpcBatchServlet.class.getName() + ".batchSize";
+
+  /**
+   * Name of the init parameter that lists the context-relative paths of the
+   * servlets that requests may be passed to, separated by commas or
+   * whitespace.
+   */
+  public static final String ALLOWED_PATHS_PARAMETER = "allowedPaths";
+
+  private static final String CHARSET = "UTF-8";
+
+  private final Set<String> allowedPaths = new HashSet<String>();
+
+  @Override
+  public void init() throws ServletException {
+    String paths = getInitParameter(ALLOWED_PATHS_PARAMETER);
+    if (paths != null) {
+      for (String path : paths.trim().split("[,\\s]+")) {
+        if (path.length() > 0) {
+          allowedPaths.add(path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether requests of a batch may be passed to the given
+   * context-relative path.  By default, only the paths listed in the
+   * {@value #ALLOWED_PATHS_PARAMETER} init parameter are allowed.
+   */
+  protected boolean isAllowedPath(String path) {
+    return allowedPaths.contains(path);
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest request, HttpServletResponse response)
+      throws ServletException, IOException {
+    // Parse all entries first, so that every request can see the batch size
+    // and nothing is passed on from a malformed batch.
+    List<Entry> entries = parseEntries(read(request.getReader()));
+    if (entries == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+
+    StringBuilder output = new StringBuilder();
+    for (Entry entry : entries) {
+      BufferedResponse entryResponse = new BufferedResponse(response);
+      String path = getPath(request, entry.url);
+      if (path == null || !isAllowedPath(path)) {
+        entryResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+      } else {
+        RequestDispatcher dispatcher = getServletContext().getRequestDispatcher(path);
+        if (dispatcher == null) {
+          entryResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        } else {
+          EntryRequest entryRequest = new EntryRequest(request, entry.data);
+          entryRequest.setAttribute(BATCH_SIZE_ATTRIBUTE, entries.size());
+          dispatcher.include(entryRequest, entryResponse);
+        }
+      }
+
+      String text = entryResponse.getText();
+      output.append(entryResponse.getStatus()).append('\n')
+          .append(text.length()).append('\n')
+          .append(text);
+    }
+
+    byte[] bytes = output.toString().getBytes(CHARSET);
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType("text/plain; charset=" + CHARSET);
+    response.setContentLength(bytes.length);
+    response.getOutputStream().write(bytes);
+  }
+
+  /**
+   * Returns the entries of the given batch, or {@code null} if it is not
+   * well-formed.
+   */
+  private static List<Entry> parseEntries(String batch) {
+    List<Entry> entries = new ArrayList<Entry>();
+    int offset = 0;
+    while (offset < batch.length()) {
+      int urlStart = offset;
+      int urlEnd = batch.indexOf('\n', urlStart);
+      int lengthEnd = urlEnd == -1 ? -1 : batch.indexOf('\n', urlEnd + 1);
+      if (lengthEnd == -1) {
+        return null;
+      }
+
+      String lengthText = batch.substring(urlEnd + 1, lengthEnd);
+      if (!lengthText.matches("[0-9]{1,9}")) {
+        return null;
+      }
+      int length = Integer.parseInt(lengthText);
+      if (length > batch.length() - lengthEnd - 1) {
+        return null;
+      }
+
+      offset = lengthEnd + 1 + length;
+      entries.add(new Entry(batch.substring(urlStart, urlEnd),
+          batch.substring(lengthEnd + 1, offset)));
+    }
+    return entries;
+  }
+
+  /**
+   * Returns the context-relative path of the given URL, or {@code null} if it
+   * doesn't belong to this web application or is the batch servlet itself.
+   * The path is not normalized, so it only matches an allowed path if the URL
+   * names it literally.
+   */
+  private static String getPath(HttpServletRequest request, String url) {
+    String path;
+    try {
+      path = new URI(url).getPath();
+    } catch (URISyntaxException e) {
+      return null;
+    }
+
+    String contextPath = request.getContextPath();
+    if (path == null || !path.startsWith(contextPath + "/")) {
+      return null;
+    }
+    path = path.substring(contextPath.length());
+    return path.equals(request.getServletPath()) ? null : path;
+  }
+
+  private static String read(Reader reader) throws IOException {
+    StringBuilder result = new StringBuilder();
+    char[] buffer = new char[4096];
+    int count;
+    while ((count = reader.read(buffer)) != -1) {
+      result.append(buffer, 0, count);
+    }
+    return result.toString();
+  }
+
+  /**
+   * The URL and data of a request in a batch.
+   */
+  private static final class Entry {
+    final String url;
+    final String data;
+
+    Entry(String url, String data) {
+      this.url = url;
+      this.data = data;
+    }
+  }
+
+  /**
+   * A request of a batch.  Looks like the batch request, except for its data.
+   */
+  private static final class EntryRequest extends HttpServletRequestWrapper {
+
+    private final byte[] data;
+
+    EntryRequest(HttpServletRequest request, String data) throws UnsupportedEncodingException {
+      super(request);
+      this.data = data.getBytes(CHARSET);
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+      return CHARSET;
+    }
+
+    @Override
+    public int getContentLength() {
+      return data.length;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      final ByteArrayInputStream input = new ByteArrayInputStream(data);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return input.read();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+      return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), CHARSET));
+    }
+
+    // The batch response is not compressed per request, so the servlets
+    // must not compress their responses either.
+
+    @Override
+    public String getHeader(String name) {
+      return "Accept-Encoding".equalsIgnoreCase(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Enumeration getHeaders(String name) {
+      return "Accept-Encoding".equalsIgnoreCase(name)
+          ? Collections.enumeration(Collections.emptyList()) : super.getHeaders(name);
+    }
+  }
+
+  /**
+   * A response of a batch, whose status and text are kept in memory.
+   */
+  private static final class BufferedResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private PrintWriter writer;
+    private int status = SC_OK;
+
+    BufferedResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    String getText() throws UnsupportedEncodingException {
+      if (writer != null) {
+        writer.flush();
+      }
+      return new String(bytes.toByteArray(), CHARSET);
+    }
+
+    int getStatus() {
+      return status;
+    }
+
+    @Override
+    public void setStatus(int status) {
+      this.status = status;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setStatus(int status, String message) {
+      this.status = status;
+    }
+
+    @Override
+    public void sendError(int status) {
+      this.status = status;
+    }
+
+    @Override
+    public void sendError(int status, String message) throws IOException {
+      this.status = status;
+      getWriter().print(message);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+          bytes.write(b);
+        }
+      };
+    }
+
+    @Override
+    public PrintWriter getWriter() throws UnsupportedEncodingException {
+      if (writer == null) {
+        writer = new PrintWriter(new OutputStreamWriter(bytes, CHARSET));
+      }
+      return writer;
+    }
+
+    // Headers, content type and length only describe the batch response.
+
+    @Override
+    public void setHeader(String name, String value) {}
+
+    @Override
+    public void addHeader(String name, String value) {}
+
+    @Override
+    public void setContentType(String type) {}
+
+    @Override
+    public void setContentLength(int length) {}
+
+    @Override
+    public void setCharacterEncoding(String charset) {}
+
+    @Override
+    public void flushBuffer() {}
+
+    @Override
+    public void reset() {
+      resetBuffer();
+      status = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() {
+      bytes.reset();
+    }
+
+    @Override
+    public boolean isCommitted() {
+      return false;
+    }
+  }
+}
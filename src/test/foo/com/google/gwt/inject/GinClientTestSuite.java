@@ -25,6 +25,7 @@ import com.google.gwt.inject.client.binding.EagerBindingTest;
 import com.google.gwt.inject.client.binding.GinjectorBindingTest;
 import com.google.gwt.inject.client.binding.InjectMembersTest;
 import com.google.gwt.inject.client.configurationmodules.ConfigurationModulesTest;
+import com.google.gwt.inject.client.eager.DeferredEagerSingletonTest;
 import com.google.gwt.inject.client.eager.EagerSingletonTest;
 import com.google.gwt.inject.client.field.FieldInjectTest;
 import com.google.gwt.inject.client.generics.GenericsTest;
@@ -35,6 +36,7 @@ import com.google.gwt.inject.client.gwtdotcreate.GwtDotCreateInjectTest;
 import com.google.gwt.inject.client.hierarchical.HierarchicalTest;
 import com.google.gwt.inject.client.implicit.AsyncProviderTest;
 import com.google.gwt.inject.client.implicit.ImplicitBindingTest;
+import com.google.gwt.inject.client.implicit.LazyTest;
 import com.google.gwt.inject.client.injectionorder.InjectionOrderTest;
 import com.google.gwt.inject.client.installduplicate.InstallDuplicateTest;
 import com.google.gwt.inject.client.jsr330.Jsr330Test;
@@ -56,7 +58,9 @@ import com.google.gwt.inject.client.privatemanylevel.PrivateManyLevelTest;
 import com.google.gwt.inject.client.privatepinned.PrivatePinnedTest;
 import com.google.gwt.inject.client.provider.ProviderTest;
 import com.google.gwt.inject.client.providermethods.ProviderMethodsTest;
+import com.google.gwt.inject.client.rpcbatch.RpcBatchingTest;
 import com.google.gwt.inject.client.scopedimplicit.ScopedImplicitTest;
+import com.google.gwt.inject.client.stats.GinjectorStatsTest;
 import com.google.gwt.inject.generated.client.GeneratorTest;
 import com.google.gwt.inject.superclient.supersource.SuperSourceTest;
 import com.google.gwt.junit.tools.GWTTestSuite;
@@ -90,8 +94,10 @@ public class GinClientTestSuite {
     suite.addTestSuite(GinjectorBindingTest.class);
     suite.addTestSuite(EagerBindingTest.class);
     suite.addTestSuite(EagerSingletonTest.class);
+    suite.addTestSuite(DeferredEagerSingletonTest.class);
     suite.addTestSuite(ImplicitBindingTest.class);
     suite.addTestSuite(AsyncProviderTest.class);
+    suite.addTestSuite(LazyTest.class);
     suite.addTestSuite(ProviderTest.class);
     suite.addTestSuite(InjectMembersTest.class);
     suite.addTestSuite(Jsr330Test.class);
@@ -113,6 +119,8 @@ public class GinClientTestSuite {
     suite.addTestSuite(PrivateEagerSingletonInstantiationTest.class);
     suite.addTestSuite(PrivatePinnedTest.class);
     // suite.addTestSuite(PrivateDoubleBindsTest.class);
+    suite.addTestSuite(RpcBatchingTest.class);
+    suite.addTestSuite(GinjectorStatsTest.class);
     suite.addTestSuite(GeneratorTest.class);
     suite.addTestSuite(SuperSourceTest.class);
     suite.addTestSuite(GinMultibinderTest.class);
@@ -53,6 +53,12 @@ public class CarFactoryTest extends GWTTestCase {
     assertEquals(300, redCamaro.horsePower);
   }
 
+  public void testFactoryIsShared() {
+    CarFactoryGinjector ginjector = GWT.create(CarFactoryGinjector.class);
+
+    assertSame(ginjector.getCamaroFactory(), ginjector.getCamaroFactory());
+  }
+
   public void testSelectInjectConstructor() {
     CarFactoryGinjector ginjector = GWT.create(CarFactoryGinjector.class);
 
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client.eager;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.InitializeSynchronously;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests eager singletons with the {@code gin.eagerSingletons.deferred}
+ * configuration property set.
+ */
+public class DeferredEagerSingletonTest extends GWTTestCase {
+
+  private static final int TIMEOUT_MILLIS = 5000;
+
+  static final List<String> created = new ArrayList<String>();
+
+  @Override
+  protected void gwtSetUp() throws Exception {
+    created.clear();
+  }
+
+  public void testSynchronousSingletonCreatedEagerly() {
+    GWT.create(DeferredGinjector.class);
+
+    assertEquals(Arrays.asList("Startup"), created);
+
+    // Let the scheduled commands finish so that they don't run during the
+    // next test.
+    delayTestFinish(TIMEOUT_MILLIS);
+    awaitDeferredSingletons(new Runnable() {
+      public void run() {
+        finishTest();
+      }
+    });
+  }
+
+  public void testDeferredSingletonsCreatedInDependencyOrder() {
+    GWT.create(DeferredGinjector.class);
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    awaitDeferredSingletons(new Runnable() {
+      public void run() {
+        // Dependent is bound before Independent and Dependency, but has to
+        // wait for the latter to be created.
+        assertEquals(Arrays.asList("Startup", "Dependency", "Dependent", "Independent"), created);
+        finishTest();
+      }
+    });
+  }
+
+  public void testDeferredSingletonCreatedOnDemand() {
+    DeferredGinjector ginjector = GWT.create(DeferredGinjector.class);
+
+    Dependent dependent = ginjector.getDependent();
+    assertEquals(Arrays.asList("Startup", "Dependency", "Dependent"), created);
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    awaitDeferredSingletons(new Runnable() {
+      public void run() {
+        // The scheduled commands must not create a second instance.
+        assertEquals(Arrays.asList("Startup", "Dependency", "Dependent", "Independent"), created);
+        finishTest();
+      }
+    });
+  }
+
+  /**
+   * Polls until every eager singleton has been created, then runs the given
+   * assertions.
+   */
+  private void awaitDeferredSingletons(final Runnable assertions) {
+    Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+      public boolean execute() {
+        if (created.size() < 4) {
+          return true;
+        }
+        assertions.run();
+        return false;
+      }
+    }, 10);
+  }
+
+  @GinModules(DeferredGinModule.class)
+  interface DeferredGinjector extends Ginjector {
+    Dependent getDependent();
+  }
+
+  static class DeferredGinModule extends AbstractGinModule {
+    protected void configure() {
+      bind(Dependent.class).asEagerSingleton();
+      bind(Startup.class).asEagerSingleton();
+      bind(Dependency.class).asEagerSingleton();
+      bind(Independent.class).asEagerSingleton();
+    }
+  }
+
+  @InitializeSynchronously
+  static class Startup {
+    @Inject
+    Startup() {
+      created.add("Startup");
+    }
+  }
+
+  static class Dependency {
+    @Inject
+    Dependency() {
+      created.add("Dependency");
+    }
+  }
+
+  static class Dependent {
+    @Inject
+    Dependent(Dependency dependency) {
+      created.add("Dependent");
+    }
+  }
+
+  static class Independent {
+    @Inject
+    Independent() {
+      created.add("Independent");
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.inject.client.eager.DeferredEagerSingletonTest";
+  }
+}
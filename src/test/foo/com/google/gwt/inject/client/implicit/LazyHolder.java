@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.implicit;
+
+import com.google.gwt.inject.client.Lazy;
+import com.google.inject.Inject;
+
+public class LazyHolder {
+
+  private final Lazy<FooAsync> lazyFooAsync;
+
+  @Inject
+  public LazyHolder(Lazy<FooAsync> lazyFooAsync) {
+    this.lazyFooAsync = lazyFooAsync;
+  }
+
+  Lazy<FooAsync> getLazyFooAsync() {
+    return lazyFooAsync;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.implicit;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.inject.client.Lazy;
+import com.google.gwt.junit.client.GWTTestCase;
+
+public class LazyTest extends GWTTestCase {
+
+  public void testLazyMemoisesInstance() {
+    LazyGinjector injector = GWT.create(LazyGinjector.class);
+    Lazy<FooAsync> lazy = injector.getFooAsyncLazy();
+    assertNotNull(lazy);
+
+    FooAsync first = lazy.get();
+    assertNotNull(first);
+    assertSame(first, lazy.get());
+  }
+
+  public void testLazyInstancesAreIndependent() {
+    LazyGinjector injector = GWT.create(LazyGinjector.class);
+
+    // FooAsync is unscoped, so every Lazy handle holds its own instance.
+    Lazy<FooAsync> lazy1 = injector.getLazyHolder().getLazyFooAsync();
+    Lazy<FooAsync> lazy2 = injector.getLazyHolder().getLazyFooAsync();
+    assertNotSame(lazy1.get(), lazy2.get());
+  }
+
+  public String getModuleName() {
+    return "com.google.gwt.inject.InjectTest";
+  }
+}
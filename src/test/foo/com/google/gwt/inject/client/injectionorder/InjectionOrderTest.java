@@ -23,6 +23,9 @@ public class InjectionOrderTest extends GWTTestCase {
 
   interface FooGinjector extends Ginjector {
     Foo createFoo();
+    SubFoo createSubFoo();
+    Base createBase();
+    OverridingFoo createOverridingFoo();
   }
 
   public void testInjectionOrder() {
@@ -34,6 +37,26 @@ public class InjectionOrderTest extends GWTTestCase {
     assertNotNull(foo.method);
   }
 
+  public void testSuperclassMembersInjectedFirst() {
+    FooGinjector injector = GWT.create(FooGinjector.class);
+    SubFoo subFoo = injector.createSubFoo();
+    assertNotNull(subFoo.baseField);
+    assertNotNull(subFoo.subMethod);
+    assertEquals(1, subFoo.baseMethodCalls);
+
+    Base base = injector.createBase();
+    assertNotNull(base.baseMethod);
+    assertEquals(1, base.baseMethodCalls);
+  }
+
+  public void testOverriddenMethodNotInjected() {
+    FooGinjector injector = GWT.create(FooGinjector.class);
+    OverridingFoo foo = injector.createOverridingFoo();
+    assertNotNull(foo.baseField);
+    assertNull(foo.baseMethod);
+    assertEquals(0, foo.baseMethodCalls);
+  }
+
   public String getModuleName() {
     return "com.google.gwt.inject.InjectTest";
   }
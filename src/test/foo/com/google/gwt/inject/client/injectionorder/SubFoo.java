@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.injectionorder;
+
+import static junit.framework.Assert.assertNotNull;
+
+import com.google.inject.Inject;
+
+public class SubFoo extends Base {
+
+  @Inject Baz subField;
+  Baz subMethod;
+
+  @Inject
+  public void subMethod(Baz baz) {
+    // Members of the superclass are injected first.
+    assertNotNull(baseField);
+    assertNotNull(baseMethod);
+    assertNotNull(subField);
+    subMethod = baz;
+  }
+}
@@ -55,6 +55,17 @@ public class ProviderMethodsTest extends GWTTestCase {
     assertEquals("8 foo", ginjector.getString());
   }
 
+  public void testProviderMethodsShareModuleInstance() {
+    CountingGinjector ginjector = GWT.create(CountingGinjector.class);
+    int instancesBefore = CountingModule.instances;
+
+    assertEquals("first", ginjector.getFirst());
+    assertEquals("first second", ginjector.getSecond());
+    assertEquals("first second", ginjector.getSecond());
+
+    assertEquals(1, CountingModule.instances - instancesBefore);
+  }
+
   public String getModuleName() {
     return "com.google.gwt.inject.InjectTest";
   }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.rpcbatch;
+
+import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
+
+/**
+ * Service that reports how many requests were sent together with the
+ * request of each call.
+ */
+@RemoteServiceRelativePath("batchTest")
+public interface BatchService extends RemoteService {
+
+  /**
+   * Returns the given name, followed by a slash and the number of requests in
+   * the batch of this call, or 0 if the call wasn't sent in a batch.
+   */
+  String getBatchSize(String name);
+
+  /**
+   * Same as {@link #getBatchSize}; its asynchronous version returns the
+   * request and so is never batched.
+   */
+  String getBatchSizeNow(String name);
+}
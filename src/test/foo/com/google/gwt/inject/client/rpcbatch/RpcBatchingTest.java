@@ -0,0 +1,201 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client.rpcbatch;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.rpc.BatchingRpcRequestBuilder;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.gwt.user.client.rpc.ServiceDefTarget;
+import com.google.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the batching of GWT-RPC calls with the {@code gin.rpc.batching}
+ * configuration property set, against a real proxy and server.
+ */
+public class RpcBatchingTest extends GWTTestCase {
+
+  private static final int TIMEOUT_MILLIS = 10000;
+
+  public void testCallsInSameTurnAreBatched() {
+    BatchServiceAsync service = GWT.<BatchGinjector>create(BatchGinjector.class).getService();
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    ResultCollector collector = new ResultCollector(
+        Arrays.asList("bar/3", "baz/3", "foo/3"));
+    service.getBatchSize("foo", collector);
+    service.getBatchSize("bar", collector);
+    service.getBatchSize("baz", collector);
+  }
+
+  public void testSingleCallIsNotBatched() {
+    BatchServiceAsync service = GWT.<BatchGinjector>create(BatchGinjector.class).getService();
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    service.getBatchSize("foo", new ResultCollector(Arrays.asList("foo/0")));
+  }
+
+  public void testCallReturningRequestIsNotBatched() {
+    BatchServiceAsync service = GWT.<BatchGinjector>create(BatchGinjector.class).getService();
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    ResultCollector collector = new ResultCollector(
+        Arrays.asList("bar/2", "foo/0", "qux/2"));
+    Request request = service.getBatchSizeNow("foo", collector);
+    service.getBatchSize("bar", collector);
+    service.getBatchSize("qux", collector);
+
+    // The request has to exist right away.
+    assertNotNull(request);
+  }
+
+  public void testProxyIsServiceDefTarget() {
+    BatchServiceAsync service = GWT.<BatchGinjector>create(BatchGinjector.class).getService();
+
+    ServiceDefTarget target = (ServiceDefTarget) service;
+    assertTrue(target.getServiceEntryPoint().endsWith("/batchTest"));
+  }
+
+  public void testBatchedRequestCanBeCancelled() {
+    BatchGinjector ginjector = GWT.create(BatchGinjector.class);
+    final BatchServiceAsync service = ginjector.getService();
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    final ResultCollector collector = new ResultCollector(Arrays.asList("bar/2"));
+    ginjector.getBatchingRequestBuilder().defer(new ScheduledCommand() {
+      public void execute() {
+        Request request = service.getBatchSizeNow("foo", new AsyncCallback<String>() {
+          public void onFailure(Throwable caught) {
+            fail("Cancelled call failed: " + caught);
+          }
+
+          public void onSuccess(String result) {
+            fail("Cancelled call succeeded: " + result);
+          }
+        });
+        assertTrue(request.isPending());
+        request.cancel();
+        assertFalse(request.isPending());
+      }
+    });
+    service.getBatchSize("bar", collector);
+  }
+
+  public void testMalformedBatchResponseFailsAllCalls() {
+    BatchServiceAsync service =
+        GWT.<MalformedBatchGinjector>create(MalformedBatchGinjector.class).getService();
+
+    delayTestFinish(TIMEOUT_MILLIS);
+    FailureCollector collector = new FailureCollector(2);
+    service.getBatchSize("foo", collector);
+    service.getBatchSize("bar", collector);
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.inject.client.rpcbatch.RpcBatchingTest";
+  }
+
+  /**
+   * Collects the results of the expected calls and finishes the test
+   * once they are all in.
+   */
+  private class ResultCollector implements AsyncCallback<String> {
+
+    private final List<String> expectedResults;
+    private final List<String> results = new ArrayList<String>();
+
+    ResultCollector(List<String> expectedResults) {
+      this.expectedResults = expectedResults;
+    }
+
+    public void onFailure(Throwable caught) {
+      fail(caught.toString());
+    }
+
+    public void onSuccess(String result) {
+      results.add(result);
+      if (results.size() == expectedResults.size()) {
+        // Batched responses arrive in order, but direct ones may overtake them.
+        Collections.sort(results);
+        assertEquals(expectedResults, results);
+        finishTest();
+      }
+    }
+  }
+
+  /**
+   * Finishes the test once the expected number of calls have failed.
+   */
+  private class FailureCollector implements AsyncCallback<String> {
+
+    private int remainingFailures;
+
+    FailureCollector(int expectedFailures) {
+      remainingFailures = expectedFailures;
+    }
+
+    public void onFailure(Throwable caught) {
+      if (--remainingFailures == 0) {
+        finishTest();
+      }
+    }
+
+    public void onSuccess(String result) {
+      fail("Call succeeded despite malformed batch response: " + result);
+    }
+  }
+
+  public interface BatchGinjector extends Ginjector {
+    BatchServiceAsync getService();
+
+    BatchingRpcRequestBuilder getBatchingRequestBuilder();
+  }
+
+  @GinModules(MalformedBatchModule.class)
+  public interface MalformedBatchGinjector extends Ginjector {
+    BatchServiceAsync getService();
+  }
+
+  public static class MalformedBatchModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      bind(BatchingRpcRequestBuilder.class).to(MalformedBatchRequestBuilder.class)
+          .in(Singleton.class);
+    }
+  }
+
+  /**
+   * Posts batches to a servlet that answers them with a malformed response.
+   */
+  public static class MalformedBatchRequestBuilder extends BatchingRpcRequestBuilder {
+    @Override
+    protected String getBatchUrl() {
+      return GWT.getModuleBaseURL() + "malformedBatch";
+    }
+  }
+}
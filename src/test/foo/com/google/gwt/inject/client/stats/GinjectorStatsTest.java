@@ -0,0 +1,147 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.client.stats;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.GinjectorStats;
+import com.google.gwt.inject.client.PrivateGinModule;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.inject.Singleton;
+
+import java.util.Map;
+
+/**
+ * Tests the provisioning statistics of ginjectors generated with the
+ * {@code gin.stats.enabled} configuration property set.
+ */
+public class GinjectorStatsTest extends GWTTestCase {
+
+  public void testImplementsGinjectorStats() {
+    assertTrue(GWT.create(StatsGinjector.class) instanceof GinjectorStats);
+  }
+
+  public void testCountsProvisions() {
+    StatsGinjector ginjector = GWT.create(StatsGinjector.class);
+    ginjector.getUnscoped();
+    ginjector.getUnscoped();
+    ginjector.getSingleton();
+    ginjector.getSingleton();
+
+    GinjectorStats stats = (GinjectorStats) ginjector;
+    assertEquals(2, getCount(stats, Unscoped.class));
+    assertEquals(1, getCount(stats, SingletonObject.class));
+    assertEquals(1, countSingletonCreations(stats, SingletonObject.class));
+  }
+
+  public void testRecordsProvisionsInChildInjectors() {
+    StatsGinjector ginjector = GWT.create(StatsGinjector.class);
+    ginjector.getPrivate();
+
+    // The child injector records into the recorder of the ginjector.  The
+    // parent's getter for the exposed key is counted as well.
+    assertTrue(getCount((GinjectorStats) ginjector, PrivateObject.class) > 0);
+  }
+
+  public void testGinjectorsHaveSeparateStats() {
+    StatsGinjector first = GWT.create(StatsGinjector.class);
+    StatsGinjector second = GWT.create(StatsGinjector.class);
+    OtherGinjector other = GWT.create(OtherGinjector.class);
+
+    first.getUnscoped();
+    first.getUnscoped();
+    second.getUnscoped();
+
+    assertEquals(2, getCount((GinjectorStats) first, Unscoped.class));
+    assertEquals(1, getCount((GinjectorStats) second, Unscoped.class));
+    assertEquals(0, getCount((GinjectorStats) other, Unscoped.class));
+
+    ((GinjectorStats) first).resetStats();
+    assertEquals(0, getCount((GinjectorStats) first, Unscoped.class));
+    assertEquals(1, getCount((GinjectorStats) second, Unscoped.class));
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.inject.client.stats.GinjectorStatsTest";
+  }
+
+  /**
+   * Returns the provision count of the key of the given type.
+   */
+  private static int getCount(GinjectorStats stats, Class<?> type) {
+    int count = 0;
+    for (Map.Entry<String, Integer> entry : stats.getProvisionCounts().entrySet()) {
+      if (isKeyOf(entry.getKey(), type)) {
+        count += entry.getValue();
+      }
+    }
+    return count;
+  }
+
+  private static int countSingletonCreations(GinjectorStats stats, Class<?> type) {
+    int count = 0;
+    for (String key : stats.getSingletonCreationOrder()) {
+      if (isKeyOf(key, type)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isKeyOf(String key, Class<?> type) {
+    return key.contains(type.getName() + ",") || key.contains(type.getName() + "]");
+  }
+
+  @GinModules(StatsModule.class)
+  public interface StatsGinjector extends Ginjector {
+    Unscoped getUnscoped();
+
+    SingletonObject getSingleton();
+
+    PrivateObject getPrivate();
+  }
+
+  @GinModules(StatsModule.class)
+  public interface OtherGinjector extends Ginjector {
+    Unscoped getUnscoped();
+  }
+
+  public static class Unscoped {}
+
+  @Singleton
+  public static class SingletonObject {}
+
+  public static class PrivateObject {}
+
+  static class StatsModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      install(new PrivateModule());
+    }
+  }
+
+  static class PrivateModule extends PrivateGinModule {
+    @Override
+    protected void configure() {
+      bind(PrivateObject.class);
+      expose(PrivateObject.class);
+    }
+  }
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.binder.GinBinder;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.easymock.IMocksControl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests the replay, invalidation and file format of {@link GenerationCache}.
+ */
+public class GenerationCacheTest extends TestCase {
+
+  private static final String PACKAGE_NAME = "com.example";
+  private static final String IMPL_NAME = PACKAGE_NAME + ".TestGinjectorImpl";
+  private static final String HELPER_NAME = PACKAGE_NAME + ".TestGinjectorHelper";
+  private static final String HELPER_SOURCE = "class TestGinjectorHelper {}";
+
+  private static final String PROPERTY = "gin.test.property";
+  private static final String UNDEFINED_PROPERTY = "gin.test.undefined";
+  private static final String REBIND_TYPE = "com.example.Service";
+
+  private File cacheDir;
+  private String cacheDirProperty;
+  private TestClassLoader classLoader;
+  private Class<? extends Ginjector> ginjectorInterface;
+  private Set<Class<? extends GinModule>> moduleClasses;
+
+  // The inputs of the current build.
+  private Map<String, List<String>> properties;
+  private Map<String, Boolean> rebindRules;
+
+  // The sources created in the current build, by type name.
+  private Map<String, StringWriter> sources;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    cacheDir = File.createTempFile("gin", "cache");
+    cacheDir.delete();
+    cacheDir.mkdir();
+    cacheDirProperty = cacheDir.getPath();
+
+    classLoader = new TestClassLoader();
+    ginjectorInterface =
+        classLoader.loadClass(TestGinjector.class.getName()).asSubclass(Ginjector.class);
+    moduleClasses = new LinkedHashSet<Class<? extends GinModule>>();
+    moduleClasses.add(
+        classLoader.loadClass(TestModule.class.getName()).asSubclass(GinModule.class));
+
+    properties = new LinkedHashMap<String, List<String>>();
+    properties.put(PROPERTY, Arrays.asList("a"));
+    properties.put(UNDEFINED_PROPERTY, null);
+    rebindRules = new LinkedHashMap<String, Boolean>();
+    rebindRules.put(REBIND_TYPE, true);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    for (File file : cacheDir.listFiles()) {
+      file.delete();
+    }
+    cacheDir.delete();
+    super.tearDown();
+  }
+
+  public void testNothingToReplayBeforeFirstRun() throws Exception {
+    assertFalse(replay());
+  }
+
+  public void testReplay() throws Exception {
+    generate();
+
+    assertTrue(replay());
+    assertEquals(implSource("a"), sources.get(IMPL_NAME).toString());
+    assertEquals(HELPER_SOURCE, sources.get(HELPER_NAME).toString());
+  }
+
+  public void testReplaySkipsSourcesCreatedByOtherGinjectors() throws Exception {
+    generate();
+
+    GeneratorContext ctx = startBuild();
+    write(ctx, HELPER_NAME, "other");
+
+    assertTrue(replay(ctx));
+    assertEquals(implSource("a"), sources.get(IMPL_NAME).toString());
+    assertEquals("other", sources.get(HELPER_NAME).toString());
+  }
+
+  public void testDisabled() throws Exception {
+    cacheDirProperty = "";
+    generate();
+
+    assertEquals(0, cacheDir.list().length);
+    assertFalse(replay());
+  }
+
+  public void testIncompleteRunIsNotStored() throws Exception {
+    // Another ginjector of the build already wrote the helper.
+    GeneratorContext ctx = startBuild();
+    write(ctx, HELPER_NAME, "other");
+    generate(ctx);
+
+    assertEquals(0, cacheDir.list().length);
+  }
+
+  public void testChangedPropertyIsNotUpToDate() throws Exception {
+    generate();
+
+    properties.put(PROPERTY, Arrays.asList("b"));
+    assertFalse(replay());
+
+    properties.put(PROPERTY, Arrays.asList("a"));
+    assertTrue(replay());
+  }
+
+  public void testDefinedPropertyIsNotUpToDate() throws Exception {
+    generate();
+
+    properties.put(UNDEFINED_PROPERTY, Arrays.asList("a"));
+    assertFalse(replay());
+  }
+
+  public void testChangedRebindRuleIsNotUpToDate() throws Exception {
+    generate();
+
+    rebindRules.put(REBIND_TYPE, false);
+    assertFalse(replay());
+  }
+
+  public void testChangedClassIsNotUpToDate() throws Exception {
+    generate();
+
+    classLoader.changeClassFile(UsedClass.class);
+    assertFalse(replay());
+  }
+
+  public void testChangedModuleIsNotReused() throws Exception {
+    generate();
+
+    classLoader.changeClassFile(TestModule.class);
+    assertFalse(replay());
+  }
+
+  public void testKeepsRunsForDifferentInputs() throws Exception {
+    generate();
+    properties.put(PROPERTY, Arrays.asList("b"));
+    generate();
+
+    assertTrue(replay());
+    assertEquals(implSource("b"), sources.get(IMPL_NAME).toString());
+
+    properties.put(PROPERTY, Arrays.asList("a"));
+    assertTrue(replay());
+    assertEquals(implSource("a"), sources.get(IMPL_NAME).toString());
+  }
+
+  public void testKeepsMostRecentRuns() throws Exception {
+    for (int i = 0; i <= GenerationCache.MAX_RUNS; i++) {
+      properties.put(PROPERTY, Arrays.asList(String.valueOf(i)));
+      generate();
+    }
+
+    properties.put(PROPERTY, Arrays.asList("0"));
+    assertFalse(replay());
+
+    properties.put(PROPERTY, Arrays.asList("1"));
+    assertTrue(replay());
+  }
+
+  public void testFileFormat() throws Exception {
+    generate();
+
+    File cacheFile = getCacheFile();
+    assertTrue(cacheFile.getName(), cacheFile.getName().endsWith(".gin"));
+
+    DataInputStream in =
+        new DataInputStream(new GZIPInputStream(new FileInputStream(cacheFile)));
+    try {
+      assertEquals(GenerationCache.FORMAT_VERSION, in.readInt());
+      assertEquals(1, in.readInt());
+    } finally {
+      in.close();
+    }
+  }
+
+  public void testOtherFormatVersionIsIgnored() throws Exception {
+    generate();
+
+    DataOutputStream out =
+        new DataOutputStream(new GZIPOutputStream(new FileOutputStream(getCacheFile())));
+    try {
+      out.writeInt(GenerationCache.FORMAT_VERSION + 1);
+      out.writeInt(0);
+    } finally {
+      out.close();
+    }
+    assertFalse(replay());
+
+    generate();
+    assertTrue(replay());
+  }
+
+  public void testUnreadableFileIsReplaced() throws Exception {
+    generate();
+
+    OutputStream out = new FileOutputStream(getCacheFile());
+    try {
+      out.write("not a cache".getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+    assertFalse(replay());
+
+    generate();
+    assertTrue(replay());
+  }
+
+  public void testLargeSources() throws Exception {
+    // Beyond the 64KB that DataOutput.writeUTF supports.
+    char[] value = new char[100000];
+    Arrays.fill(value, '\u00e9');
+    properties.put(PROPERTY, Arrays.asList(new String(value)));
+    generate();
+
+    assertTrue(replay());
+    assertEquals(implSource(new String(value)), sources.get(IMPL_NAME).toString());
+  }
+
+  /**
+   * Starts a new build with the current inputs.
+   */
+  private GeneratorContext startBuild() throws Exception {
+    final Map<String, StringWriter> buildSources = new LinkedHashMap<String, StringWriter>();
+    sources = buildSources;
+
+    IMocksControl control = EasyMock.createNiceControl();
+    PropertyOracle propertyOracle = control.createMock(PropertyOracle.class);
+    for (Map.Entry<String, List<String>> property : properties.entrySet()) {
+      if (property.getValue() == null) {
+        expect(propertyOracle.getConfigurationProperty(property.getKey()))
+            .andStubThrow(new BadPropertyValueException(property.getKey()));
+      } else {
+        ConfigurationProperty configurationProperty =
+            control.createMock(ConfigurationProperty.class);
+        expect(configurationProperty.getValues()).andStubReturn(property.getValue());
+        expect(propertyOracle.getConfigurationProperty(property.getKey()))
+            .andStubReturn(configurationProperty);
+      }
+    }
+
+    GeneratorContext ctx = control.createMock(GeneratorContext.class);
+    expect(ctx.getPropertyOracle()).andStubReturn(propertyOracle);
+    for (Map.Entry<String, Boolean> rebindRule : rebindRules.entrySet()) {
+      expect(ctx.checkRebindRuleAvailable(rebindRule.getKey()))
+          .andStubReturn(rebindRule.getValue());
+    }
+    expect(ctx.tryCreate(EasyMock.<TreeLogger>anyObject(), EasyMock.<String>anyObject(),
+        EasyMock.<String>anyObject())).andStubAnswer(new IAnswer<PrintWriter>() {
+          public PrintWriter answer() {
+            Object[] args = EasyMock.getCurrentArguments();
+            String typeName = args[1] + "." + args[2];
+            if (buildSources.containsKey(typeName)) {
+              return null;
+            }
+
+            StringWriter source = new StringWriter();
+            buildSources.put(typeName, source);
+            return new PrintWriter(source);
+          }
+        });
+
+    control.replay();
+    return ctx;
+  }
+
+  private void generate() throws Exception {
+    generate(startBuild());
+  }
+
+  /**
+   * Runs a ginjector generation in the given build that uses all inputs and
+   * stores it in the cache.
+   */
+  private void generate(GeneratorContext ctx) throws Exception {
+    GenerationRecorder recorder = new GenerationRecorder();
+    GeneratorContext recordedCtx = recorder.wrap(ctx);
+
+    for (String propertyName : properties.keySet()) {
+      try {
+        recordedCtx.getPropertyOracle().getConfigurationProperty(propertyName);
+      } catch (BadPropertyValueException e) {
+        // Undefined.
+      }
+    }
+    for (String typeName : rebindRules.keySet()) {
+      recordedCtx.checkRebindRuleAvailable(typeName);
+    }
+    classLoader.loadClass(UsedClass.class.getName());
+
+    write(recordedCtx, HELPER_NAME, HELPER_SOURCE);
+    write(recordedCtx, IMPL_NAME, implSource(properties.get(PROPERTY).get(0)));
+
+    createCache(recordedCtx, recorder).store();
+  }
+
+  private boolean replay() throws Exception {
+    return replay(startBuild());
+  }
+
+  /**
+   * Replays the ginjector in the given build, as the generator does before
+   * generating it.
+   */
+  private boolean replay(GeneratorContext ctx) {
+    GenerationRecorder recorder = new GenerationRecorder();
+    GeneratorContext recordedCtx = recorder.wrap(ctx);
+
+    PrintWriter implWriter =
+        recordedCtx.tryCreate(TreeLogger.NULL, PACKAGE_NAME, "TestGinjectorImpl");
+    return createCache(recordedCtx, recorder).replay(IMPL_NAME, implWriter);
+  }
+
+  private GenerationCache createCache(GeneratorContext ctx, GenerationRecorder recorder) {
+    GinProperties ginProperties = EasyMock.createNiceMock(GinProperties.class);
+    expect(ginProperties.getString(GinProperties.GENERATION_CACHE_DIR, ""))
+        .andStubReturn(cacheDirProperty);
+    EasyMock.replay(ginProperties);
+
+    return new GenerationCache(TreeLogger.NULL, ctx, ginProperties, recorder, ginjectorInterface,
+        moduleClasses);
+  }
+
+  private static void write(GeneratorContext ctx, String typeName, String source) {
+    int lastDot = typeName.lastIndexOf('.');
+    PrintWriter printWriter = ctx.tryCreate(TreeLogger.NULL, typeName.substring(0, lastDot),
+        typeName.substring(lastDot + 1));
+    if (printWriter != null) {
+      printWriter.print(source);
+      ctx.commit(TreeLogger.NULL, printWriter);
+    }
+  }
+
+  private static String implSource(String value) {
+    return "class TestGinjectorImpl { String value = \"" + value + "\"; }";
+  }
+
+  private File getCacheFile() {
+    File[] files = cacheDir.listFiles();
+    assertEquals(1, files.length);
+    return files[0];
+  }
+
+  /**
+   * Defines the classes of this test itself, as the bridge class loader does
+   * for the classes of GWT's compilation state, and lets tests change their
+   * class files.
+   */
+  private static class TestClassLoader extends GinBridgeClassLoader {
+    private final Map<String, byte[]> changedClassFiles = new HashMap<String, byte[]>();
+
+    TestClassLoader() {
+      super(createContext(), TreeLogger.NULL, Collections.<String>emptySet());
+    }
+
+    private static GeneratorContext createContext() {
+      GeneratorContext ctx = EasyMock.createNiceMock(GeneratorContext.class);
+      EasyMock.replay(ctx);
+      return ctx;
+    }
+
+    void changeClassFile(Class<?> type) {
+      changedClassFiles.put(type.getName().replace('.', '/') + ".class", new byte[] {0});
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      if (!name.startsWith(GenerationCacheTest.class.getName() + "$")) {
+        throw new ClassNotFoundException(name);
+      }
+
+      try {
+        InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+          byte[] buffer = new byte[8192];
+          for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            bytes.write(buffer, 0, read);
+          }
+        } finally {
+          in.close();
+        }
+        return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+      } catch (IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String name) {
+      byte[] classFile = changedClassFiles.get(name);
+      return classFile == null ? super.getResourceAsStream(name)
+          : new ByteArrayInputStream(classFile);
+    }
+  }
+
+  public interface TestGinjector extends Ginjector {}
+
+  public static class TestModule implements GinModule {
+    public void configure(GinBinder binder) {}
+  }
+
+  public static class UsedClass {}
+}
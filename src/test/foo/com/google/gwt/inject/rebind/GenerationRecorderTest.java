@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.same;
+import static org.easymock.EasyMock.verify;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.TreeLogger;
+
+import junit.framework.TestCase;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class GenerationRecorderTest extends TestCase {
+
+  private GenerationRecorder recorder;
+  private GeneratorContext ctx;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    recorder = new GenerationRecorder();
+    ctx = createMock(GeneratorContext.class);
+  }
+
+  public void testRecordsCommittedSources() {
+    StringWriter output = new StringWriter();
+    PrintWriter printWriter = new PrintWriter(output);
+    expect(ctx.tryCreate(TreeLogger.NULL, "com.foo", "BarImpl")).andReturn(printWriter);
+    ctx.commit(same(TreeLogger.NULL), same(printWriter));
+    replay(ctx);
+
+    GeneratorContext recordingCtx = recorder.wrap(ctx);
+    PrintWriter recordingWriter = recordingCtx.tryCreate(TreeLogger.NULL, "com.foo", "BarImpl");
+    recordingWriter.print("class BarImpl {}");
+    recordingCtx.commit(TreeLogger.NULL, recordingWriter);
+
+    verify(ctx);
+    assertEquals("class BarImpl {}", output.toString());
+    assertEquals(Collections.singletonMap("com.foo.BarImpl", "class BarImpl {}"),
+        recorder.getSources());
+    assertTrue(recorder.isComplete());
+  }
+
+  public void testExistingSourceMakesRunIncomplete() {
+    expect(ctx.tryCreate(TreeLogger.NULL, "com.foo", "Shared")).andReturn(null);
+    replay(ctx);
+
+    assertNull(recorder.wrap(ctx).tryCreate(TreeLogger.NULL, "com.foo", "Shared"));
+
+    verify(ctx);
+    assertFalse(recorder.isComplete());
+  }
+
+  public void testRecordsRebindRules() {
+    expect(ctx.checkRebindRuleAvailable("com.foo.Bar")).andReturn(true);
+    replay(ctx);
+
+    assertTrue(recorder.wrap(ctx).checkRebindRuleAvailable("com.foo.Bar"));
+
+    verify(ctx);
+    assertEquals(Collections.singletonMap("com.foo.Bar", true), recorder.getRebindRules());
+  }
+
+  public void testRecordsConfigurationProperties() throws Exception {
+    List<String> values = Arrays.asList("a", "b");
+    ConfigurationProperty property = createMock(ConfigurationProperty.class);
+    expect(property.getValues()).andReturn(values);
+
+    PropertyOracle propertyOracle = createMock(PropertyOracle.class);
+    expect(propertyOracle.getConfigurationProperty("gin.defined")).andReturn(property);
+    expect(propertyOracle.getConfigurationProperty("gin.undefined"))
+        .andThrow(new BadPropertyValueException("gin.undefined"));
+
+    expect(ctx.getPropertyOracle()).andStubReturn(propertyOracle);
+    replay(ctx, propertyOracle, property);
+
+    GeneratorContext recordingCtx = recorder.wrap(ctx);
+    assertSame(property,
+        recordingCtx.getPropertyOracle().getConfigurationProperty("gin.defined"));
+    try {
+      recordingCtx.getPropertyOracle().getConfigurationProperty("gin.undefined");
+      fail("Expected BadPropertyValueException.");
+    } catch (BadPropertyValueException e) {
+      // Expected.
+    }
+
+    verify(ctx, propertyOracle, property);
+    assertEquals(values, recorder.getConfigurationProperties().get("gin.defined"));
+    assertTrue(recorder.getConfigurationProperties().containsKey("gin.undefined"));
+    assertNull(recorder.getConfigurationProperties().get("gin.undefined"));
+    assertTrue(recorder.isComplete());
+  }
+}
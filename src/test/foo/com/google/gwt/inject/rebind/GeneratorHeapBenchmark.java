@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Measures the heap used to analyze ginjectors, to track the memory footprint
+ * of the generator.
+ *
+ * <p>Runs the binding analysis of {@link GinjectorValidator} on each ginjector
+ * passed on the command line, several times, and reports the peak heap usage
+ * of the last run along with the heap retained once it has finished.  Run with
+ * a fixed {@code -Xmx} and compare the numbers before and after a change:
+ *
+ * <pre>
+ *   java -Xmx1g -cp &lt;test classpath&gt; \
+ *       com.google.gwt.inject.rebind.GeneratorHeapBenchmark [ginjector...]
+ * </pre>
+ */
+public class GeneratorHeapBenchmark {
+
+  private static final int RUNS = 5;
+
+  public static void main(String[] args) throws Exception {
+    ClassLoader classLoader = GeneratorHeapBenchmark.class.getClassLoader();
+    GinjectorValidator validator = new GinjectorValidator(classLoader,
+        GinjectorValidator.RebindRules.fromClassPath(classLoader),
+        GinjectorValidator.ConfigurationProperties.fromModule(classLoader));
+
+    for (String ginjectorName : args) {
+      long peak = 0;
+      for (int i = 0; i < RUNS; i++) {
+        collectGarbage();
+        resetPeakUsage();
+
+        String errors = validator.validate(ginjectorName);
+        if (errors != null) {
+          System.err.println(errors);
+          System.exit(1);
+        }
+
+        peak = getPeakUsage();
+      }
+
+      collectGarbage();
+      System.out.printf("%s: peak %d KB, retained %d KB%n", ginjectorName, peak / 1024,
+          getUsedHeap() / 1024);
+    }
+  }
+
+  private static void collectGarbage() throws InterruptedException {
+    // System.gc() is only a hint; a few rounds make the numbers stable.
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+  }
+
+  private static void resetPeakUsage() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long getPeakUsage() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  private static long getUsedHeap() {
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
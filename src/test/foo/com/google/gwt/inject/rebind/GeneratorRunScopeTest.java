@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.ProvisionException;
+
+import junit.framework.TestCase;
+
+public class GeneratorRunScopeTest extends TestCase {
+
+  private GeneratorRunScope scope;
+  private Injector injector;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    scope = new GeneratorRunScope();
+    injector = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bindScope(GeneratorRunScoped.class, scope);
+        bind(String.class)
+            .toProvider(GeneratorRunScope.<String>seededKeyProvider())
+            .in(GeneratorRunScoped.class);
+      }
+    });
+  }
+
+  public void testSameInstanceWithinRun() {
+    scope.enter();
+    try {
+      assertSame(injector.getInstance(RunState.class), injector.getInstance(RunState.class));
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testNewInstancePerRun() {
+    scope.enter();
+    RunState first;
+    try {
+      first = injector.getInstance(RunState.class);
+    } finally {
+      scope.exit();
+    }
+
+    scope.enter();
+    try {
+      assertNotSame(first, injector.getInstance(RunState.class));
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testSeededValue() {
+    scope.enter();
+    try {
+      scope.seed(String.class, "foo");
+      assertEquals("foo", injector.getInstance(String.class));
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testUnseededValue() {
+    scope.enter();
+    try {
+      injector.getInstance(String.class);
+      fail("Expected an exception for an unseeded key.");
+    } catch (RuntimeException e) {
+      // expected
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testOutsideOfRun() {
+    try {
+      injector.getInstance(RunState.class);
+      fail("Expected OutOfScopeException.");
+    } catch (ProvisionException e) {
+      assertTrue(e.getCause() instanceof OutOfScopeException);
+    }
+  }
+
+  public void testNestedRun() {
+    scope.enter();
+    try {
+      RunState outer = injector.getInstance(RunState.class);
+
+      scope.enter();
+      try {
+        assertNotSame(outer, injector.getInstance(RunState.class));
+      } finally {
+        scope.exit();
+      }
+
+      assertSame(outer, injector.getInstance(RunState.class));
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testConcurrentRuns() throws Exception {
+    final RunState[] other = new RunState[1];
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        scope.enter();
+        try {
+          other[0] = injector.getInstance(RunState.class);
+        } finally {
+          scope.exit();
+        }
+      }
+    };
+
+    scope.enter();
+    try {
+      RunState own = injector.getInstance(RunState.class);
+      thread.start();
+      thread.join();
+      assertNotNull(other[0]);
+      assertNotSame(own, other[0]);
+    } finally {
+      scope.exit();
+    }
+  }
+
+  public void testExitWithoutRun() {
+    try {
+      scope.exit();
+      fail("Expected IllegalStateException.");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @GeneratorRunScoped
+  static class RunState {
+  }
+}
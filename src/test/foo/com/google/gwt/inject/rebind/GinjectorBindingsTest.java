@@ -22,10 +22,12 @@ import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.AsyncProvider;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
 import com.google.gwt.inject.rebind.binding.BindingFactoryImpl;
 import com.google.gwt.inject.rebind.binding.Context;
+import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.resolution.BindingResolver;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
@@ -33,6 +35,8 @@ import com.google.gwt.inject.rebind.util.MethodCallUtil;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.inject.Key;
 import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import java.util.Collections;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -318,6 +322,49 @@ public class GinjectorBindingsTest extends TestCase {
     assertTrue(toplevelBindings.hasStaticInjectionRequestInSubtree());
   }
 
+  public void testDetermineScope_implicitProvidersAreSingletons() throws Exception {
+    GinjectorBindings bindings = createBindings();
+
+    expectFinalize(bindings);
+
+    replay();
+
+    Key<?> providerKey = Key.get(new TypeLiteral<Provider<Long>>() {});
+    Key<?> asyncProviderKey = Key.get(new TypeLiteral<AsyncProvider<Long>>() {});
+    Key<?> key = Key.get(GinjectorBindingsTest.class);
+    bindings.addBinding(providerKey, bindingFactory.getImplicitProviderBinding(providerKey));
+    bindings.addBinding(asyncProviderKey,
+        bindingFactory.getAsyncProviderBinding(asyncProviderKey));
+    bindings.addBinding(key, bindingFactory.getBindClassBinding(key, Key.get(Long.class), context));
+
+    finalize(bindings);
+
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(providerKey));
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(asyncProviderKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(key));
+  }
+
+  public void testDetermineScope_sharedGwtDotCreateIsSingleton() throws Exception {
+    GinjectorBindings bindings = createBindings();
+
+    expectFinalize(bindings);
+    expect(guiceUtil.getMemberInjectionDependencies(EasyMock.<Key<?>>anyObject(),
+        EasyMock.<TypeLiteral<?>>anyObject())).andStubReturn(Collections.<Dependency>emptySet());
+
+    replay();
+
+    Key<?> sharedKey = Key.get(Runnable.class);
+    Key<?> key = Key.get(GinjectorBindingsTest.class);
+    bindings.addBinding(sharedKey,
+        bindingFactory.getSharedCallGwtDotCreateBinding(sharedKey.getTypeLiteral()));
+    bindings.addBinding(key, bindingFactory.getCallGwtDotCreateBinding(key.getTypeLiteral()));
+
+    finalize(bindings);
+
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(sharedKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(key));
+  }
+
   private GinjectorBindings createBindings() {
     collector.setMethodFilter(EasyMock.<MemberCollector.MethodFilter>anyObject());
 
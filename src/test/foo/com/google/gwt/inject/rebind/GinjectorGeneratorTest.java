@@ -23,34 +23,33 @@ public class GinjectorGeneratorTest extends TestCase {
   static boolean initializedA = false;
   static boolean initializedB = false;
 
-  private GinjectorGenerator ginjectorGenerator;
+  private ClassLoader classLoader;
 
   protected void setUp() throws Exception {
     super.setUp();
-    ginjectorGenerator = new GinjectorGenerator();
-    ginjectorGenerator.classLoader = this.getClass().getClassLoader();
+    classLoader = this.getClass().getClassLoader();
   }
 
   public void testLoadClass() throws ClassNotFoundException {
-    assertEquals(GinjectorGeneratorTest.class, ginjectorGenerator.loadClass(
+    assertEquals(GinjectorGeneratorTest.class, GinjectorGenerator.loadClass(classLoader,
         "com.google.gwt.inject.rebind.GinjectorGeneratorTest", true));
   }
 
   public void testLoadClass_nestedClass() throws ClassNotFoundException {
-    assertEquals(Nested.class, ginjectorGenerator.loadClass(
+    assertEquals(Nested.class, GinjectorGenerator.loadClass(classLoader,
             "com.google.gwt.inject.rebind.GinjectorGeneratorTest.Nested" , true));
 
-    assertEquals(Nested.DoublyNested.class, ginjectorGenerator.loadClass(
+    assertEquals(Nested.DoublyNested.class, GinjectorGenerator.loadClass(classLoader,
             "com.google.gwt.inject.rebind.GinjectorGeneratorTest.Nested.DoublyNested", true));
   }
 
   public void testLoadClass_initialize() throws ClassNotFoundException {
     assertFalse(initializedA);
-    ginjectorGenerator.loadClass("com.google.gwt.inject.rebind.InitializableA", true);
+    GinjectorGenerator.loadClass(classLoader, "com.google.gwt.inject.rebind.InitializableA", true);
     assertTrue(initializedA);
 
     assertFalse(initializedB);
-    ginjectorGenerator.loadClass("com.google.gwt.inject.rebind.InitializableB", false);
+    GinjectorGenerator.loadClass(classLoader, "com.google.gwt.inject.rebind.InitializableB", false);
     assertFalse(initializedB);
   }
 
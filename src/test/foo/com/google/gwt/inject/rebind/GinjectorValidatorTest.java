@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinjectorValidator.ConfigurationProperties;
+import com.google.gwt.inject.rebind.GinjectorValidator.RebindRules;
+import com.google.inject.Inject;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class GinjectorValidatorTest extends TestCase {
+
+  private ClassLoader classLoader;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    classLoader = GinjectorValidatorTest.class.getClassLoader();
+  }
+
+  public void testRebindRulesForExactType() throws Exception {
+    RebindRules rules = new RebindRules();
+    rules.addModule(module("<replace-with class='com.foo.BarImpl'>"
+        + "<when-type-is class='" + Service.class.getName() + "'/></replace-with>"));
+
+    assertTrue(rules.isAvailable(Service.class.getName(), classLoader));
+    assertFalse(rules.isAvailable(SubService.class.getName(), classLoader));
+  }
+
+  public void testRebindRulesForAssignableType() throws Exception {
+    RebindRules rules = new RebindRules();
+    rules.addModule(module("<generate-with class='com.foo.Generator'>"
+        + "<when-type-assignable class='" + Service.class.getName() + "'/></generate-with>"));
+
+    assertTrue(rules.isAvailable(Service.class.getName(), classLoader));
+    assertTrue(rules.isAvailable(SubService.class.getName(), classLoader));
+    assertFalse(rules.isAvailable(Concrete.class.getName(), classLoader));
+  }
+
+  public void testRebindRulesLookInsideCompositeConditions() throws Exception {
+    RebindRules rules = new RebindRules();
+    rules.addModule(module("<replace-with class='com.foo.BarImpl'><any>"
+        + "<when-property-is name='user.agent' value='ie8'/>"
+        + "<all><when-type-is class='" + Service.class.getName() + "'/></all>"
+        + "</any></replace-with>"));
+
+    assertTrue(rules.isAvailable(Service.class.getName(), classLoader));
+  }
+
+  public void testRebindRulesIgnoreNegatedConditions() throws Exception {
+    RebindRules rules = new RebindRules();
+    rules.addModule(module("<generate-with class='com.foo.Generator'>"
+        + "<when-type-assignable class='" + Service.class.getName() + "'/>"
+        + "<none><when-type-is class='" + Concrete.class.getName() + "'/></none>"
+        + "</generate-with>"));
+
+    assertTrue(rules.isAvailable(Service.class.getName(), classLoader));
+    assertFalse(rules.isAvailable(Concrete.class.getName(), classLoader));
+  }
+
+  public void testConfigurationProperties() throws Exception {
+    ConfigurationProperties properties = new ConfigurationProperties();
+    properties.addModule(module("<define-configuration-property name='single'"
+        + " is-multi-valued='false'/>"
+        + "<set-configuration-property name='single' value='a'/>"
+        + "<set-configuration-property name='single' value='b'/>"
+        + "<define-configuration-property name='multi' is-multi-valued='true'/>"
+        + "<extend-configuration-property name='multi' value='a'/>"
+        + "<extend-configuration-property name='multi' value='b'/>"
+        + "<define-configuration-property name='unset' is-multi-valued='false'/>"));
+
+    assertEquals(Collections.singletonList("b"), properties.get("single").getValues());
+    assertEquals(Arrays.asList("a", "b"), properties.get("multi").getValues());
+    assertEquals("multi", properties.get("multi").getName());
+    assertEquals(Collections.emptyList(), properties.get("unset").getValues());
+
+    try {
+      properties.get("undefined");
+      fail("Expected BadPropertyValueException");
+    } catch (BadPropertyValueException expected) {
+      // Expected.
+    }
+  }
+
+  public void testConfigurationPropertiesOfInjectModule() throws Exception {
+    ConfigurationProperties properties = ConfigurationProperties.fromModule(classLoader);
+
+    assertEquals(Collections.singletonList("-1"),
+        properties.get(GinProperties.STARTUP_MAX_BINDINGS).getValues());
+    assertEquals(Collections.singletonList("false"),
+        properties.get(GinProperties.EXPORT_BINDING_GRAPH).getValues());
+  }
+
+  public void testValidGinjector() throws Exception {
+    assertNull(createValidator(new RebindRules()).validate(ValidGinjector.class.getName()));
+  }
+
+  public void testMissingBinding() throws Exception {
+    String errors = createValidator(new RebindRules()).validate(ServiceGinjector.class.getName());
+
+    assertNotNull(errors);
+    assertTrue(errors, errors.contains(Service.class.getName()));
+  }
+
+  public void testRebindRuleProvidesBinding() throws Exception {
+    RebindRules rules = new RebindRules();
+    rules.addModule(module("<replace-with class='com.foo.BarImpl'>"
+        + "<when-type-is class='" + Service.class.getName() + "'/></replace-with>"));
+
+    assertNull(createValidator(rules).validate(ServiceGinjector.class.getName()));
+  }
+
+  public void testNotAGinjector() throws Exception {
+    assertNotNull(createValidator(new RebindRules()).validate(Service.class.getName()));
+    assertNotNull(createValidator(new RebindRules()).validate("com.foo.DoesNotExist"));
+  }
+
+  private GinjectorValidator createValidator(RebindRules rules) throws Exception {
+    return new GinjectorValidator(classLoader, rules,
+        ConfigurationProperties.fromModule(classLoader));
+  }
+
+  private static InputStream module(String content) throws Exception {
+    return new ByteArrayInputStream(("<module>" + content + "</module>").getBytes("UTF-8"));
+  }
+
+  public interface Service {}
+
+  public interface SubService extends Service {}
+
+  public static class Concrete implements Service {
+    @Inject
+    public Concrete() {}
+  }
+
+  public interface ValidGinjector extends Ginjector {
+    Concrete getConcrete();
+  }
+
+  public interface ServiceGinjector extends Ginjector {
+    Service getService();
+  }
+}
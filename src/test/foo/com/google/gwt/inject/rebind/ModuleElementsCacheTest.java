@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.gwt.inject.client.binder.GinBinder;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Element;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests the sharing of class loaders and recorded elements by
+ * {@link ModuleElementsCache}.
+ */
+public class ModuleElementsCacheTest extends TestCase {
+
+  private static final Set<String> EXCEPTIONS =
+      new LinkedHashSet<String>(Arrays.asList("com.google.inject"));
+
+  private IMocksControl control;
+  private TreeLogger logger;
+
+  @Override
+  protected void setUp() throws Exception {
+    control = EasyMock.createNiceControl();
+    logger = control.createMock(TreeLogger.class);
+  }
+
+  public void testClassLoaderIsSharedWithinCompilation() {
+    TypeOracle typeOracle = control.createMock(TypeOracle.class);
+    GeneratorContext context = createContext(typeOracle);
+    GeneratorContext otherRunContext = createContext(typeOracle);
+    control.replay();
+
+    ClassLoader classLoader = ModuleElementsCache.getClassLoader(context, logger, EXCEPTIONS);
+    assertTrue(classLoader instanceof GinBridgeClassLoader);
+    assertSame(classLoader,
+        ModuleElementsCache.getClassLoader(otherRunContext, logger, EXCEPTIONS));
+  }
+
+  public void testNewCompilationGetsNewClassLoader() {
+    GeneratorContext context = createContext(control.createMock(TypeOracle.class));
+    GeneratorContext nextContext = createContext(control.createMock(TypeOracle.class));
+    control.replay();
+
+    ClassLoader classLoader = ModuleElementsCache.getClassLoader(context, logger, EXCEPTIONS);
+    assertNotSame(classLoader,
+        ModuleElementsCache.getClassLoader(nextContext, logger, EXCEPTIONS));
+  }
+
+  public void testOtherExceptionsGetNewClassLoader() {
+    GeneratorContext context = createContext(control.createMock(TypeOracle.class));
+    control.replay();
+
+    ClassLoader classLoader = ModuleElementsCache.getClassLoader(context, logger, EXCEPTIONS);
+    assertNotSame(classLoader, ModuleElementsCache.getClassLoader(context, logger,
+        Collections.singleton("com.google.inject.other")));
+  }
+
+  public void testNoCacheForGinjectorOfOtherLoader() {
+    GeneratorContext context = createContext(control.createMock(TypeOracle.class));
+    control.replay();
+
+    ModuleElementsCache.getClassLoader(context, logger, EXCEPTIONS);
+    assertNull(ModuleElementsCache.forGinjector(MyGinjector.class));
+  }
+
+  public void testRecordedModulesKeyedByOrderedModuleClasses() {
+    GeneratorContext context = createContext(control.createMock(TypeOracle.class));
+    control.replay();
+
+    // A proxy class stands in for a ginjector loaded by the shared loader.
+    ClassLoader classLoader = ModuleElementsCache.getClassLoader(context, logger, EXCEPTIONS);
+    ModuleElementsCache cache =
+        ModuleElementsCache.forGinjector(Proxy.getProxyClass(classLoader, MyGinjector.class));
+    assertNotNull(cache);
+
+    List<Class<? extends GinModule>> modules = Arrays.<Class<? extends GinModule>>asList(
+        FirstModule.class, SecondModule.class);
+    FactoryModule<?> factoryModule = new FactoryModule<MyGinjector>(
+        Collections.<Key<?>, TypeLiteral<?>>emptyMap(), Key.get(MyGinjector.class), "source");
+    cache.put(modules, new ModuleElementsCache.RecordedModules(
+        Collections.<Element>emptyList(), Collections.<FactoryModule<?>>singleton(factoryModule)));
+
+    ModuleElementsCache.RecordedModules recorded =
+        cache.get(new LinkedHashSet<Class<? extends GinModule>>(modules));
+    assertNotNull(recorded);
+    assertEquals(Collections.singletonList(factoryModule), recorded.getFactoryModules());
+
+    assertNull(cache.get(Arrays.<Class<? extends GinModule>>asList(
+        SecondModule.class, FirstModule.class)));
+  }
+
+  private GeneratorContext createContext(TypeOracle typeOracle) {
+    GeneratorContext context = control.createMock(GeneratorContext.class);
+    expect(context.getTypeOracle()).andStubReturn(typeOracle);
+    return context;
+  }
+
+  public interface MyGinjector extends Ginjector {}
+
+  public static class FirstModule implements GinModule {
+    public void configure(GinBinder binder) {}
+  }
+
+  public static class SecondModule implements GinModule {
+    public void configure(GinBinder binder) {}
+  }
+}
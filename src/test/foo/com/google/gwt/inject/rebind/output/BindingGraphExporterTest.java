@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.same;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Context;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.binding.ParentBinding;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+/**
+ * Tests the JSON and DOT exports of {@link BindingGraphExporter}.
+ */
+public class BindingGraphExporterTest extends TestCase {
+
+  private static final String PATH = "gin/graph/" + TestGinjector.class.getName();
+
+  private static final Key<?> FOO = Key.get(String.class, Names.named("foo"));
+  private static final Key<?> BAR = Key.get(String.class, Names.named("bar"));
+  private static final Key<?> BAZ = Key.get(String.class, Names.named("baz"));
+
+  private IMocksControl control;
+  private GeneratorContext ctx;
+  private GinjectorBindings root;
+  private GinjectorBindings child;
+  private FragmentPackageName fragment;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+    ctx = control.createMock(GeneratorContext.class);
+    root = control.createMock("root", GinjectorBindings.class);
+    child = control.createMock("child", GinjectorBindings.class);
+    fragment = new FragmentPackageName(TestGinjector.class, "com.example");
+
+    expect(root.getGinjectorInterface())
+        .andStubReturn((TypeLiteral) TypeLiteral.get(TestGinjector.class));
+    expect(root.getChildren()).andStubReturn(Arrays.asList(child));
+    expect(child.getParent()).andStubReturn(root);
+    expect(child.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(root.determineScope(BAZ)).andStubReturn(GinScope.NO_SCOPE);
+  }
+
+  public void testDisabled() throws Exception {
+    // Fails on any call.
+    ctx = EasyMock.createStrictMock(GeneratorContext.class);
+    EasyMock.replay(ctx);
+
+    Binding foo = createBinding("foo");
+    BindingGraphExporter exporter = createExporter(false);
+    exporter.recordBinding(root, FOO, foo, GinScope.SINGLETON, fragment, 42);
+    exporter.write(root);
+  }
+
+  public void testJson() throws Exception {
+    ByteArrayOutputStream json = expectResource(PATH + ".json");
+    expectResource(PATH + ".dot");
+
+    BindingGraphExporter exporter = createExporter(true);
+    recordGraph(exporter);
+    exporter.write(root);
+
+    String output = json.toString("UTF-8");
+    assertTrue(output, output.contains("\"ginjector\": \"root\""));
+    assertTrue(output, output.contains("\"name\": \"root\",\n      \"parent\": null"));
+    assertTrue(output, output.contains("\"name\": \"child\",\n      \"parent\": \"root\""));
+    assertTrue(output, output.contains("{\"key\": " + quotedKey(FOO)));
+    assertTrue(output, output.contains("\"scope\": \"SINGLETON\", \"reachable\": true,"
+        + " \"fragment\": \"" + fragment + "\", \"size\": 42"));
+    assertTrue(output, output.contains("\"dependencies\": [" + quotedKey(BAR) + ", "
+        + quotedKey(BAZ) + "]"));
+
+    // The pruned binding has neither fragment nor size.
+    assertTrue(output, output.contains("{\"key\": " + quotedKey(BAZ)));
+    assertTrue(output, output.contains("\"scope\": \"NO_SCOPE\", \"reachable\": false,"
+        + " \"fragment\": null, \"size\": 0"));
+
+    // Contexts are escaped.
+    assertTrue(output, output.contains("\"context\": \"declared \\\"here\\\"\\nand there\""));
+
+    assertTrue(output, output.contains("\"memberInjections\": {\""
+        + TypeLiteral.get(TestGinjector.class) + "\": 7}"));
+    assertTrue(output, output.contains("\"staticInjections\": {\""
+        + TestGinjector.class.getName() + "\": 5}"));
+  }
+
+  public void testDot() throws Exception {
+    expectResource(PATH + ".json");
+    ByteArrayOutputStream dot = expectResource(PATH + ".dot");
+
+    BindingGraphExporter exporter = createExporter(true);
+    recordGraph(exporter);
+    exporter.write(root);
+
+    String output = dot.toString("UTF-8");
+    assertTrue(output, output.startsWith("digraph \"root\" {"));
+    assertTrue(output, output.contains("subgraph cluster_0 {\n    label=\"root\";"));
+    assertTrue(output, output.contains("subgraph cluster_1 {\n    label=\"child\";"));
+
+    // Eager and lazy dependencies.
+    assertTrue(output, output.contains(node(0, FOO) + " -> " + node(0, BAR) + ";"));
+    assertTrue(output,
+        output.contains(node(0, FOO) + " -> " + node(0, BAZ) + " [style=dashed];"));
+
+    // The pruned binding is grayed out.
+    assertTrue(output, output.contains(node(0, BAZ) + " [label="));
+    assertTrue(output, output.contains(", style=dashed, color=gray];"));
+
+    // The child's binding is inherited from the root.
+    assertTrue(output,
+        output.contains(node(1, FOO) + " -> " + node(0, FOO) + " [style=dotted];"));
+  }
+
+  private void recordGraph(BindingGraphExporter exporter) {
+    Binding foo = createBinding("declared \"here\"\nand there",
+        new Dependency(FOO, BAR, "test"), new Dependency(FOO, BAZ, false, true, "test"));
+    Binding baz = createBinding("baz");
+    ParentBinding inheritedFoo = control.createMock(ParentBinding.class);
+    expect(inheritedFoo.getContext()).andStubReturn(Context.forText("inherited"));
+    expect(inheritedFoo.getDependencies()).andStubReturn(Collections.<Dependency>emptySet());
+    expect(inheritedFoo.getParentBindings()).andStubReturn(root);
+
+    control.replay();
+
+    exporter.recordBinding(root, FOO, foo, GinScope.SINGLETON, fragment, 42);
+    exporter.recordPrunedBinding(root, BAZ, baz);
+    exporter.recordMemberInjection(root, TypeLiteral.get(TestGinjector.class), 7);
+    exporter.recordStaticInjection(root, TestGinjector.class, 5);
+    exporter.recordBinding(child, FOO, inheritedFoo, GinScope.NO_SCOPE, fragment, 10);
+  }
+
+  private Binding createBinding(String context, Dependency... dependencies) {
+    Binding binding = control.createMock(Binding.class);
+    expect(binding.getContext()).andStubReturn(Context.forText(context));
+    expect(binding.getDependencies())
+        .andStubReturn(new LinkedHashSet<Dependency>(Arrays.asList(dependencies)));
+    return binding;
+  }
+
+  private ByteArrayOutputStream expectResource(String path) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    GeneratedResource resource = control.createMock(GeneratedResource.class);
+    expect(ctx.tryCreateResource(TreeLogger.NULL, path)).andReturn(output);
+    expect(ctx.commitResource(same(TreeLogger.NULL), same(output))).andReturn(resource);
+    return output;
+  }
+
+  private BindingGraphExporter createExporter(boolean enabled) {
+    GinProperties properties = EasyMock.createNiceMock(GinProperties.class);
+    expect(properties.getBoolean(GinProperties.EXPORT_BINDING_GRAPH, false))
+        .andStubReturn(enabled);
+    EasyMock.replay(properties);
+
+    if (!enabled) {
+      control.replay();
+    }
+    return new BindingGraphExporter(ctx, TreeLogger.NULL, properties);
+  }
+
+  private static String quotedKey(Key<?> key) {
+    return "\"" + PrettyPrinter.format("%s", key).replace("\"", "\\\"") + "\"";
+  }
+
+  private static String node(int injectorId, Key<?> key) {
+    return "\"" + injectorId + ":" + PrettyPrinter.format("%s", key).replace("\"", "\\\"") + "\"";
+  }
+
+  public interface TestGinjector extends Ginjector {}
+}
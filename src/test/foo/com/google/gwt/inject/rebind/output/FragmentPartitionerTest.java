@@ -0,0 +1,271 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.BindClassBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the placement of getters and methods by {@link FragmentPartitioner}.
+ */
+public class FragmentPartitionerTest extends TestCase {
+
+  private static final String SHARED_PACKAGE = TestGinjector.class.getPackage().getName();
+  private static final String PACKAGE_A = "com.google.gwt.inject.rebind.output.a";
+  private static final String PACKAGE_B = "com.google.gwt.inject.rebind.output.b";
+
+  private IMocksControl control;
+  private GinjectorBindings bindings;
+  private NameGenerator nameGenerator;
+  private Map<Key<?>, Binding> getters;
+  private FragmentPackageName.Factory fragmentPackageNameFactory;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+    nameGenerator = new NameGenerator();
+    getters = new LinkedHashMap<Key<?>, Binding>();
+
+    bindings = control.createMock(GinjectorBindings.class);
+    expect(bindings.getNameGenerator()).andStubReturn(nameGenerator);
+    expect(bindings.getBindings())
+        .andStubReturn((Iterable<Map.Entry<Key<?>, Binding>>) getters.entrySet());
+    expect(bindings.getGinjectorInterface())
+        .andStubReturn((TypeLiteral) TypeLiteral.get(TestGinjector.class));
+    expect(bindings.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(bindings.getStaticInjectionRequests())
+        .andStubReturn(Collections.<Class<?>>emptyList());
+
+    fragmentPackageNameFactory = new FragmentPackageName.Factory() {
+      public FragmentPackageName create(String packageName) {
+        return new FragmentPackageName(TestGinjector.class, packageName);
+      }
+    };
+  }
+
+  public void testDisabledByDefault() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, true, true);
+    Key<?> b1 = addGetter("b1", PACKAGE_B, true, true);
+
+    FragmentPartitioner partitioner = createPartitioner(0, 0);
+
+    assertEquals(fragment(PACKAGE_A), partitioner.getGetterFragment(bindings, a1));
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b1));
+  }
+
+  public void testMergesPackagesBelowThreshold() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, true, true);
+    Key<?> a2 = addGetter("a2", PACKAGE_A, true, true);
+    Key<?> b1 = addGetter("b1", PACKAGE_B, true, true);
+    Key<?> b2 = addGetter("b2", PACKAGE_B, true, true);
+    Key<?> b3 = addGetter("b3", PACKAGE_B, true, true);
+
+    FragmentPartitioner partitioner = createPartitioner(3, 0);
+
+    // Two getters are below the threshold, three are not.
+    assertEquals(fragment(SHARED_PACKAGE), partitioner.getGetterFragment(bindings, a1));
+    assertEquals(fragment(SHARED_PACKAGE), partitioner.getGetterFragment(bindings, a2));
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b1));
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b2));
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b3));
+  }
+
+  public void testDoesNotMergeGettersThatNeedPackageAccess() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, true, true);
+    Key<?> a2 = addGetter("a2", PACKAGE_A, false, true);
+
+    FragmentPartitioner partitioner = createPartitioner(3, 0);
+
+    assertEquals(fragment(SHARED_PACKAGE), partitioner.getGetterFragment(bindings, a1));
+    assertEquals(fragment(PACKAGE_A), partitioner.getGetterFragment(bindings, a2));
+  }
+
+  public void testIgnoresUnreachableGettersWhenCounting() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, true, true);
+    addGetter("a2", PACKAGE_A, true, false);
+    addGetter("a3", PACKAGE_A, true, false);
+
+    FragmentPartitioner partitioner = createPartitioner(2, 0);
+
+    assertEquals(fragment(SHARED_PACKAGE), partitioner.getGetterFragment(bindings, a1));
+  }
+
+  public void testDoesNotShardAtLimit() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, false, true);
+    Key<?> a2 = addGetter("a2", PACKAGE_A, false, true);
+
+    FragmentPartitioner partitioner = createPartitioner(0, 2);
+
+    assertEquals(fragment(PACKAGE_A), partitioner.getGetterFragment(bindings, a1));
+    assertEquals(fragment(PACKAGE_A), partitioner.getGetterFragment(bindings, a2));
+    assertEquals(fragment(PACKAGE_B),
+        partitioner.getMethodFragment(bindings, PACKAGE_B, "someHelper"));
+  }
+
+  public void testShardsAboveLimitInNameOrder() {
+    List<Key<?>> keys = new ArrayList<Key<?>>();
+    for (int i = 4; i >= 0; i--) {
+      keys.add(addGetter("a" + i, PACKAGE_A, false, true));
+    }
+    Key<?> b1 = addGetter("b1", PACKAGE_B, false, true);
+
+    FragmentPartitioner partitioner = createPartitioner(0, 2);
+
+    // Five getters with at most two per fragment fill three shards, in the
+    // order of their names rather than the order of their bindings.
+    List<String> getterNames = new ArrayList<String>();
+    for (Key<?> key : keys) {
+      getterNames.add(nameGenerator.getGetterMethodName(key));
+    }
+    Collections.sort(getterNames);
+    for (Key<?> key : keys) {
+      FragmentPackageName fragment = partitioner.getGetterFragment(bindings, key);
+      assertEquals(fragment(PACKAGE_A).toString(), fragment.toString());
+
+      String getterName = nameGenerator.getGetterMethodName(key);
+      assertEquals(getterNames.indexOf(getterName) / 2, fragment.getShard());
+
+      // Methods are found by name, so callers agree on the shard.
+      assertEquals(fragment, partitioner.getMethodFragment(bindings, PACKAGE_A, getterName));
+    }
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b1));
+  }
+
+  public void testHelperMethodsCountTowardsLimit() {
+    addGetter("a1", PACKAGE_A, false, true);
+    addGetter("a2", PACKAGE_A, false, true);
+    addGetter("a3", PACKAGE_A, false, true);
+
+    FragmentPartitioner partitioner = createPartitioner(0, 2);
+
+    // The getters fill shard 0 and half of shard 1, so helpers go to the rest
+    // of shard 1 and then to shard 2.
+    assertEquals(1, partitioner.getMethodFragment(bindings, PACKAGE_A, "helper1").getShard());
+    assertEquals(2, partitioner.getMethodFragment(bindings, PACKAGE_A, "helper2").getShard());
+    assertEquals(2, partitioner.getMethodFragment(bindings, PACKAGE_A, "helper3").getShard());
+    assertEquals(3, partitioner.getMethodFragment(bindings, PACKAGE_A, "helper4").getShard());
+
+    // A method keeps its shard when it is asked for again.
+    assertEquals(1, partitioner.getMethodFragment(bindings, PACKAGE_A, "helper1").getShard());
+
+    // Other packages have shards of their own.
+    assertEquals(fragment(PACKAGE_B),
+        partitioner.getMethodFragment(bindings, PACKAGE_B, "helper5"));
+  }
+
+  public void testShardsMergedFragment() {
+    Key<?> a1 = addGetter("a1", PACKAGE_A, true, true);
+    Key<?> b1 = addGetter("b1", PACKAGE_B, true, true);
+    Key<?> b2 = addGetter("b2", PACKAGE_B, false, true);
+
+    FragmentPartitioner partitioner = createPartitioner(3, 1);
+
+    // a1 and b1 are merged into the shared fragment, which therefore exceeds
+    // the limit; b2 is alone in its package.
+    FragmentPackageName a1Fragment = partitioner.getGetterFragment(bindings, a1);
+    FragmentPackageName b1Fragment = partitioner.getGetterFragment(bindings, b1);
+    assertEquals(SHARED_PACKAGE, a1Fragment.toString());
+    assertEquals(SHARED_PACKAGE, b1Fragment.toString());
+    boolean a1First = nameGenerator.getGetterMethodName(a1)
+        .compareTo(nameGenerator.getGetterMethodName(b1)) < 0;
+    assertEquals(a1First ? 0 : 1, a1Fragment.getShard());
+    assertEquals(a1First ? 1 : 0, b1Fragment.getShard());
+    assertEquals(fragment(PACKAGE_B), partitioner.getGetterFragment(bindings, b2));
+  }
+
+  public void testGetMethodName() {
+    assertEquals("foo", FragmentPartitioner.getMethodName("public void foo(Bar bar)"));
+    assertEquals("get_Key",
+        FragmentPartitioner.getMethodName("private java.util.List<X> get_Key()"));
+  }
+
+  private FragmentPackageName fragment(String packageName) {
+    return fragmentPackageNameFactory.create(packageName);
+  }
+
+  /**
+   * Adds a getter to the bindings under test.
+   *
+   * @param mergeable whether the getter only forwards to another getter and so
+   *     may be moved to another package
+   * @param reachable whether the getter is reachable from the ginjector
+   */
+  private Key<?> addGetter(String name, String packageName, boolean mergeable,
+      boolean reachable) {
+    Key<?> key = Key.get(String.class, Names.named(name));
+    Binding binding = mergeable
+        ? control.createMock(BindClassBinding.class)
+        : control.createMock(Binding.class);
+    expect(binding.getGetterMethodPackage()).andStubReturn(packageName);
+    expect(binding.getDependencies()).andStubReturn(Collections.<Dependency>emptySet());
+    expect(binding.getMemberInjectRequests())
+        .andStubReturn(Collections.<TypeLiteral<?>>emptySet());
+
+    expect(bindings.getBinding(key)).andStubReturn(binding);
+    expect(bindings.determineScope(key))
+        .andStubReturn(reachable ? GinScope.EAGER_SINGLETON : GinScope.NO_SCOPE);
+    getters.put(key, binding);
+    return key;
+  }
+
+  private FragmentPartitioner createPartitioner(int mergeThreshold, int maxBindings) {
+    GinProperties properties = control.createMock(GinProperties.class);
+    expect(properties.getInteger(GinProperties.FRAGMENT_MERGE_THRESHOLD, 0))
+        .andStubReturn(mergeThreshold);
+    expect(properties.getInteger(GinProperties.FRAGMENT_MAX_BINDINGS, 0))
+        .andStubReturn(maxBindings);
+
+    control.replay();
+
+    // Eager singletons are roots, so the analyzer marks exactly the getters
+    // added as reachable.
+    ReachabilityAnalyzer reachabilityAnalyzer = new ReachabilityAnalyzer(null,
+        new Provider<MemberCollector>() {
+          public MemberCollector get() {
+            return new MemberCollector(TreeLogger.NULL);
+          }
+        }, bindings, TreeLogger.NULL);
+
+    return new FragmentPartitioner(fragmentPackageNameFactory, reachabilityAnalyzer,
+        TestGinjector.class, properties);
+  }
+
+  public interface TestGinjector extends Ginjector {}
+}
@@ -22,7 +22,9 @@ import static org.easymock.EasyMock.expect;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinProperties;
 import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.output.subpackage.SubPackageClass;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
@@ -32,6 +34,7 @@ import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.SourceSnippets;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
 import com.google.inject.Inject;
+import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 import junit.framework.TestCase;
 import org.easymock.Capture;
@@ -42,7 +45,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class GinjectorBindingsOutputterTest extends TestCase {
 
@@ -135,17 +140,30 @@ public class GinjectorBindingsOutputterTest extends TestCase {
             ginjectorPackageName, ginjectorClassName))
         .andStubReturn(fragmentOutputterSubpackage);
 
-    fragmentOutputter.outputMethod((InjectorMethod) anyObject());
-    fragmentOutputterSubpackage.outputMethod((InjectorMethod) anyObject());
+    expect(fragmentOutputter.outputMethod((InjectorMethod) anyObject())).andReturn(0);
+    expect(fragmentOutputterSubpackage.outputMethod((InjectorMethod) anyObject())).andReturn(0);
 
     fragmentOutputter.invokeInInitializeStaticInjections("test_injectSubClass");
     fragmentOutputterSubpackage.invokeInInitializeStaticInjections("test_injectSubPackageClass");
 
+    GinProperties properties = createMock(GinProperties.class, "properties");
+    expect(properties.getBoolean(GinProperties.DEFER_EAGER_SINGLETONS, false))
+        .andStubReturn(false);
+    expect(properties.getBoolean(GinProperties.EXPORT_BINDING_GRAPH, false))
+        .andStubReturn(false);
+    expect(properties.getBoolean(GinProperties.STATS_ENABLED, false)).andStubReturn(false);
+    expect(properties.getInteger((String) anyObject(), EasyMock.anyInt())).andStubReturn(0);
+    expect(bindings.getBindings())
+        .andStubReturn(Collections.<Map.Entry<Key<?>, Binding>>emptyList());
+
     replay();
 
-    GinjectorBindingsOutputter outputter = new GinjectorBindingsOutputter(ctx,
-        null, fragmentOutputterFactory, new TestFragmentPackageNameFactory(), null,
-        TreeLogger.NULL, methodCallUtil, null, null);
+    FragmentPartitioner fragmentPartitioner = new FragmentPartitioner(
+        new TestFragmentPackageNameFactory(), null, Ginjector.class, properties);
+    GinjectorBindingsOutputter outputter = new GinjectorBindingsOutputter(
+        new BindingGraphExporter(ctx, TreeLogger.NULL, properties), ctx,
+        null, fragmentOutputterFactory, fragmentPartitioner, null,
+        TreeLogger.NULL, methodCallUtil, null, null, properties);
     GinjectorBindingsOutputter.FragmentMap fragments =
         new GinjectorBindingsOutputter.FragmentMap(bindings, ginjectorPackageName,
             ginjectorClassName, fragmentOutputterFactory);
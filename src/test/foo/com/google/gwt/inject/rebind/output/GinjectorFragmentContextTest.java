@@ -0,0 +1,279 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.GinjectorNameGenerator;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.BindingIndex;
+import com.google.gwt.inject.rebind.output.GinjectorFragmentContext.FragmentReference;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.SourceWriteUtil;
+import com.google.gwt.user.rebind.SourceWriter;
+import com.google.inject.Key;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the direct references between fragments recorded by
+ * {@link GinjectorFragmentContext} and written by
+ * {@link GinjectorFragmentOutputter}.
+ */
+public class GinjectorFragmentContextTest extends TestCase {
+
+  private static final String PACKAGE_A = "com.google.gwt.inject.rebind.output.a";
+  private static final String PACKAGE_B = "com.google.gwt.inject.rebind.output.b";
+
+  private static final Key<String> KEY_A = Key.get(String.class);
+  private static final Key<Integer> KEY_B = Key.get(Integer.class);
+
+  private IMocksControl control;
+  private GinProperties properties;
+  private GinjectorNameGenerator ginjectorNameGenerator;
+  private SourceWriteUtil.Factory sourceWriteUtilFactory;
+  private FragmentPartitioner fragmentPartitioner;
+  private FragmentPackageName.Factory fragmentPackageNameFactory;
+
+  private GinjectorBindings parentBindings;
+  private GinjectorBindings bindings;
+  private GinjectorBindings childBindings;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+
+    properties = control.createMock(GinProperties.class);
+    expect(properties.getInteger((String) anyObject(), EasyMock.anyInt())).andStubReturn(0);
+    expect(properties.getBoolean((String) anyObject(), EasyMock.anyBoolean()))
+        .andStubReturn(false);
+
+    ginjectorNameGenerator = control.createMock(GinjectorNameGenerator.class);
+    parentBindings = createBindings("ParentGinjector", null);
+    bindings = createBindings("Ginjector", parentBindings);
+    childBindings = createBindings("ChildGinjector", bindings);
+
+    sourceWriteUtilFactory = control.createMock(SourceWriteUtil.Factory.class);
+    expect(sourceWriteUtilFactory.create((BindingIndex) anyObject()))
+        .andStubReturn(new SourceWriteUtil(null, null, null, null) {});
+
+    fragmentPackageNameFactory = new FragmentPackageName.Factory() {
+      public FragmentPackageName create(String packageName) {
+        return new FragmentPackageName(Ginjector.class, packageName);
+      }
+    };
+  }
+
+  private GinjectorBindings createBindings(String className, GinjectorBindings parent) {
+    Binding bindingA = createBinding(PACKAGE_A);
+    Binding bindingB = createBinding(PACKAGE_B);
+
+    GinjectorBindings result = control.createMock(className, GinjectorBindings.class);
+    expect(result.getNameGenerator()).andStubReturn(new NameGenerator());
+    expect(result.getParent()).andStubReturn(parent);
+    expect(result.getBindings())
+        .andStubReturn(Collections.<Map.Entry<Key<?>, Binding>>emptyList());
+    expect(result.getBinding(KEY_A)).andStubReturn(bindingA);
+    expect(result.getBinding(KEY_B)).andStubReturn(bindingB);
+    expect(ginjectorNameGenerator.getClassName(result)).andStubReturn(className);
+    return result;
+  }
+
+  private Binding createBinding(String getterPackage) {
+    Binding binding = control.createMock(Binding.class);
+    expect(binding.getGetterMethodPackage()).andStubReturn(getterPackage);
+    return binding;
+  }
+
+  private void replay() {
+    control.replay();
+    fragmentPartitioner = new FragmentPartitioner(fragmentPackageNameFactory, null,
+        Ginjector.class, properties);
+  }
+
+  private GinjectorFragmentContext createContext(GinjectorBindings contextBindings,
+      String packageName) {
+    return new GinjectorFragmentContext(null, fragmentPartitioner, ginjectorNameGenerator,
+        sourceWriteUtilFactory, contextBindings, fragmentPackageNameFactory.create(packageName),
+        null);
+  }
+
+  public void testGetterInSameFragmentIsCalledDirectly() {
+    replay();
+    GinjectorFragmentContext context = createContext(bindings, PACKAGE_A);
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    assertEquals(nameGenerator.getGetterMethodName(KEY_A) + "()", context.callGetter(KEY_A));
+    assertTrue(context.getFragmentReferences().isEmpty());
+  }
+
+  public void testPeerFragmentsReferToEachOther() {
+    replay();
+    GinjectorFragmentContext contextA = createContext(bindings, PACKAGE_A);
+    GinjectorFragmentContext contextB = createContext(bindings, PACKAGE_B);
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    FragmentPackageName packageA = fragmentPackageNameFactory.create(PACKAGE_A);
+    FragmentPackageName packageB = fragmentPackageNameFactory.create(PACKAGE_B);
+    String fieldA = nameGenerator.getFragmentReferenceFieldName("Ginjector", packageA);
+    String fieldB = nameGenerator.getFragmentReferenceFieldName("Ginjector", packageB);
+
+    assertEquals(fieldB + "." + nameGenerator.getGetterMethodName(KEY_B) + "()",
+        contextA.callGetter(KEY_B));
+    assertEquals(fieldA + "." + nameGenerator.getGetterMethodName(KEY_A) + "()",
+        contextB.callGetter(KEY_A));
+
+    // Neither fragment exists when the other one is constructed, so both
+    // references are wired afterwards.
+    FragmentReference referenceToB = getOnlyReference(contextA);
+    assertEquals(fieldB, referenceToB.getFieldName());
+    assertEquals(PACKAGE_B + ".Ginjector_fragment", referenceToB.getClassName());
+    assertEquals("injector." + nameGenerator.getFragmentGetterMethodName(packageB) + "()",
+        referenceToB.getInitializer());
+    assertFalse(referenceToB.isFinal());
+
+    FragmentReference referenceToA = getOnlyReference(contextB);
+    assertEquals(fieldA, referenceToA.getFieldName());
+    assertEquals(PACKAGE_A + ".Ginjector_fragment", referenceToA.getClassName());
+    assertEquals("injector." + nameGenerator.getFragmentGetterMethodName(packageA) + "()",
+        referenceToA.getInitializer());
+    assertFalse(referenceToA.isFinal());
+  }
+
+  public void testRepeatedCallsShareOneReference() {
+    replay();
+    GinjectorFragmentContext context = createContext(bindings, PACKAGE_A);
+
+    context.callGetter(KEY_B);
+    context.callMethod("foo", PACKAGE_B, Collections.<String>emptyList());
+    context.callGetter(KEY_B);
+
+    getOnlyReference(context);
+  }
+
+  public void testParentReferenceIsFinal() {
+    replay();
+    GinjectorFragmentContext context = createContext(bindings, PACKAGE_A);
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    FragmentPackageName packageB = fragmentPackageNameFactory.create(PACKAGE_B);
+    String field = nameGenerator.getFragmentReferenceFieldName("ParentGinjector", packageB);
+
+    assertEquals(field + "." + nameGenerator.getGetterMethodName(KEY_B) + "()",
+        context.callParentGetter(KEY_B, parentBindings));
+
+    FragmentReference reference = getOnlyReference(context);
+    assertEquals(PACKAGE_B + ".ParentGinjector_fragment", reference.getClassName());
+    assertEquals("injector.getParent()." + nameGenerator.getFragmentGetterMethodName(packageB)
+        + "()", reference.getInitializer());
+    assertTrue(reference.isFinal());
+  }
+
+  public void testChildReferenceIsWiredLater() {
+    replay();
+    GinjectorFragmentContext context = createContext(bindings, PACKAGE_A);
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    FragmentPackageName packageA = fragmentPackageNameFactory.create(PACKAGE_A);
+    String field = nameGenerator.getFragmentReferenceFieldName("ChildGinjector", packageA);
+
+    // The child's fragment for the same package is a different class, so
+    // even a call into the same package goes through a reference.
+    assertEquals(field + "." + childBindings.getNameGenerator().getGetterMethodName(KEY_A) + "()",
+        context.callChildGetter(childBindings, KEY_A));
+
+    FragmentReference reference = getOnlyReference(context);
+    assertEquals(PACKAGE_A + ".ChildGinjector_fragment", reference.getClassName());
+    assertEquals("injector." + nameGenerator.getChildInjectorGetterMethodName("ChildGinjector")
+        + "()." + childBindings.getNameGenerator().getFragmentGetterMethodName(packageA) + "()",
+        reference.getInitializer());
+    assertFalse(reference.isFinal());
+  }
+
+  public void testFragmentWritesReferences() {
+    StringWriter output = new StringWriter();
+    GeneratorContext ctx = control.createMock(GeneratorContext.class);
+    expect(ctx.tryCreate((TreeLogger) anyObject(), (String) anyObject(), (String) anyObject()))
+        .andStubReturn(new PrintWriter(output));
+
+    final List<GinjectorFragmentContext> contexts = new ArrayList<GinjectorFragmentContext>();
+    GinjectorFragmentContext.Factory contextFactory = new GinjectorFragmentContext.Factory() {
+      public GinjectorFragmentContext create(GinjectorBindings contextBindings,
+          FragmentPackageName fragmentPackageName, SourceWriter sourceWriter) {
+        GinjectorFragmentContext context = new GinjectorFragmentContext(null, fragmentPartitioner,
+            ginjectorNameGenerator, sourceWriteUtilFactory, contextBindings, fragmentPackageName,
+            sourceWriter);
+        contexts.add(context);
+        return context;
+      }
+    };
+
+    replay();
+    GinjectorFragmentOutputter outputter = new GinjectorFragmentOutputter(ctx, contextFactory,
+        null, TreeLogger.NULL, sourceWriteUtilFactory, properties, bindings,
+        fragmentPackageNameFactory.create(PACKAGE_A), "com.google.gwt.inject.rebind.output",
+        "Ginjector");
+
+    GinjectorFragmentContext context = contexts.get(0);
+    context.callGetter(KEY_B);
+    context.callParentGetter(KEY_B, parentBindings);
+    assertTrue(outputter.hasFragmentReferenceInitialization());
+
+    outputter.commit();
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    FragmentPackageName packageB = fragmentPackageNameFactory.create(PACKAGE_B);
+    String peerField = nameGenerator.getFragmentReferenceFieldName("Ginjector", packageB);
+    String parentField = nameGenerator.getFragmentReferenceFieldName("ParentGinjector", packageB);
+    String fragmentGetter = nameGenerator.getFragmentGetterMethodName(packageB);
+
+    String source = output.toString();
+    assertTrue(source, source.contains(
+        "private " + PACKAGE_B + ".Ginjector_fragment " + peerField + ";"));
+    assertTrue(source, source.contains(
+        "private final " + PACKAGE_B + ".ParentGinjector_fragment " + parentField + ";"));
+    assertTrue(source, source.contains(
+        parentField + " = injector.getParent()." + fragmentGetter + "();"));
+    assertTrue(source, source.contains("public void initializeFragmentReferences() {"));
+    assertTrue(source, source.contains(peerField + " = injector." + fragmentGetter + "();"));
+
+    // The peer reference is only wired after construction.
+    String constructor = source.substring(
+        source.indexOf("public Ginjector_fragment(Ginjector injector) {"),
+        source.indexOf("public void initializeFragmentReferences() {"));
+    assertFalse(constructor, constructor.contains(peerField + " ="));
+  }
+
+  private FragmentReference getOnlyReference(GinjectorFragmentContext context) {
+    assertEquals(1, context.getFragmentReferences().size());
+    return context.getFragmentReferences().iterator().next();
+  }
+}
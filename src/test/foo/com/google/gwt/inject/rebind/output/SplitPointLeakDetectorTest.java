@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the detection of leaked split points by {@link SplitPointLeakDetector}.
+ */
+public class SplitPointLeakDetectorTest extends TestCase {
+
+  private static final Key<?> ROOT = Key.get(String.class, Names.named("root"));
+  private static final Key<?> ASYNC = Key.get(String.class, Names.named("async"));
+  private static final Key<?> TARGET = Key.get(String.class, Names.named("target"));
+  private static final Key<?> TARGET_DEPENDENCY =
+      Key.get(String.class, Names.named("targetDependency"));
+
+  private IMocksControl control;
+  private GinjectorBindings bindings;
+  private Map<Key<?>, Binding> bindingsByKey;
+  private Map<Key<?>, Set<Dependency>> dependencies;
+  private ErrorManager errorManager;
+  private WarningLogger logger;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+    bindingsByKey = new LinkedHashMap<Key<?>, Binding>();
+    dependencies = new LinkedHashMap<Key<?>, Set<Dependency>>();
+    errorManager = new ErrorManager(TreeLogger.NULL);
+    logger = new WarningLogger();
+
+    bindings = control.createMock(GinjectorBindings.class);
+    expect(bindings.getBindings())
+        .andStubReturn((Iterable<Map.Entry<Key<?>, Binding>>) bindingsByKey.entrySet());
+    expect(bindings.getGinjectorInterface())
+        .andStubReturn((TypeLiteral) TypeLiteral.get(TestGinjector.class));
+    expect(bindings.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(bindings.getStaticInjectionRequests())
+        .andStubReturn(Collections.<Class<?>>emptyList());
+
+    // The eager singleton ROOT loads TARGET (and its dependency) through an
+    // AsyncProvider.
+    addBinding(ROOT, control.createMock(Binding.class), GinScope.EAGER_SINGLETON);
+    addBinding(ASYNC, control.createMock(AsyncProviderBinding.class), GinScope.NO_SCOPE);
+    addBinding(TARGET, control.createMock(Binding.class), GinScope.NO_SCOPE);
+    addBinding(TARGET_DEPENDENCY, control.createMock(Binding.class), GinScope.NO_SCOPE);
+    addDependency(ROOT, ASYNC);
+    addDependency(ASYNC, TARGET);
+    addDependency(TARGET, TARGET_DEPENDENCY);
+  }
+
+  public void testNoLeak() throws Exception {
+    createDetector(false).check();
+
+    assertTrue(logger.warnings.isEmpty());
+  }
+
+  public void testLeakIsErrorInStrictMode() throws Exception {
+    // ROOT also reaches TARGET's dependency without the AsyncProvider.
+    addDependency(ROOT, TARGET_DEPENDENCY);
+
+    try {
+      createDetector(true).check();
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  public void testLeakIsWarningByDefault() throws Exception {
+    addDependency(ROOT, TARGET);
+
+    createDetector(false).check();
+
+    assertEquals(1, logger.warnings.size());
+    String warning = logger.warnings.get(0);
+    assertTrue(warning, warning.contains("does not introduce a split point: 2 of the bindings"));
+    assertTrue(warning, warning.contains("async"));
+  }
+
+  public void testUnreachableAsyncProviderIsIgnored() throws Exception {
+    // ROOT loads TARGET synchronously, and nothing uses the AsyncProvider.
+    dependencies.get(ROOT).clear();
+    addDependency(ROOT, TARGET);
+
+    createDetector(true).check();
+
+    assertTrue(logger.warnings.isEmpty());
+  }
+
+  private void addBinding(Key<?> key, Binding binding, GinScope scope) {
+    Set<Dependency> bindingDependencies = new LinkedHashSet<Dependency>();
+    expect(binding.getDependencies()).andStubReturn(bindingDependencies);
+    expect(binding.getMemberInjectRequests())
+        .andStubReturn(Collections.<TypeLiteral<?>>emptySet());
+    expect(bindings.getBinding(key)).andStubReturn(binding);
+    expect(bindings.determineScope(key)).andStubReturn(scope);
+
+    bindingsByKey.put(key, binding);
+    dependencies.put(key, bindingDependencies);
+  }
+
+  private void addDependency(Key<?> source, Key<?> target) {
+    dependencies.get(source).add(new Dependency(source, target, "test"));
+  }
+
+  private SplitPointLeakDetector createDetector(boolean strict) {
+    GinProperties properties = control.createMock(GinProperties.class);
+    expect(properties.getBoolean(GinProperties.STRICT_SPLIT_POINTS, false)).andStubReturn(strict);
+
+    control.replay();
+
+    ReachabilityAnalyzer reachabilityAnalyzer = new ReachabilityAnalyzer(null,
+        new Provider<MemberCollector>() {
+          public MemberCollector get() {
+            return new MemberCollector(TreeLogger.NULL);
+          }
+        }, bindings, TreeLogger.NULL);
+
+    return new SplitPointLeakDetector(reachabilityAnalyzer, errorManager, logger, bindings,
+        properties);
+  }
+
+  private static class WarningLogger extends TreeLogger {
+    final List<String> warnings = new ArrayList<String>();
+
+    @Override
+    public TreeLogger branch(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      log(type, msg, caught, helpInfo);
+      return this;
+    }
+
+    @Override
+    public boolean isLoggable(Type type) {
+      return type == Type.WARN;
+    }
+
+    @Override
+    public void log(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      if (isLoggable(type)) {
+        warnings.add(msg);
+      }
+    }
+  }
+
+  public interface TestGinjector extends Ginjector {}
+}
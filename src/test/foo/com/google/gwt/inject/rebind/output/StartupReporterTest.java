@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.same;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.InitializeSynchronously;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the startup report and budget of {@link StartupReporter}.
+ */
+public class StartupReporterTest extends TestCase {
+
+  private static final Key<?> SYNCHRONOUS = Key.get(SynchronousSingleton.class);
+  private static final Key<?> DEFERRED = Key.get(DeferredSingleton.class);
+  private static final Key<?> DEPENDENCY = Key.get(EagerDependency.class);
+  private static final Key<?> LAZY_DEPENDENCY = Key.get(LazyDependency.class);
+
+  private IMocksControl control;
+  private GinjectorBindings bindings;
+  private GeneratorContext ctx;
+  private Map<Key<?>, Binding> bindingsByKey;
+  private Map<Key<?>, Set<Dependency>> dependencies;
+  private ErrorManager errorManager;
+  private boolean replayed;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+    bindingsByKey = new LinkedHashMap<Key<?>, Binding>();
+    dependencies = new LinkedHashMap<Key<?>, Set<Dependency>>();
+    errorManager = new ErrorManager(TreeLogger.NULL);
+    ctx = control.createMock(GeneratorContext.class);
+
+    bindings = control.createMock(GinjectorBindings.class);
+    expect(bindings.getBindings())
+        .andStubReturn((Iterable<Map.Entry<Key<?>, Binding>>) bindingsByKey.entrySet());
+    expect(bindings.getGinjectorInterface())
+        .andStubReturn((TypeLiteral) TypeLiteral.get(TestGinjector.class));
+    expect(bindings.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(bindings.getStaticInjectionRequests())
+        .andStubReturn(Collections.<Class<?>>emptyList());
+
+    // The synchronous singleton creates its dependency right away and the
+    // lazy one only when asked to.
+    addBinding(SYNCHRONOUS, GinScope.EAGER_SINGLETON);
+    addBinding(DEFERRED, GinScope.EAGER_SINGLETON);
+    addBinding(DEPENDENCY, GinScope.NO_SCOPE);
+    addBinding(LAZY_DEPENDENCY, GinScope.NO_SCOPE);
+    dependencies.get(SYNCHRONOUS).add(new Dependency(SYNCHRONOUS, DEPENDENCY, "test"));
+    dependencies.get(SYNCHRONOUS)
+        .add(new Dependency(SYNCHRONOUS, LAZY_DEPENDENCY, false, true, "test"));
+  }
+
+  public void testCountsAllEagerSingletons() throws Exception {
+    createReporter(false, 3).report();
+
+    try {
+      createReporter(false, 2).report();
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  public void testCountsSynchronousSingletonsWhenDeferred() throws Exception {
+    // Only the synchronous singleton and its eager dependency count.
+    createReporter(true, 2).report();
+
+    try {
+      createReporter(true, 1).report();
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  public void testNoBudget() throws Exception {
+    createReporter(false, -1).report();
+  }
+
+  public void testWritesReport() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    String path = "gin/startup/" + TestGinjector.class.getName() + ".txt";
+    GeneratedResource resource = control.createMock(GeneratedResource.class);
+    expect(ctx.tryCreateResource(TreeLogger.NULL, path)).andReturn(output);
+    expect(ctx.commitResource(same(TreeLogger.NULL), same(output))).andReturn(resource);
+
+    StartupReporter reporter = createReporter(true, -1, true);
+    reporter.report();
+
+    String report = output.toString("UTF-8");
+    assertTrue(report, report.contains(": 2"));
+    assertTrue(report, report.contains(SynchronousSingleton.class.getSimpleName()));
+    assertTrue(report, report.contains(EagerDependency.class.getSimpleName()));
+    assertFalse(report, report.contains(DeferredSingleton.class.getSimpleName()));
+    assertFalse(report, report.contains(LazyDependency.class.getSimpleName()));
+  }
+
+  private void addBinding(Key<?> key, GinScope scope) {
+    Binding binding = control.createMock(Binding.class);
+    Set<Dependency> bindingDependencies = new LinkedHashSet<Dependency>();
+    expect(binding.getDependencies()).andStubReturn(bindingDependencies);
+    expect(binding.getMemberInjectRequests())
+        .andStubReturn(Collections.<TypeLiteral<?>>emptySet());
+    expect(bindings.getBinding(key)).andStubReturn(binding);
+    expect(bindings.determineScope(key)).andStubReturn(scope);
+
+    bindingsByKey.put(key, binding);
+    dependencies.put(key, bindingDependencies);
+  }
+
+  private StartupReporter createReporter(boolean deferEagerSingletons, int maxBindings) {
+    return createReporter(deferEagerSingletons, maxBindings, false);
+  }
+
+  private StartupReporter createReporter(boolean deferEagerSingletons, int maxBindings,
+      boolean writeReport) {
+    GinProperties properties = EasyMock.createNiceMock(GinProperties.class);
+    expect(properties.getBoolean(GinProperties.DEFER_EAGER_SINGLETONS, false))
+        .andStubReturn(deferEagerSingletons);
+    expect(properties.getBoolean(GinProperties.STARTUP_REPORT, false)).andStubReturn(writeReport);
+    expect(properties.getInteger(GinProperties.STARTUP_MAX_BINDINGS, -1))
+        .andStubReturn(maxBindings);
+    EasyMock.replay(properties);
+
+    // The mocks are shared by the reporters created in the same test.
+    if (!replayed) {
+      control.replay();
+      replayed = true;
+    }
+
+    ReachabilityAnalyzer reachabilityAnalyzer = new ReachabilityAnalyzer(null,
+        new Provider<MemberCollector>() {
+          public MemberCollector get() {
+            return new MemberCollector(TreeLogger.NULL);
+          }
+        }, bindings, TreeLogger.NULL);
+
+    return new StartupReporter(reachabilityAnalyzer, errorManager, ctx, TreeLogger.NULL,
+        bindings, properties);
+  }
+
+  public interface TestGinjector extends Ginjector {}
+
+  @InitializeSynchronously
+  public static class SynchronousSingleton {}
+
+  public static class DeferredSingleton {}
+
+  public static class EagerDependency {}
+
+  public static class LazyDependency {}
+}
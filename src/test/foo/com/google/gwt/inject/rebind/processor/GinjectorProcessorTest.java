@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.processor;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+public class GinjectorProcessorTest extends TestCase {
+
+  private File outputDir;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    outputDir = File.createTempFile("gin", "processor");
+    outputDir.delete();
+    outputDir.mkdir();
+  }
+
+  public void testIndexesGinjectors() throws Exception {
+    DiagnosticCollector<JavaFileObject> diagnostics = compile(source("foo.FooGinjector",
+        "package foo;\n"
+        + "@com.google.gwt.inject.client.GinModules(FooGinjector.FooModule.class)\n"
+        + "public interface FooGinjector extends com.google.gwt.inject.client.Ginjector {\n"
+        + "  class FooModule extends com.google.gwt.inject.client.AbstractGinModule {\n"
+        + "    protected void configure() {}\n"
+        + "  }\n"
+        + "  interface Nested extends FooGinjector {}\n"
+        + "}\n"));
+
+    assertTrue(diagnostics.getDiagnostics().toString(), errors(diagnostics).isEmpty());
+    assertEquals(Arrays.asList("foo.FooGinjector", "foo.FooGinjector$Nested"), readIndex());
+  }
+
+  public void testReportsInvalidModules() throws Exception {
+    DiagnosticCollector<JavaFileObject> diagnostics = compile(source("foo.BarGinjector",
+        "package foo;\n"
+        + "@com.google.gwt.inject.client.GinModules({BarGinjector.AbstractModule.class,"
+        + " BarGinjector.NoDefaultConstructor.class})\n"
+        + "public interface BarGinjector extends com.google.gwt.inject.client.Ginjector {\n"
+        + "  abstract class AbstractModule\n"
+        + "      extends com.google.gwt.inject.client.AbstractGinModule {}\n"
+        + "  class NoDefaultConstructor extends com.google.gwt.inject.client.AbstractGinModule {\n"
+        + "    NoDefaultConstructor(int x) {}\n"
+        + "    protected void configure() {}\n"
+        + "  }\n"
+        + "}\n"));
+
+    List<String> errors = errors(diagnostics);
+    assertEquals(errors.toString(), 2, errors.size());
+    assertTrue(errors.get(0), errors.get(0).contains("must be a concrete class"));
+    assertTrue(errors.get(1), errors.get(1).contains("zero-argument constructor"));
+  }
+
+  public void testMergesWithExistingIndex() throws Exception {
+    // An incremental build that only recompiles one of two ginjectors.
+    compile(source("foo.FooGinjector",
+        "package foo;\n"
+        + "public interface FooGinjector extends com.google.gwt.inject.client.Ginjector {}\n"),
+        false);
+    DiagnosticCollector<JavaFileObject> diagnostics = compile(source("bar.BarGinjector",
+        "package bar;\n"
+        + "public interface BarGinjector extends com.google.gwt.inject.client.Ginjector {}\n"),
+        false);
+
+    assertTrue(diagnostics.getDiagnostics().toString(), errors(diagnostics).isEmpty());
+    assertEquals(Arrays.asList("foo.FooGinjector", "bar.BarGinjector"), readIndex());
+  }
+
+  public void testDropsEntriesThatAreNoLongerGinjectors() throws Exception {
+    compile(source("foo.FooGinjector",
+        "package foo;\n"
+        + "public interface FooGinjector extends com.google.gwt.inject.client.Ginjector {}\n"),
+        false);
+
+    // FooGinjector is no longer a ginjector, and BazGinjector is gone.
+    File index = new File(outputDir, GinjectorProcessor.INDEX_RESOURCE);
+    Writer writer = new FileWriter(index, true);
+    writer.write("baz.BazGinjector\n");
+    writer.close();
+    compile(source("foo.FooGinjector", "package foo;\npublic interface FooGinjector {}\n"),
+        false);
+    compile(source("bar.BarGinjector",
+        "package bar;\n"
+        + "public interface BarGinjector extends com.google.gwt.inject.client.Ginjector {}\n"),
+        false);
+
+    assertEquals(Arrays.asList("bar.BarGinjector"), readIndex());
+  }
+
+  private DiagnosticCollector<JavaFileObject> compile(JavaFileObject source) {
+    return compile(source, true);
+  }
+
+  /**
+   * Compiles the given source into the output directory, which is also on the
+   * class path.
+   *
+   * @param processOnly whether to only run annotation processing, without
+   *     writing class files
+   */
+  private DiagnosticCollector<JavaFileObject> compile(JavaFileObject source, boolean processOnly) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    List<String> options = new ArrayList<String>(Arrays.asList("-classpath",
+        System.getProperty("java.class.path") + File.pathSeparator + outputDir.getPath(),
+        "-d", outputDir.getPath()));
+    if (processOnly) {
+      options.add("-proc:only");
+    }
+    JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+        Collections.singleton(source));
+    task.setProcessors(Collections.singleton(new GinjectorProcessor()));
+    task.call();
+    return diagnostics;
+  }
+
+  private List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+    List<String> errors = new ArrayList<String>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.getMessage(null));
+      }
+    }
+    return errors;
+  }
+
+  private List<String> readIndex() throws Exception {
+    List<String> lines = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(
+        new FileReader(new File(outputDir, GinjectorProcessor.INDEX_RESOURCE)));
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        lines.add(line);
+      }
+    } finally {
+      reader.close();
+    }
+    return lines;
+  }
+
+  private static JavaFileObject source(String className, final String code) {
+    return new SimpleJavaFileObject(
+        URI.create("string:///" + className.replace('.', '/') + ".java"),
+        JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+}
@@ -20,11 +20,18 @@ import static org.easymock.EasyMock.expect;
 
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.rebind.GinProperties;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
+import com.google.gwt.inject.client.Lazy;
+import com.google.gwt.inject.client.MyRemoteServiceAsync;
 import com.google.gwt.inject.rebind.binding.CallGwtDotCreateBinding;
+import com.google.gwt.inject.rebind.binding.LazyBinding;
+import com.google.gwt.inject.rebind.binding.RemoteServiceProxyBinding;
 import com.google.gwt.inject.rebind.resolution.ImplicitBindingCreator.BindingCreationException;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
+import java.util.Collections;
+
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -39,6 +46,7 @@ public class ImplicitBindingCreatorTest extends TestCase {
   private BindingFactory bindingFactory;
   private GeneratorContext generatorContext;
   private TreeLogger treeLogger;
+  private GinProperties properties;
 
   private void replay() {
     control.replay();
@@ -57,8 +65,13 @@ public class ImplicitBindingCreatorTest extends TestCase {
     this.callGwtDotCreateBinding = control.createMock(CallGwtDotCreateBinding.class);
     this.generatorContext = control.createMock(GeneratorContext.class);
     this.treeLogger = control.createMock(TreeLogger.class);
+    this.properties = control.createMock(GinProperties.class);
+
+    expect(properties.getValues(GinProperties.SHARED_GWT_CREATE_TYPES))
+        .andStubReturn(Collections.singleton(Stateless.class.getName()));
 
-    bindingCreator = new ImplicitBindingCreator(bindingFactory, this.generatorContext, treeLogger);
+    bindingCreator = new ImplicitBindingCreator(bindingFactory, this.generatorContext, properties,
+        treeLogger);
   }
 
   protected void tearDown() throws Exception {
@@ -142,6 +155,41 @@ public class ImplicitBindingCreatorTest extends TestCase {
         bindingCreator.create(Key.get(NoNullaryConstructor.class)));
   }
 
+  public void testCreate_lazy() throws BindingCreationException {
+    Key<Lazy<Interface>> lazyKey = Key.get(new TypeLiteral<Lazy<Interface>>() {});
+    LazyBinding lazyBinding = control.createMock(LazyBinding.class);
+    expect(bindingFactory.getLazyBinding(lazyKey)).andReturn(lazyBinding);
+    replay();
+
+    // Verify that Lazy<T> keys get a lazy binding without looking for a rebind
+    // rule or constructor of the lazy type itself.
+    assertEquals(lazyBinding, bindingCreator.create(lazyKey));
+  }
+
+  public void testCreate_sharedType() throws BindingCreationException {
+    expect(generatorContext.checkRebindRuleAvailable(StatelessSubtype.class.getCanonicalName()))
+        .andStubReturn(true);
+    expect(bindingFactory.getSharedCallGwtDotCreateBinding(TypeLiteral.get(StatelessSubtype.class)))
+        .andReturn(callGwtDotCreateBinding);
+    replay();
+
+    // Verify that subtypes of the configured stateless types get a shared
+    // binding.
+    assertEquals(callGwtDotCreateBinding, bindingCreator.create(Key.get(StatelessSubtype.class)));
+  }
+
+  public void testCreate_remoteServiceProxy_batching()
+      throws BindingCreationException {
+    RemoteServiceProxyBinding proxyBinding = control.createMock(RemoteServiceProxyBinding.class);
+    expect(properties.getBoolean(GinProperties.RPC_BATCHING, false))
+        .andReturn(true);
+    expect(bindingFactory.getRemoteServiceProxyBinding(
+        TypeLiteral.get(MyRemoteServiceAsync.class), true)).andReturn(proxyBinding);
+    replay();
+
+    assertEquals(proxyBinding, bindingCreator.create(Key.get(MyRemoteServiceAsync.class)));
+  }
+
   private static class NoConstructor {
   }
 
@@ -160,4 +208,10 @@ public class ImplicitBindingCreatorTest extends TestCase {
 
   private interface Interface {
   }
+
+  private interface Stateless {
+  }
+
+  private interface StatelessSubtype extends Interface, Stateless {
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.inject.Inject;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+public class ClassFileScannerTest extends TestCase {
+
+  private static final Collection<String> INJECT_DESCRIPTORS = Arrays.asList(
+      ClassFileScanner.getDescriptor(Inject.class),
+      ClassFileScanner.getDescriptor(javax.inject.Inject.class));
+
+  public void testGetDescriptor() {
+    assertEquals("Lcom/google/inject/Inject;", ClassFileScanner.getDescriptor(Inject.class));
+    assertEquals("Lcom/google/gwt/inject/rebind/util/ClassFileScannerTest$Plain;",
+        ClassFileScanner.getDescriptor(Plain.class));
+  }
+
+  public void testInjectedField() {
+    assertTrue(ClassFileScanner.mayReferTo(InjectedField.class, INJECT_DESCRIPTORS));
+  }
+
+  public void testInjectedMethod() {
+    assertTrue(ClassFileScanner.mayReferTo(InjectedMethod.class, INJECT_DESCRIPTORS));
+  }
+
+  public void testNothingInjected() {
+    assertFalse(ClassFileScanner.mayReferTo(Plain.class, INJECT_DESCRIPTORS));
+  }
+
+  public void testBootstrapClass() {
+    assertFalse(ClassFileScanner.mayReferTo(String.class, INJECT_DESCRIPTORS));
+  }
+
+  public void testArrayFallsBack() {
+    assertTrue(ClassFileScanner.mayReferTo(Plain[].class, INJECT_DESCRIPTORS));
+  }
+
+  static class Plain {
+    private long big = 1L << 40;
+    private double ratio = 0.5;
+    private String name = "plain";
+
+    String describe(Plain other) {
+      return name + big + ratio + other;
+    }
+  }
+
+  static class InjectedField {
+    @Inject String name;
+  }
+
+  static class InjectedMethod {
+    @javax.inject.Inject
+    void setName(String name) {
+    }
+  }
+}
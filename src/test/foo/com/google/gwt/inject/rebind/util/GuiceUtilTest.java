@@ -128,6 +128,13 @@ public class GuiceUtilTest extends TestCase {
     }
   }
 
+  public void testGetKey_internedPerInstance() throws NoSuchFieldException {
+    GuiceUtil guiceUtil = new GuiceUtil(createInjectableCollector());
+    Key<?> key = guiceUtil.getKey((FieldLiteral<?>) getField("unAnnotated"));
+    assertSame(key, guiceUtil.getKey((FieldLiteral<?>) getField("unAnnotated")));
+    assertNotSame(key, getFieldKey("unAnnotated"));
+  }
+
   private Key<?> getFieldKey(String name) throws NoSuchFieldException {
     return new GuiceUtil(createInjectableCollector()).getKey((FieldLiteral<?>) getField(name));
   }
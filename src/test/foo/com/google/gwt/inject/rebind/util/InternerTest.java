@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.inject.client.MyBindingAnnotation;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class InternerTest extends TestCase {
+
+  public void testInternKey() {
+    Interner interner = new Interner();
+    Key<?> key = interner.intern(Key.get(String.class, MyBindingAnnotation.class));
+    assertSame(key, interner.intern(Key.get(String.class, MyBindingAnnotation.class)));
+    assertNotSame(key, interner.intern(Key.get(String.class)));
+  }
+
+  public void testInternTypeLiteral() {
+    Interner interner = new Interner();
+    TypeLiteral<?> typeLiteral = interner.intern(new TypeLiteral<List<String>>() {});
+    assertSame(typeLiteral, interner.intern(new TypeLiteral<List<String>>() {}));
+  }
+
+  public void testInstancesAreIndependent() {
+    Key<?> key = new Interner().intern(Key.get(String.class));
+    assertNotSame(key, new Interner().intern(Key.get(String.class)));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+
+/**
+ * Tests the direct constructor calls of {@link MethodCallUtil}.
+ */
+public class MethodCallUtilTest extends TestCase {
+
+  private static final String PACKAGE = MethodCallUtilTest.class.getPackage().getName();
+
+  private final MethodCallUtil methodCallUtil = new MethodCallUtil(null);
+
+  public void testPublicConstructorIsCalledDirectly() throws Exception {
+    InjectorWriteContext writeContext = EasyMock.createMock(InjectorWriteContext.class);
+    expect(writeContext.callGetter(Key.get(Integer.class))).andReturn("get_Integer()");
+    EasyMock.replay(writeContext);
+
+    SourceSnippet call = methodCallUtil.createDirectConstructorCall(
+        constructor(Target.class, String.class, int.class), "Target", "other.pkg",
+        new String[] {"name", null});
+
+    assertEquals("new Target(name, (int) get_Integer())", call.getSource(writeContext));
+    EasyMock.verify(writeContext);
+  }
+
+  public void testPackagePrivateConstructorOnlyInSamePackage() throws Exception {
+    MethodLiteral<?, Constructor<?>> constructor = constructor(Target.class, String.class);
+
+    assertNull(methodCallUtil.createDirectConstructorCall(constructor, "Target", "other.pkg",
+        new String[] {"name"}));
+    assertNotNull(methodCallUtil.createDirectConstructorCall(constructor, "Target", PACKAGE,
+        new String[] {"name"}));
+  }
+
+  public void testPrivateConstructorIsNotCalledDirectly() throws Exception {
+    assertNull(methodCallUtil.createDirectConstructorCall(constructor(Target.class), "Target",
+        PACKAGE, new String[0]));
+  }
+
+  public void testThrowingConstructorIsNotCalledDirectly() throws Exception {
+    assertNull(methodCallUtil.createDirectConstructorCall(
+        constructor(Target.class, Object.class), "Target", PACKAGE, new String[1]));
+  }
+
+  private MethodLiteral<?, Constructor<?>> constructor(Class<?> type, Class<?>... parameterTypes)
+      throws NoSuchMethodException {
+    return MethodLiteral.get(type.getDeclaredConstructor(parameterTypes), TypeLiteral.get(type));
+  }
+
+  public static class Target {
+    public Target(String name, int count) {}
+
+    Target(String name) {}
+
+    private Target() {}
+
+    public Target(Object value) throws IOException {}
+  }
+}
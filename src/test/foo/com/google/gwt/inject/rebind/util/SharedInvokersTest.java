@@ -0,0 +1,242 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.inject.rebind.ErrorManager;
+import com.google.gwt.inject.rebind.GinProperties;
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.inject.TypeLiteral;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Tests the naming and writing of shared invokers by {@link SharedInvokers}.
+ */
+public class SharedInvokersTest extends TestCase {
+
+  private IMocksControl control;
+  private GeneratorContext ctx;
+  private ErrorManager errorManager;
+  private SharedInvokers sharedInvokers;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    control = EasyMock.createNiceControl();
+    ctx = createContext(control);
+    errorManager = new ErrorManager(TreeLogger.NULL);
+  }
+
+  private static GeneratorContext createContext(IMocksControl control) {
+    GeneratorContext ctx = control.createMock(GeneratorContext.class);
+    expect(ctx.getTypeOracle()).andStubReturn(control.createMock(TypeOracle.class));
+    return ctx;
+  }
+
+  private void replay() {
+    control.replay();
+    sharedInvokers = new SharedInvokers(ctx, TreeLogger.NULL, errorManager,
+        createProperties());
+  }
+
+  private GinProperties createProperties() {
+    GinProperties properties = EasyMock.createNiceMock(GinProperties.class);
+    expect(properties.getBoolean(GinProperties.SHARE_INVOKERS, false)).andStubReturn(true);
+    EasyMock.replay(properties);
+    return properties;
+  }
+
+  public void testSameMemberGetsSameName() throws Exception {
+    replay();
+
+    String name = sharedInvokers.getInvokerClassName(method(Target.class, "set", String.class),
+        true, false);
+
+    assertEquals(name, sharedInvokers.getInvokerClassName(
+        method(Target.class, "set", String.class), true, false));
+    assertTrue(name.startsWith("SharedInvokersTest_Target_set_GinInvoker_"));
+    assertIdentifier(name);
+    assertNoErrors();
+  }
+
+  public void testOverloadsGetDifferentNames() throws Exception {
+    replay();
+
+    assertFalse(sharedInvokers.getInvokerClassName(method(Target.class, "set", String.class),
+        true, false).equals(sharedInvokers.getInvokerClassName(
+            method(Target.class, "set", Integer.class), true, false)));
+    assertNoErrors();
+  }
+
+  public void testInvokerKindsGetDifferentNames() throws Exception {
+    replay();
+
+    MethodLiteral<?, ?> method = method(Target.class, "set", String.class);
+    String plain = sharedInvokers.getInvokerClassName(method, true, false);
+
+    assertFalse(plain.equals(sharedInvokers.getInvokerClassName(method, false, false)));
+    assertFalse(plain.equals(sharedInvokers.getInvokerClassName(method, true, true)));
+    assertNoErrors();
+  }
+
+  public void testConstructorsAreNamed() throws Exception {
+    replay();
+
+    MethodLiteral<?, ?> constructor =
+        MethodLiteral.get(Target.class.getDeclaredConstructor(), TypeLiteral.get(Target.class));
+    String name = sharedInvokers.getInvokerClassName(constructor, false, false);
+
+    assertTrue(name.startsWith("SharedInvokersTest_Target_new_GinInvoker_"));
+    assertIdentifier(name);
+    assertNoErrors();
+  }
+
+  public void testTypeArgumentsOfDeclaringTypeGetDifferentNames() throws Exception {
+    replay();
+
+    // The invokers take a String and an Integer parameter, respectively.
+    MethodLiteral<?, ?> ofString = MethodLiteral.get(
+        Generic.class.getDeclaredMethod("set", Object.class),
+        new TypeLiteral<Generic<String>>() {});
+    MethodLiteral<?, ?> ofInteger = MethodLiteral.get(
+        Generic.class.getDeclaredMethod("set", Object.class),
+        new TypeLiteral<Generic<Integer>>() {});
+
+    assertFalse(sharedInvokers.getInvokerClassName(ofString, true, false)
+        .equals(sharedInvokers.getInvokerClassName(ofInteger, true, false)));
+    assertNoErrors();
+  }
+
+  public void testSignatureTellsApartTypeVariablesAndTheirValues() throws Exception {
+    replay();
+
+    TypeLiteral<Generic<String>> type = new TypeLiteral<Generic<String>>() {};
+    MethodLiteral<?, ?> ofVariable =
+        MethodLiteral.get(Generic.class.getDeclaredMethod("set", Object.class), type);
+    MethodLiteral<?, ?> ofString =
+        MethodLiteral.get(Generic.class.getDeclaredMethod("set", String.class), type);
+
+    assertFalse(SharedInvokers.getSignature(ofVariable, true, false)
+        .equals(SharedInvokers.getSignature(ofString, true, false)));
+  }
+
+  public void testReusedNameIsError() throws Exception {
+    replay();
+
+    sharedInvokers.checkUnique("Foo_bar_GinInvoker_0", "Foo#bar()");
+    sharedInvokers.checkUnique("Foo_bar_GinInvoker_0", "Foo#bar()");
+    assertNoErrors();
+
+    sharedInvokers.checkUnique("Foo_bar_GinInvoker_0", "Foo#bar(int)");
+    try {
+      errorManager.checkForError();
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  public void testNamesAreRememberedPerCompilation() throws Exception {
+    replay();
+    sharedInvokers.checkUnique("Foo_bar_GinInvoker_1", "Foo#bar()");
+
+    IMocksControl otherControl = EasyMock.createNiceControl();
+    GeneratorContext otherCtx = createContext(otherControl);
+    otherControl.replay();
+    new SharedInvokers(otherCtx, TreeLogger.NULL, errorManager, createProperties())
+        .checkUnique("Foo_bar_GinInvoker_1", "Foo#bar(int)");
+
+    assertNoErrors();
+  }
+
+  public void testNamesAreRememberedAcrossRuns() throws Exception {
+    replay();
+    sharedInvokers.checkUnique("Foo_bar_GinInvoker_3", "Foo#bar()");
+
+    // Each run wraps the context of the compilation anew.
+    GeneratorContext otherRunCtx = EasyMock.createNiceMock(GeneratorContext.class);
+    expect(otherRunCtx.getTypeOracle()).andStubReturn(ctx.getTypeOracle());
+    EasyMock.replay(otherRunCtx);
+    new SharedInvokers(otherRunCtx, TreeLogger.NULL, errorManager, createProperties())
+        .checkUnique("Foo_bar_GinInvoker_3", "Foo#bar(int)");
+
+    try {
+      errorManager.checkForError();
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  public void testWritesInvokerClassOnce() throws Exception {
+    StringWriter output = new StringWriter();
+    expect(ctx.tryCreate(TreeLogger.NULL, "com.example", "Foo_bar_GinInvoker_2"))
+        .andReturn(new PrintWriter(output)).andReturn(null);
+    replay();
+
+    InjectorMethod invoker = SourceSnippets.asMethod(false,
+        "public static void invoke(com.example.Foo invokee)", "com.example",
+        SourceSnippets.forText("invokee.bar();"));
+    sharedInvokers.writeInvokerClass("com.example", "Foo_bar_GinInvoker_2", invoker);
+    sharedInvokers.writeInvokerClass("com.example", "Foo_bar_GinInvoker_2", invoker);
+
+    String source = output.toString();
+    assertTrue(source, source.contains("public class Foo_bar_GinInvoker_2"));
+    assertTrue(source, source.contains("public static void invoke(com.example.Foo invokee) {"));
+    assertEquals(source.indexOf("invokee.bar();"), source.lastIndexOf("invokee.bar();"));
+  }
+
+  private MethodLiteral<?, ?> method(Class<?> type, String name, Class<?>... parameterTypes)
+      throws NoSuchMethodException {
+    return MethodLiteral.get(type.getDeclaredMethod(name, parameterTypes), TypeLiteral.get(type));
+  }
+
+  private void assertIdentifier(String name) {
+    assertTrue(name, Character.isJavaIdentifierStart(name.charAt(0)));
+    for (char c : name.toCharArray()) {
+      assertTrue(name, Character.isJavaIdentifierPart(c));
+    }
+  }
+
+  private void assertNoErrors() throws UnableToCompleteException {
+    errorManager.checkForError();
+  }
+
+  static class Target {
+    Target() {}
+
+    void set(String value) {}
+
+    void set(Integer value) {}
+  }
+
+  static class Generic<T> {
+    void set(T value) {}
+
+    void set(String value) {}
+  }
+}
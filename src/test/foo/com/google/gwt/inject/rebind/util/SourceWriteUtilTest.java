@@ -24,6 +24,7 @@ import com.google.inject.Inject;
 import com.google.inject.Key;
 
 import junit.framework.TestCase;
+import org.easymock.EasyMock;
 
 import java.lang.reflect.Method;
 
@@ -55,6 +56,23 @@ public class SourceWriteUtilTest extends TestCase {
     assertEquals(signature + " /*-{\\n" + body + "\\n}-*/;\\n\\n", writer.toString());
   }
 
+  public void testWriteInjectorMethodStreamsBody() throws Exception {
+    SourceWriter writer = new UnitTestSourceWriter();
+
+    String signature = "public void foo()";
+    SourceSnippet body = new SourceSnippetBuilder()
+        .append("int bar;").append("\\n").append("String baz = \"la\";")
+        .build();
+    InjectorMethod method = SourceSnippets.asMethod(false, signature, "pkg", body);
+
+    int size = sourceWriteUtil.writeMethod(method, writer, null);
+
+    String bodyText = "int bar;\\nString baz = \"la\";";
+    assertEquals(signature + " {\\n" + bodyText + "\\n}\\n\\n", writer.toString());
+    assertEquals(signature.length() + bodyText.length(), size);
+    assertEquals(bodyText, body.getSource(null));
+  }
+
   protected void setUp() throws Exception {
     super.setUp();
     BindingIndex bindingIndex = new BindingIndex() {
@@ -65,7 +83,9 @@ public class SourceWriteUtilTest extends TestCase {
 
     NameGenerator nameGenerator = new NameGenerator();
     GuiceUtil guiceUtil = new GuiceUtil(createInjectableCollector());
-    MethodCallUtil methodCallUtil = new MethodCallUtil();
+    SharedInvokers sharedInvokers = EasyMock.createNiceMock(SharedInvokers.class);
+    EasyMock.replay(sharedInvokers);
+    MethodCallUtil methodCallUtil = new MethodCallUtil(sharedInvokers);
     sourceWriteUtil = new SourceWriteUtil(guiceUtil, createInjectableCollector(), methodCallUtil,
         bindingIndex);
   }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.TreeLogger;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TraceLoggerTest extends TestCase {
+
+  private static final int CAPACITY = 100;
+
+  public void testDisabledEventIsNotLogged() {
+    RecordingLogger delegate = new RecordingLogger(TreeLogger.INFO);
+    TraceLogger logger = new TraceLogger(delegate, CAPACITY);
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG, "Debug %s", "message");
+    PrettyPrinter.branch(logger, TreeLogger.DEBUG, "Branch %s", "message");
+
+    assertTrue(delegate.messages.isEmpty());
+  }
+
+  public void testEventIsFormattedOnceWhenLogged() {
+    TraceLogger logger = new TraceLogger(new RecordingLogger(TreeLogger.DEBUG), CAPACITY);
+    CountingArg arg = new CountingArg();
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG, "Debug %s", arg);
+    assertEquals(1, arg.count);
+
+    // The dump uses the stored message rather than the argument.
+    logger.dumpRecentEvents(new RecordingLogger(TreeLogger.ALL));
+    assertEquals(1, arg.count);
+  }
+
+  public void testDisabledEventIsFormattedOnlyWhenDumped() {
+    TraceLogger logger = new TraceLogger(new RecordingLogger(TreeLogger.INFO), CAPACITY);
+    CountingArg arg = new CountingArg();
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG, "Debug %s", arg);
+    PrettyPrinter.branch(logger, TreeLogger.DEBUG, "Branch %s", arg);
+    assertEquals(0, arg.count);
+
+    logger.dumpRecentEvents(new RecordingLogger(TreeLogger.ALL));
+    assertEquals(2, arg.count);
+  }
+
+  public void testListArgumentIsCopied() {
+    TraceLogger logger = new TraceLogger(new RecordingLogger(TreeLogger.INFO), CAPACITY);
+    List<String> list = new ArrayList<String>();
+    list.add("a");
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG, "List %s", list);
+    list.add("b");
+
+    RecordingLogger dump = new RecordingLogger(TreeLogger.ALL);
+    logger.dumpRecentEvents(dump);
+    assertEquals("[DEBUG] List [a]", dump.messages.get(1));
+  }
+
+  public void testEnabledEventIsLogged() {
+    RecordingLogger delegate = new RecordingLogger(TreeLogger.DEBUG);
+    TraceLogger logger = new TraceLogger(delegate, CAPACITY);
+
+    PrettyPrinter.log(logger, TreeLogger.DEBUG, "Debug %s", "message");
+
+    assertEquals(1, delegate.messages.size());
+    assertEquals("Debug message", delegate.messages.get(0));
+  }
+
+  public void testDumpRecentEvents() {
+    TraceLogger logger = new TraceLogger(new RecordingLogger(TreeLogger.INFO), CAPACITY);
+    CountingArg arg = new CountingArg();
+
+    TreeLogger branch = PrettyPrinter.branch(logger, TreeLogger.DEBUG, "Branch");
+    PrettyPrinter.log(branch, TreeLogger.DEBUG, "Debug %s", arg);
+
+    RecordingLogger dump = new RecordingLogger(TreeLogger.ALL);
+    logger.dumpRecentEvents(dump);
+
+    assertEquals(1, arg.count);
+    assertEquals(3, dump.messages.size());
+    assertEquals("[DEBUG] Branch", dump.messages.get(1));
+    assertEquals("  [DEBUG] Debug arg", dump.messages.get(2));
+  }
+
+  public void testDumpKeepsOnlyMostRecentEvents() {
+    TraceLogger logger = new TraceLogger(new RecordingLogger(TreeLogger.INFO), CAPACITY);
+    for (int i = 0; i < CAPACITY + 10; i++) {
+      PrettyPrinter.log(logger, TreeLogger.DEBUG, "Event %d", i);
+    }
+
+    RecordingLogger dump = new RecordingLogger(TreeLogger.ALL);
+    logger.dumpRecentEvents(dump);
+
+    assertEquals(CAPACITY + 1, dump.messages.size());
+    assertEquals("[DEBUG] Event 10", dump.messages.get(1));
+  }
+
+  private static class CountingArg {
+    int count = 0;
+
+    @Override
+    public String toString() {
+      count++;
+      return "arg";
+    }
+  }
+
+  private static class RecordingLogger extends TreeLogger {
+    private final Type maxDetail;
+    final List<String> messages;
+
+    RecordingLogger(Type maxDetail) {
+      this(maxDetail, new ArrayList<String>());
+    }
+
+    private RecordingLogger(Type maxDetail, List<String> messages) {
+      this.maxDetail = maxDetail;
+      this.messages = messages;
+    }
+
+    @Override
+    public TreeLogger branch(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      log(type, msg, caught, helpInfo);
+      return new RecordingLogger(maxDetail, messages);
+    }
+
+    @Override
+    public boolean isLoggable(Type type) {
+      return !type.isLowerPriorityThan(maxDetail);
+    }
+
+    @Override
+    public void log(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      if (isLoggable(type)) {
+        messages.add(msg);
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.server.rpc;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createControl;
+import static org.easymock.EasyMock.createNiceControl;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.easymock.IMocksControl;
+
+public class RpcBatchServletTest extends TestCase {
+
+  private IMocksControl control;
+  private IMocksControl niceControl;
+
+  // Mocks:
+  private ServletContext context;
+  private RequestDispatcher dispatcher;
+  private HttpServletRequest request;
+  private HttpServletResponse response;
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private final RpcBatchServlet servlet = new RpcBatchServlet();
+
+  @Override
+  public void setUp() throws Exception {
+    control = createControl();
+    niceControl = createNiceControl();
+
+    context = control.createMock("context", ServletContext.class);
+    dispatcher = control.createMock("dispatcher", RequestDispatcher.class);
+    request = niceControl.createMock("request", HttpServletRequest.class);
+    response = niceControl.createMock("response", HttpServletResponse.class);
+
+    // The servlet keeps asking its config for the context, so it gets its own
+    // control that is never reset.
+    IMocksControl configControl = createNiceControl();
+    ServletConfig config = configControl.createMock("config", ServletConfig.class);
+    expect(config.getInitParameter(RpcBatchServlet.ALLOWED_PATHS_PARAMETER))
+        .andStubReturn("/app/greet, /app/login");
+    expect(config.getServletContext()).andStubReturn(context);
+    configControl.replay();
+
+    servlet.init(config);
+  }
+
+  public void testAllowedPath() throws Exception {
+    expectBatch("http://host/ctx/app/greet\n3\nabc");
+    expect(context.getRequestDispatcher("/app/greet")).andReturn(dispatcher);
+    dispatcher.include(anyObject(ServletRequest.class), anyObject(ServletResponse.class));
+    expectLastCall().andAnswer(new IAnswer<Object>() {
+      public Object answer() throws Throwable {
+        ServletRequest entryRequest = (ServletRequest) EasyMock.getCurrentArguments()[0];
+        ServletResponse entryResponse = (ServletResponse) EasyMock.getCurrentArguments()[1];
+        assertEquals("abc", entryRequest.getReader().readLine());
+        assertEquals(Integer.valueOf(1), entryRequest.getAttribute(RpcBatchServlet.BATCH_SIZE_ATTRIBUTE));
+        entryResponse.getWriter().print("ok");
+        return null;
+      }
+    });
+
+    replayAndPost();
+
+    assertEquals("200\n2\nok", output.toString("UTF-8"));
+  }
+
+  public void testPathNotAllowed() throws Exception {
+    // The strict context fails if a dispatcher is requested.
+    expectBatch("http://host/ctx/app/admin\n3\nabc");
+
+    replayAndPost();
+
+    assertEquals("403\n0\n", output.toString("UTF-8"));
+  }
+
+  public void testOtherContextNotAllowed() throws Exception {
+    expectBatch("http://host/other/app/greet\n3\nabc");
+
+    replayAndPost();
+
+    assertEquals("403\n0\n", output.toString("UTF-8"));
+  }
+
+  public void testMalformedBatch() throws Exception {
+    expectBatch("http://host/ctx/app/greet\n99\nabc");
+    response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+
+    replayAndPost();
+
+    assertEquals("", output.toString("UTF-8"));
+  }
+
+  private void expectBatch(String batch) throws Exception {
+    expect(request.getContextPath()).andStubReturn("/ctx");
+    expect(request.getServletPath()).andStubReturn("/app/gin.rpcBatch");
+    expect(request.getReader()).andReturn(new BufferedReader(new StringReader(batch)));
+    expect(response.getOutputStream()).andStubReturn(new ServletOutputStream() {
+      @Override
+      public void write(int b) {
+        output.write(b);
+      }
+    });
+  }
+
+  private void replayAndPost() throws Exception {
+    control.replay();
+    niceControl.replay();
+    servlet.doPost(request, response);
+    control.verify();
+    niceControl.verify();
+  }
+}
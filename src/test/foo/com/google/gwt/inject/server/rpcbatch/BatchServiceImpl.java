@@ -0,0 +1,36 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.server.rpcbatch;
+
+import com.google.gwt.inject.client.rpcbatch.BatchService;
+import com.google.gwt.inject.server.rpc.RpcBatchServlet;
+import com.google.gwt.user.server.rpc.RemoteServiceServlet;
+
+/**
+ * Implementation of {@link BatchService} for {@code RpcBatchingTest}.
+ */
+public class BatchServiceImpl extends RemoteServiceServlet implements BatchService {
+
+  public String getBatchSize(String name) {
+    Integer batchSize =
+        (Integer) getThreadLocalRequest().getAttribute(RpcBatchServlet.BATCH_SIZE_ATTRIBUTE);
+    return name + "/" + (batchSize == null ? 0 : batchSize);
+  }
+
+  public String getBatchSizeNow(String name) {
+    return getBatchSize(name);
+  }
+}
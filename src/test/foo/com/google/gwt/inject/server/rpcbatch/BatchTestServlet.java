@@ -0,0 +1,31 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.server.rpcbatch;
+
+import com.google.gwt.inject.server.rpc.RpcBatchServlet;
+
+/**
+ * Batch servlet for {@code RpcBatchingTest}.  Servlets mapped in a GWT module
+ * can't have init parameters, so this allows the test service by overriding
+ * {@link #isAllowedPath}.
+ */
+public class BatchTestServlet extends RpcBatchServlet {
+
+  @Override
+  protected boolean isAllowedPath(String path) {
+    return path.endsWith("/batchTest");
+  }
+}